@@ -0,0 +1,36 @@
+package com.landriskai.bench;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.risk.location.LocationPriorService;
+import com.landriskai.risk.rules.AreaMissingRule;
+import com.landriskai.risk.rules.IdentifierFormatRule;
+import com.landriskai.risk.rules.LocationPriorRule;
+import com.landriskai.risk.rules.OwnerMissingRule;
+import com.landriskai.risk.rules.RiskRule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The built-in rules without Spring. Location priors come from the web form's gazetteer (benches
+ * run from backend/) with a +5 prior on district PATNA; land records are left out.
+ */
+final class BenchRules {
+
+    private static final String PATNA_DISTRICT_CODE = "212";
+
+    private BenchRules() {
+    }
+
+    static List<RiskRule> defaultRules() throws IOException {
+        Path priors = Files.createTempFile("location-priors", ".csv");
+        priors.toFile().deleteOnExit();
+        Files.writeString(priors, "district," + PATNA_DISTRICT_CODE + ",5\n");
+        LandRiskAiProperties props = new LandRiskAiProperties();
+        props.getLocation().setPriorsPath(priors.toString());
+        LocationPriorService locations = new LocationPriorService(props, event -> { });
+        return List.of(new OwnerMissingRule(), new AreaMissingRule(), new IdentifierFormatRule(), new LocationPriorRule(locations));
+    }
+}
@@ -0,0 +1,135 @@
+package com.landriskai.bench;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.storage.BlobStore;
+import com.landriskai.storage.LocalBlobStore;
+import com.landriskai.storage.S3BlobStore;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+/**
+ * Put / size / ranged read / delete round trips through the local and S3 blob stores (the latter
+ * against {@link S3StandIn}), checking every byte, with mean latency per operation.
+ * The S3 store uses a small part size so larger blobs go through multipart upload, and runs a
+ * second time against a stand-in that answers ranged reads with the whole object.
+ * args: [blobs=200] [blobKb=64] [partKb=16]
+ */
+public class BlobStoreBench {
+
+    public static void main(String[] args) throws Exception {
+        int blobs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int blobKb = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int partKb = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        Path dir = Files.createTempDirectory("blob-store-bench");
+        S3StandIn standIn = new S3StandIn().start(0);
+        try {
+            LandRiskAiProperties.S3 cfg = new LandRiskAiProperties.S3();
+            cfg.setEndpoint("http://localhost:" + standIn.port());
+            cfg.setAccessKey(S3StandIn.ACCESS_KEY);
+            cfg.setSecretKey(S3StandIn.SECRET_KEY);
+
+            run(new LocalBlobStore(dir.resolve("local")), dir, blobs, blobKb);
+            run(new S3BlobStore(cfg, partKb * 1024), dir, blobs, blobKb);
+            System.out.print("stand-in ignoring Range: ");
+            standIn.ignoreRanges(true);
+            run(new S3BlobStore(cfg, partKb * 1024), dir, blobs, blobKb);
+            standIn.ignoreRanges(false);
+            System.out.printf("stand-in: %,d requests, %d rejected, %d objects, %d open uploads%n",
+                    standIn.requests(), standIn.rejected(), standIn.objectCount(), standIn.openUploads());
+
+            cfg.setSecretKey("wrong");
+            try {
+                new S3BlobStore(cfg).size(key(new byte[1]));
+                throw new AssertionError("bad signature accepted");
+            } catch (java.io.IOException expected) {
+                System.out.println("wrong secret rejected: " + expected.getMessage().lines().findFirst().orElse(""));
+            }
+        } finally {
+            standIn.stop();
+            try (var files = Files.walk(dir)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private static void run(BlobStore store, Path dir, int blobs, int blobKb) throws Exception {
+        Random random = new Random(7);
+        byte[][] data = new byte[blobs][];
+        String[] keys = new String[blobs];
+        long put = 0, head = 0, read = 0, ranged = 0, delete = 0;
+        for (int i = 0; i < blobs; i++) {
+            // Vary sizes around blobKb: some blobs fit one request, others need several parts
+            data[i] = new byte[1 + random.nextInt(blobKb * 2048)];
+            random.nextBytes(data[i]);
+            keys[i] = key(data[i]);
+            Path file = dir.resolve("upload.tmp");
+            Files.write(file, data[i]);
+            long t = System.nanoTime();
+            store.put(keys[i], file);
+            put += System.nanoTime() - t;
+            Files.deleteIfExists(file);
+        }
+        for (int i = 0; i < blobs; i++) {
+            long t = System.nanoTime();
+            long size = store.size(keys[i]);
+            head += System.nanoTime() - t;
+            check(size == data[i].length, "size of blob " + i);
+
+            t = System.nanoTime();
+            byte[] all;
+            try (InputStream in = store.open(keys[i], 0, -1)) {
+                all = in.readAllBytes();
+            }
+            read += System.nanoTime() - t;
+            check(Arrays.equals(all, data[i]), "content of blob " + i);
+
+            int from = random.nextInt(data[i].length);
+            int len = random.nextInt(data[i].length - from + 1);
+            t = System.nanoTime();
+            byte[] slice;
+            try (InputStream in = store.open(keys[i], from, len)) {
+                slice = in.readAllBytes();
+            }
+            ranged += System.nanoTime() - t;
+            check(Arrays.equals(slice, Arrays.copyOfRange(data[i], from, from + len)), "range of blob " + i);
+            try (InputStream in = store.open(keys[i], from, -1)) {
+                check(Arrays.equals(in.readAllBytes(), Arrays.copyOfRange(data[i], from, data[i].length)), "tail of blob " + i);
+            }
+        }
+        for (int i = 0; i < blobs; i++) {
+            long t = System.nanoTime();
+            store.delete(keys[i]);
+            delete += System.nanoTime() - t;
+            check(store.size(keys[i]) == -1, "blob " + i + " deleted");
+        }
+        store.delete(keys[0]);
+        try (InputStream in = store.open(keys[0], 0, -1)) {
+            throw new AssertionError("deleted blob readable, first byte " + in.read());
+        } catch (NoSuchFileException expected) {
+            // missing blobs read as NoSuchFileException on every backend
+        }
+        System.out.printf("%-6s %d blobs ok | put %.2f ms  head %.2f ms  get %.2f ms  range %.2f ms  delete %.2f ms%n",
+                store.name(), blobs, ms(put, blobs), ms(head, blobs), ms(read, blobs), ms(ranged, blobs), ms(delete, blobs));
+    }
+
+    private static String key(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    private static double ms(long nanos, int n) {
+        return nanos / 1e6 / n;
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) {
+            throw new AssertionError("mismatch: " + what);
+        }
+    }
+}
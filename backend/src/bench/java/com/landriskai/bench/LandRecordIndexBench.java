@@ -0,0 +1,73 @@
+package com.landriskai.bench;
+
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.landrecords.LandRecordIndex;
+import com.landriskai.landrecords.LandRecordIndexBuilder;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Build time, open (mmap) time, heap used by the open index and lookup latency for a
+ * synthetic extract.
+ * args: [rows=2000000] [lookups=1000000]
+ */
+public class LandRecordIndexBench {
+
+    private static final String[] DISTRICTS = {"Patna", "Gaya", "Purba Champaran", "Muzaffarpur", "Bhagalpur", "Nalanda"};
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Path dir = Files.createTempDirectory("land-records-bench");
+        Path csv = dir.resolve("extract.csv");
+        Path idx = dir.resolve("land-records.idx");
+        try {
+            try (BufferedWriter w = Files.newBufferedWriter(csv)) {
+                w.write("district,circle,village,khata,khesra,owner,area\n");
+                for (int i = 0; i < rows; i++) {
+                    w.write(DISTRICTS[i % DISTRICTS.length] + ",Circle " + (i % 97) + ",Village " + (i % 1013)
+                            + "," + (i / 7) + "," + i + "/" + (i % 9) + ",\"Owner " + i + ", S/o Father\"," + (i % 500) / 100.0 + "\n");
+                }
+            }
+
+            long started = System.nanoTime();
+            LandRecordIndexBuilder.Result built = LandRecordIndexBuilder.build(List.of(csv), idx);
+            System.out.printf("build  %,d rows -> %,d bytes in %,d ms%n", built.rows(), built.bytes(), (System.nanoTime() - started) / 1_000_000);
+
+            System.gc();
+            long heapBefore = usedHeap();
+            started = System.nanoTime();
+            LandRecordIndex index = LandRecordIndex.open(idx);
+            long openMicros = (System.nanoTime() - started) / 1_000;
+            System.gc();
+            System.out.printf("open   %,d us, heap delta %,d KiB%n", openMicros, (usedHeap() - heapBefore) / 1024);
+
+            Random random = new Random(42);
+            ParcelKey[] keys = new ParcelKey[4096];
+            for (int i = 0; i < keys.length; i++) {
+                int r = random.nextInt(rows);
+                // One in four misses
+                String khesra = i % 4 == 0 ? "x" + r : r + "/" + (r % 9);
+                keys[i] = ParcelKey.of(String.valueOf(r / 7), khesra, DISTRICTS[r % DISTRICTS.length]);
+            }
+            long found = 0;
+            for (int i = 0; i < lookups; i++) found += index.find(keys[i & 4095]).size();   // warm-up
+            started = System.nanoTime();
+            for (int i = 0; i < lookups; i++) found += index.find(keys[i & 4095]).size();
+            System.out.printf("lookup %.0f ns/op (%d found)%n", (System.nanoTime() - started) / (double) lookups, found);
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(idx);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,90 @@
+package com.landriskai.bench;
+
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.landrecords.ParcelBlacklist;
+import com.landriskai.landrecords.ParcelBlacklistBuilder;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Build time, file size per parcel, open (mmap) time, heap used by the open list, membership
+ * latency and false positives for a synthetic encumbrance/dispute list.
+ * args: [parcels=500000] [lookups=2000000]
+ */
+public class ParcelBlacklistBench {
+
+    private static final String[] DISTRICTS = {"Patna", "Gaya", "Purba Champaran", "Muzaffarpur", "Bhagalpur", "Nalanda"};
+
+    public static void main(String[] args) throws Exception {
+        int parcels = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Path dir = Files.createTempDirectory("parcel-blacklist-bench");
+        Path csv = dir.resolve("list.csv");
+        Path mph = dir.resolve("parcel-blacklist.mph");
+        try {
+            try (BufferedWriter w = Files.newBufferedWriter(csv)) {
+                w.write("district,circle,village,khata,khesra,type\n");
+                for (int i = 0; i < parcels; i++) {
+                    w.write(DISTRICTS[i % DISTRICTS.length] + "," + circle(i) + "," + village(i) + "," + (i / 7) + "," + i
+                            + "," + (i % 3 == 0 ? "encumbrance" : "litigation") + "\n");
+                }
+            }
+
+            long started = System.nanoTime();
+            ParcelBlacklistBuilder.Result built = ParcelBlacklistBuilder.build(List.of(csv), mph);
+            System.out.printf("build  %,d parcels -> %,d bytes (%.2f B/parcel, seed %d) in %,d ms%n", built.parcels(), built.bytes(),
+                    (double) built.bytes() / built.parcels(), built.seed(), (System.nanoTime() - started) / 1_000_000);
+
+            System.gc();
+            long heapBefore = usedHeap();
+            started = System.nanoTime();
+            ParcelBlacklist list = ParcelBlacklist.open(mph);
+            long openMicros = (System.nanoTime() - started) / 1_000;
+            System.gc();
+            System.out.printf("open   %,d us, heap delta %,d KiB%n", openMicros, (usedHeap() - heapBefore) / 1024);
+
+            Random random = new Random(42);
+            int[] ids = new int[4096];
+            ParcelKey[] keys = new ParcelKey[ids.length];
+            for (int i = 0; i < keys.length; i++) {
+                int r = random.nextInt(parcels);
+                ids[i] = r;
+                // Half are unlisted khesras of listed khatas
+                keys[i] = ParcelKey.of(String.valueOf(r / 7), i % 2 == 0 ? "x" + r : String.valueOf(r), DISTRICTS[r % DISTRICTS.length]);
+            }
+            long listed = 0;
+            for (int i = 0; i < lookups; i++) listed += list.flags(keys[i & 4095], circle(ids[i & 4095]), village(ids[i & 4095])) != 0 ? 1 : 0;   // warm-up
+            listed = 0;
+            started = System.nanoTime();
+            for (int i = 0; i < lookups; i++) listed += list.flags(keys[i & 4095], circle(ids[i & 4095]), village(ids[i & 4095])) != 0 ? 1 : 0;
+            System.out.printf("lookup %.0f ns/op (%d listed of %d)%n", (System.nanoTime() - started) / (double) lookups, listed, lookups);
+
+            long falsePositives = 0;
+            for (int i = 0; i < lookups; i++) {
+                if (list.flags(ParcelKey.of("u" + i, "u" + i, "Patna"), "", "") != 0) falsePositives++;
+            }
+            System.out.printf("false positives %d of %,d unlisted%n", falsePositives, lookups);
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(mph);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static String circle(int i) {
+        return "Circle " + (i % 97);
+    }
+
+    private static String village(int i) {
+        return "Village " + (i % 1013);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
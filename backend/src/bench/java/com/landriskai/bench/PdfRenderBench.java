@@ -0,0 +1,89 @@
+package com.landriskai.bench;
+
+import com.landriskai.domain.RiskBand;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.pdf.PdfReportService;
+import com.landriskai.risk.FindingCatalog;
+import com.landriskai.risk.RiskResult;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Per-PDF time and heap allocation of PdfReportService: base render (layout) and per-order stamp,
+ * for a clean parcel and one with four findings. Documents are rendered into memory; the stamp
+ * reads its base from a temporary file, as it does from the report store.
+ * args: [iterations=2000]
+ */
+public class PdfRenderBench {
+
+    private static final Instant GENERATED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Path basePath = Files.createTempFile("pdf-bench", ".pdf");
+        PdfReportService pdf = new PdfReportService();
+        ByteArrayOutputStream base = new ByteArrayOutputStream(64 * 1024);
+        ByteArrayOutputStream report = new ByteArrayOutputStream(64 * 1024);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        OrderEntity order = new OrderEntity();
+        order.setDistrict("Patna");
+        order.setCircle("Danapur");
+        order.setVillage("Kothwan");
+        order.setKhata("12");
+        order.setKhesra("345/2");
+        order.setOwnerName("Ram Kumar");
+        order.setPlotArea("Purchased");
+        order.setWhatsappNumber("9876543210");
+        order.setEmailAddress("buyer@example.com");
+
+        RiskResult clean = RiskResult.builder().score(10).band(RiskBand.GREEN).findings(List.of()).build();
+        RiskResult flagged = RiskResult.builder().score(75).band(RiskBand.RED).findings(List.of(
+                FindingCatalog.OWN_MISSING.withEvidence("ownerName=<empty>"),
+                FindingCatalog.LR_AREA_MISMATCH.withEvidence("provided=2.5, recorded=1.8"),
+                FindingCatalog.LISTED_DISPUTE.withEvidence("list=99461b34beb67e21"),
+                FindingCatalog.LOCATION_PRIOR.withEvidence("district=212, points=+5"))).build();
+
+        System.out.printf("%-10s %-6s %10s %12s %10s%n", "case", "stage", "us/pdf", "KiB/pdf", "bytes");
+        for (Object[] c : new Object[][]{{"clean", clean}, {"findings", flagged}}) {
+            RiskResult result = (RiskResult) c[1];
+            for (int i = 0; i < iterations; i++) {   // warm-up
+                base.reset();
+                pdf.renderBase(order, result, base);
+                Files.write(basePath, base.toByteArray());
+                report.reset();
+                pdf.stamp(basePath, order, 1L, "ABC123", "LR-BR-20260101-XYZ", GENERATED_AT, report);
+            }
+            long tid = Thread.currentThread().getId();
+            long baseNanos = 0, stampNanos = 0, baseBytes = 0, stampBytes = 0, baseSize = 0;
+            for (int i = 0; i < iterations; i++) {
+                base.reset();
+                report.reset();
+                long a0 = threads.getThreadAllocatedBytes(tid);
+                long t0 = System.nanoTime();
+                pdf.renderBase(order, result, base);
+                long t1 = System.nanoTime();
+                long a1 = threads.getThreadAllocatedBytes(tid);
+                Files.write(basePath, base.toByteArray());
+                long a1w = threads.getThreadAllocatedBytes(tid);
+                long t1w = System.nanoTime();
+                pdf.stamp(basePath, order, (long) i, "ABC123", "LR-BR-20260101-XYZ", GENERATED_AT, report);
+                long t2 = System.nanoTime();
+                long a2 = threads.getThreadAllocatedBytes(tid);
+                baseNanos += t1 - t0;
+                stampNanos += t2 - t1w;
+                baseBytes += a1 - a0;
+                stampBytes += a2 - a1w;
+                baseSize = base.size();
+            }
+            System.out.printf("%-10s %-6s %10.0f %12.1f %10d%n", c[0], "base", baseNanos / 1e3 / iterations, baseBytes / 1024.0 / iterations, baseSize);
+            System.out.printf("%-10s %-6s %10.0f %12.1f%n", c[0], "stamp", stampNanos / 1e3 / iterations, stampBytes / 1024.0 / iterations);
+        }
+        Files.deleteIfExists(basePath);
+    }
+}
@@ -0,0 +1,57 @@
+package com.landriskai.bench;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.rules.RiskRuleRegistry;
+import com.landriskai.risk.rules.RuleMetrics;
+import com.landriskai.risk.rules.RuleSet;
+import com.landriskai.risk.rules.SourceFetcher;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated per single-order assessment (RuleSet.evaluate), measured with the
+ * per-thread allocation counter. Orders cover no findings, constant-evidence findings only,
+ * and all four findings.
+ * args: [iterations=2000000] [recordRuleMetrics=false]
+ */
+public class RiskAllocationBench {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        LandRiskAiProperties props = new LandRiskAiProperties();
+        RuleMetrics metrics = new RuleMetrics(props);
+        metrics.setEnabled(args.length > 1 && Boolean.parseBoolean(args[1]));
+        RuleSet ruleSet = new RiskRuleRegistry(BenchRules.defaultRules(), metrics, new SourceFetcher(props)).current();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        OrderEntity clean = order("Gaya", "12", "34/5", "Owner", "RAIYATI");
+        OrderEntity constantOnly = order("Gaya", "12", "34/5", null, null);
+        OrderEntity allFindings = order("Patna", "12 a", "34/5", null, null);
+
+        System.out.printf("%-14s %12s %10s%n", "case", "bytes/assess", "ns/assess");
+        for (Object[] c : new Object[][]{{"no findings", clean}, {"constant only", constantOnly}, {"all four", allFindings}}) {
+            OrderEntity order = (OrderEntity) c[1];
+            long sink = 0;
+            for (int i = 0; i < iterations; i++) sink += ruleSet.evaluate(order).getScore();   // warm-up
+            long tid = Thread.currentThread().getId();
+            long bytes = threads.getThreadAllocatedBytes(tid);
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) sink += ruleSet.evaluate(order).getScore();
+            long elapsed = System.nanoTime() - start;
+            bytes = threads.getThreadAllocatedBytes(tid) - bytes;
+            System.out.printf("%-14s %12.1f %10.1f%n", c[0], (double) bytes / iterations, (double) elapsed / iterations);
+            if (sink == 42) System.out.print("");
+        }
+    }
+
+    private static OrderEntity order(String district, String khata, String khesra, String owner, String plotArea) {
+        OrderEntity o = new OrderEntity();
+        o.setDistrict(district);
+        o.setKhata(khata);
+        o.setKhesra(khesra);
+        o.setOwnerName(owner);
+        o.setPlotArea(plotArea);
+        return o;
+    }
+}
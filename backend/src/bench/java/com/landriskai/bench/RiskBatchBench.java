@@ -0,0 +1,90 @@
+package com.landriskai.bench;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.RiskEngine;
+import com.landriskai.risk.rules.RiskRule;
+import com.landriskai.risk.rules.RiskRuleRegistry;
+import com.landriskai.risk.rules.RuleMetrics;
+import com.landriskai.risk.rules.SourceFetcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Orders/second of RiskEngine.assessAll at increasing parallelism.
+ * args: [orders=200000] [parallelism levels, default 1 2 4 ... availableProcessors]
+ */
+public class RiskBatchBench {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final String[] DISTRICTS = {"Patna", "Gaya", "Purba Champaran", "Muzaffarpur", "Bhagalpur", "Nalanda"};
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int[] levels = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+                : defaultLevels();
+
+        List<OrderEntity> orders = orders(n);
+        List<RiskRule> rules = BenchRules.defaultRules();
+        System.out.printf("orders=%d cores=%d%n", n, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-12s %14s %8s%n", "parallelism", "orders/s", "speedup");
+
+        double baseline = 0;
+        for (int p : levels) {
+            LandRiskAiProperties props = new LandRiskAiProperties();
+            props.getRisk().setBatchParallelism(p);
+            RiskEngine engine = new RiskEngine(new RiskRuleRegistry(rules, new RuleMetrics(props), new SourceFetcher(props)), props);
+            try {
+                double rate = measure(engine, orders);
+                if (baseline == 0) baseline = rate;
+                System.out.printf("%-12d %,14.0f %7.2fx%n", p, rate, rate / baseline);
+            } finally {
+                engine.shutdown();
+            }
+        }
+    }
+
+    private static double measure(RiskEngine engine, List<OrderEntity> orders) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += engine.assessAll(orders).size();
+        }
+        double[] rates = new double[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += engine.assessAll(orders).get(orders.size() - 1).getScore();
+            rates[i] = orders.size() / ((System.nanoTime() - start) / 1e9);
+        }
+        if (sink == 42) System.out.print("");
+        Arrays.sort(rates);
+        return rates[MEASURED_ROUNDS / 2];
+    }
+
+    private static int[] defaultLevels() {
+        List<Integer> levels = new ArrayList<>();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; p < cores; p *= 2) levels.add(p);
+        levels.add(cores);
+        return levels.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<OrderEntity> orders(int n) {
+        Random random = new Random(42);
+        List<OrderEntity> orders = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            OrderEntity o = new OrderEntity();
+            o.setDistrict(DISTRICTS[random.nextInt(DISTRICTS.length)]);
+            o.setKhata(random.nextInt(10) == 0 ? random.nextInt(999) + " a" : String.valueOf(random.nextInt(999)));
+            o.setKhesra(random.nextInt(2000) + "/" + random.nextInt(9));
+            o.setOwnerName(random.nextBoolean() ? "Owner " + i : null);
+            o.setPlotArea(random.nextInt(3) == 0 ? null : "RAIYATI");
+            orders.add(o);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,322 @@
+package com.landriskai.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory stand-in for the subset of S3 that S3BlobStore uses (path-style PUT, ranged GET, HEAD,
+ * DELETE, multipart upload), checking every request's Signature V4 and payload hash on its own.
+ * For running the s3 backend without a real bucket:
+ *   gradle bench -PbenchMain=com.landriskai.bench.S3StandIn -PbenchArgs="9000"
+ *   --landriskai.storage.backend=s3 --landriskai.storage.s3.endpoint=http://localhost:9000
+ *   --landriskai.storage.s3.accessKey=standin --landriskai.storage.s3.secretKey=standin-secret
+ * args: [port=9000]
+ */
+public class S3StandIn {
+
+    public static final String ACCESS_KEY = "standin";
+    public static final String SECRET_KEY = "standin-secret";
+
+    private static final Pattern AUTH = Pattern.compile(
+            "AWS4-HMAC-SHA256 Credential=([^/]+)/([^,]+), SignedHeaders=([^,]+), Signature=([0-9a-f]{64})");
+    private static final Pattern PART = Pattern.compile(
+            "<Part><PartNumber>(\\d+)</PartNumber><ETag>([^<]+)</ETag></Part>");
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, TreeMap<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean ignoreRanges;
+    private HttpServer server;
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9000;
+        S3StandIn s3 = new S3StandIn().start(port);
+        System.out.printf("S3 stand-in on http://localhost:%d (access key %s, secret %s)%n", s3.port(), ACCESS_KEY, SECRET_KEY);
+        Thread.currentThread().join();
+    }
+
+    public S3StandIn start(int port) throws IOException {
+        // Headers and body go out in separate writes: without this, Nagle + delayed ACK add ~40 ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        ((java.util.concurrent.ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public int objectCount() {
+        return objects.size();
+    }
+
+    public int openUploads() {
+        return uploads.size();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Answer ranged GETs with 200 and the whole object, as some S3-compatible stores do
+     */
+    public void ignoreRanges(boolean ignore) {
+        this.ignoreRanges = ignore;
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        requests.incrementAndGet();
+        try (ex) {
+            byte[] body = ex.getRequestBody().readAllBytes();
+            String error = verify(ex, body);
+            if (error != null) {
+                rejected.incrementAndGet();
+                send(ex, 403, "<Error><Code>SignatureDoesNotMatch</Code><Message>" + error + "</Message></Error>");
+                return;
+            }
+            String key = ex.getRequestURI().getPath();
+            String query = ex.getRequestURI().getRawQuery() == null ? "" : ex.getRequestURI().getRawQuery();
+            Map<String, String> params = params(query);
+            switch (ex.getRequestMethod()) {
+                case "PUT" -> {
+                    if (params.containsKey("uploadId")) {
+                        TreeMap<Integer, byte[]> parts = uploads.get(params.get("uploadId"));
+                        if (parts == null) {
+                            send(ex, 404, "<Error><Code>NoSuchUpload</Code></Error>");
+                            return;
+                        }
+                        parts.put(Integer.parseInt(params.get("partNumber")), body);
+                        ex.getResponseHeaders().set("ETag", etag(body));
+                        send(ex, 200, "");
+                    } else {
+                        objects.put(key, body);
+                        ex.getResponseHeaders().set("ETag", etag(body));
+                        send(ex, 200, "");
+                    }
+                }
+                case "POST" -> {
+                    if (params.containsKey("uploads")) {
+                        String id = UUID.randomUUID().toString();
+                        uploads.put(id, new TreeMap<>());
+                        send(ex, 200, "<InitiateMultipartUploadResult><UploadId>" + id + "</UploadId></InitiateMultipartUploadResult>");
+                    } else {
+                        complete(ex, key, params.get("uploadId"), new String(body, StandardCharsets.UTF_8));
+                    }
+                }
+                case "HEAD" -> {
+                    byte[] object = objects.get(key);
+                    if (object == null) {
+                        ex.sendResponseHeaders(404, -1);
+                    } else {
+                        ex.getResponseHeaders().set("Content-Length", Long.toString(object.length));
+                        ex.sendResponseHeaders(200, -1);
+                    }
+                }
+                case "GET" -> get(ex, key);
+                case "DELETE" -> {
+                    if (params.containsKey("uploadId")) {
+                        uploads.remove(params.get("uploadId"));
+                    } else {
+                        objects.remove(key);
+                    }
+                    ex.sendResponseHeaders(204, -1);
+                }
+                default -> send(ex, 405, "<Error><Code>MethodNotAllowed</Code></Error>");
+            }
+        }
+    }
+
+    private void get(HttpExchange ex, String key) throws IOException {
+        byte[] object = objects.get(key);
+        if (object == null) {
+            send(ex, 404, "<Error><Code>NoSuchKey</Code></Error>");
+            return;
+        }
+        String range = ex.getRequestHeaders().getFirst("Range");
+        if (range == null || ignoreRanges) {
+            send(ex, 200, object);
+            return;
+        }
+        Matcher m = Pattern.compile("bytes=(\\d+)-(\\d*)").matcher(range);
+        long start = m.matches() ? Long.parseLong(m.group(1)) : object.length;
+        if (start >= object.length) {
+            ex.getResponseHeaders().set("Content-Range", "bytes */" + object.length);
+            send(ex, 416, "<Error><Code>InvalidRange</Code></Error>");
+            return;
+        }
+        long end = m.group(2).isEmpty() ? object.length - 1 : Math.min(Long.parseLong(m.group(2)), object.length - 1);
+        ex.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + object.length);
+        send(ex, 206, Arrays.copyOfRange(object, (int) start, (int) end + 1));
+    }
+
+    private void complete(HttpExchange ex, String key, String uploadId, String xml) throws IOException {
+        TreeMap<Integer, byte[]> parts = uploads.get(uploadId);
+        if (parts == null) {
+            send(ex, 404, "<Error><Code>NoSuchUpload</Code></Error>");
+            return;
+        }
+        ByteArrayOutputStream object = new ByteArrayOutputStream();
+        Matcher m = PART.matcher(xml);
+        int expected = 1;
+        while (m.find()) {
+            byte[] part = parts.get(Integer.parseInt(m.group(1)));
+            if (Integer.parseInt(m.group(1)) != expected++ || part == null
+                    || !etag(part).equals(m.group(2).replace("&quot;", "\""))) {
+                // Like S3: a 200 whose body is an error
+                send(ex, 200, "<Error><Code>InvalidPart</Code></Error>");
+                return;
+            }
+            object.write(part);
+        }
+        uploads.remove(uploadId);
+        objects.put(key, object.toByteArray());
+        send(ex, 200, "<CompleteMultipartUploadResult><Key>" + key + "</Key></CompleteMultipartUploadResult>");
+    }
+
+    /**
+     * Signature V4 recomputed from the request as received; null when it matches
+     */
+    private static String verify(HttpExchange ex, byte[] body) {
+        String auth = ex.getRequestHeaders().getFirst("Authorization");
+        Matcher m = auth == null ? null : AUTH.matcher(auth);
+        if (m == null || !m.matches()) {
+            return "missing or malformed Authorization";
+        }
+        if (!ACCESS_KEY.equals(m.group(1))) {
+            return "unknown access key";
+        }
+        String payloadHash = ex.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (!hex(sha256(body)).equals(payloadHash)) {
+            return "payload hash mismatch";
+        }
+        String amzDate = ex.getRequestHeaders().getFirst("x-amz-date");
+        String scope = m.group(2);
+        if (amzDate == null || !scope.startsWith(amzDate.substring(0, 8) + "/")) {
+            return "bad date or scope";
+        }
+
+        StringBuilder canonical = new StringBuilder()
+                .append(ex.getRequestMethod()).append('\n')
+                .append(ex.getRequestURI().getRawPath()).append('\n')
+                .append(canonicalQuery(ex.getRequestURI().getRawQuery())).append('\n');
+        for (String name : m.group(3).split(";")) {
+            canonical.append(name).append(':').append(ex.getRequestHeaders().getFirst(name).trim()).append('\n');
+        }
+        canonical.append('\n').append(m.group(3)).append('\n').append(payloadHash);
+
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n"
+                + hex(sha256(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        byte[] k = ("AWS4" + SECRET_KEY).getBytes(StandardCharsets.UTF_8);
+        for (String part : scope.split("/")) {
+            k = hmac(k, part);
+        }
+        return hex(hmac(k, stringToSign)).equals(m.group(4)) ? null : "signature mismatch";
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        TreeMap<String, String> sorted = new TreeMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            sorted.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+        }
+        StringBuilder sb = new StringBuilder();
+        sorted.forEach((k, v) -> sb.append(sb.isEmpty() ? "" : "&").append(k).append('=').append(v));
+        return sb.toString();
+    }
+
+    private static Map<String, String> params(String query) {
+        Map<String, String> m = new TreeMap<>();
+        if (!query.isEmpty()) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                m.put(eq < 0 ? pair : pair.substring(0, eq),
+                        eq < 0 ? "" : java.net.URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return m;
+    }
+
+    private static void send(HttpExchange ex, int status, String body) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/xml");
+        send(ex, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange ex, int status, byte[] body) throws IOException {
+        if ("HEAD".equals(ex.getRequestMethod())) {
+            ex.sendResponseHeaders(status, -1);
+            return;
+        }
+        ex.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String etag(byte[] data) {
+        try {
+            return "\"" + hex(MessageDigest.getInstance("MD5").digest(data)) + "\"";
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
@@ -0,0 +1,38 @@
+package com.landriskai.api;
+
+import com.landriskai.api.dto.TopParcelResponse;
+import com.landriskai.service.PopularParcelsService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final PopularParcelsService popularParcelsService;
+
+    public AnalyticsController(PopularParcelsService popularParcelsService) {
+        this.popularParcelsService = popularParcelsService;
+    }
+
+    /**
+     * Most reused cached parcels, optionally for one district and/or reused within the last N hours
+     */
+    @GetMapping("/top-parcels")
+    public List<TopParcelResponse> topParcels(
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) Integer sinceHours) {
+        if (k < 1 || k > PopularParcelsService.MAX_K) {
+            throw new IllegalArgumentException("k must be between 1 and " + PopularParcelsService.MAX_K);
+        }
+        if (sinceHours != null && sinceHours < 1) {
+            throw new IllegalArgumentException("sinceHours must be positive");
+        }
+        return popularParcelsService.topParcels(k, district, sinceHours);
+    }
+}
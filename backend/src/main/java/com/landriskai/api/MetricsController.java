@@ -0,0 +1,123 @@
+package com.landriskai.api;
+
+import com.landriskai.landrecords.LandRecordService;
+import com.landriskai.landrecords.ParcelBlacklistService;
+import com.landriskai.risk.RiskEngine;
+import com.landriskai.risk.location.LocationPriorService;
+import com.landriskai.risk.rules.RuleMetrics;
+import com.landriskai.risk.rules.SourceFetcher;
+import com.landriskai.service.CacheReuseCounters;
+import com.landriskai.service.ExpirySweeper;
+import com.landriskai.service.PdfWriteBehind;
+import com.landriskai.service.ReportGenerationQueue;
+import com.landriskai.service.ReportService;
+import com.landriskai.service.SearchCacheService;
+import com.landriskai.storage.ReportStore;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-process counters for the report pipeline (no actuator in this build)
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final ReportService reportService;
+    private final ReportGenerationQueue reportGenerationQueue;
+    private final SearchCacheService searchCacheService;
+    private final ExpirySweeper expirySweeper;
+    private final CacheReuseCounters cacheReuseCounters;
+    private final RiskEngine riskEngine;
+    private final RuleMetrics ruleMetrics;
+    private final LandRecordService landRecordService;
+    private final ParcelBlacklistService parcelBlacklistService;
+    private final LocationPriorService locationPriorService;
+    private final SourceFetcher sourceFetcher;
+    private final PdfWriteBehind pdfWriteBehind;
+    private final ReportStore reportStore;
+    private final PdfResponder pdfResponder;
+
+    public MetricsController(
+            ReportService reportService,
+            ReportGenerationQueue reportGenerationQueue,
+            SearchCacheService searchCacheService,
+            ExpirySweeper expirySweeper,
+            CacheReuseCounters cacheReuseCounters,
+            RiskEngine riskEngine,
+            RuleMetrics ruleMetrics,
+            LandRecordService landRecordService,
+            ParcelBlacklistService parcelBlacklistService,
+            LocationPriorService locationPriorService,
+            SourceFetcher sourceFetcher,
+            PdfWriteBehind pdfWriteBehind,
+            ReportStore reportStore,
+            PdfResponder pdfResponder
+    ) {
+        this.reportService = reportService;
+        this.reportGenerationQueue = reportGenerationQueue;
+        this.searchCacheService = searchCacheService;
+        this.expirySweeper = expirySweeper;
+        this.cacheReuseCounters = cacheReuseCounters;
+        this.riskEngine = riskEngine;
+        this.ruleMetrics = ruleMetrics;
+        this.landRecordService = landRecordService;
+        this.parcelBlacklistService = parcelBlacklistService;
+        this.locationPriorService = locationPriorService;
+        this.sourceFetcher = sourceFetcher;
+        this.pdfWriteBehind = pdfWriteBehind;
+        this.reportStore = reportStore;
+        this.pdfResponder = pdfResponder;
+    }
+
+    @GetMapping
+    public Map<String, Object> metrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("reportQueue", reportGenerationQueue.stats());
+        m.put("singleFlight", reportService.flightStats());
+        m.put("reportSource", reportService.sourceStats());
+        m.put("reportDownloads", reportService.downloadStats());
+        m.put("reportDownloadResponses", pdfResponder.stats());
+        m.put("pdfWriteBehind", pdfWriteBehind.stats());
+        m.put("reportStore", reportStore.stats());
+        m.put("searchCacheL1", searchCacheService.l1Stats());
+        m.put("searchCacheFilter", searchCacheService.filterStats());
+        m.put("expirySweeper", expirySweeper.stats());
+        Map<String, Object> reuse = new LinkedHashMap<>(cacheReuseCounters.stats());
+        reuse.put("totalRevenuePaise", cacheReuseCounters.totalRevenuePaise());
+        m.put("searchCacheReuse", reuse);
+        m.put("riskMemo", riskEngine.memoStats());
+        m.put("riskRuleMetricsEnabled", ruleMetrics.isEnabled());
+        m.put("landRecords", landRecordService.stats());
+        m.put("parcelBlacklist", parcelBlacklistService.stats());
+        m.put("locationPriors", locationPriorService.stats());
+        m.put("riskSources", sourceFetcher.stats());
+        return m;
+    }
+
+    /**
+     * Per-rule latency histograms, fire counts and score contributions for the active rule set
+     */
+    @GetMapping("/risk-rules")
+    public Map<String, Object> riskRules() {
+        return ruleMetrics.snapshot(riskEngine.ruleSet().ruleVersions());
+    }
+
+    @PostMapping("/risk-rules/recording")
+    public Map<String, Object> recordRiskRules(@RequestParam boolean enabled) {
+        ruleMetrics.setEnabled(enabled);
+        return riskRules();
+    }
+
+    @PostMapping("/risk-rules/reset")
+    public Map<String, Object> resetRiskRules() {
+        ruleMetrics.reset();
+        return riskRules();
+    }
+}
@@ -3,36 +3,49 @@ package com.landriskai.api;
 import com.landriskai.api.dto.CreateOrderRequest;
 import com.landriskai.api.dto.CreateOrderResponse;
 import com.landriskai.api.dto.MockPayResponse;
+import com.landriskai.api.dto.OrderStatusResponse;
 import com.landriskai.config.LandRiskAiProperties;
 import com.landriskai.domain.OrderStatus;
 import com.landriskai.entity.OrderEntity;
 import com.landriskai.entity.ReportEntity;
 import com.landriskai.entity.SearchCacheEntity;
+import com.landriskai.service.CacheReuseCounters;
 import com.landriskai.service.OrderService;
+import com.landriskai.service.ReportGenerationQueue;
 import com.landriskai.service.ReportService;
-import com.landriskai.repo.SearchCacheRepository;
+import com.landriskai.service.SearchCacheService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
     private final OrderService orderService;
     private final ReportService reportService;
-    private final SearchCacheRepository searchCacheRepository;
+    private final ReportGenerationQueue reportGenerationQueue;
+    private final SearchCacheService searchCacheService;
+    private final CacheReuseCounters cacheReuseCounters;
     private final LandRiskAiProperties props;
 
     public OrderController(
             OrderService orderService,
             ReportService reportService,
-            SearchCacheRepository searchCacheRepository,
+            ReportGenerationQueue reportGenerationQueue,
+            SearchCacheService searchCacheService,
+            CacheReuseCounters cacheReuseCounters,
             LandRiskAiProperties props
     ) {
         this.orderService = orderService;
         this.reportService = reportService;
-        this.searchCacheRepository = searchCacheRepository;
+        this.reportGenerationQueue = reportGenerationQueue;
+        this.searchCacheService = searchCacheService;
+        this.cacheReuseCounters = cacheReuseCounters;
         this.props = props;
     }
 
@@ -47,26 +60,83 @@ public class OrderController {
                 .build();
     }
 
+    /**
+     * Simulate payment and produce the report.
+     * Sync mode (default) renders on the request thread and returns 200 with the report links.
+     * Async mode (landriskai.generation.asyncEnabled or ?async=true) enqueues the job and returns
+     * 202 with a status URL; a full queue answers 503 with Retry-After unless the policy is CALLER_RUNS.
+     */
     @PostMapping("/{orderId}/mock-pay")
-    public MockPayResponse mockPay(@PathVariable Long orderId, @RequestParam(required = false) String paymentRef) throws Exception {
+    public ResponseEntity<MockPayResponse> mockPay(
+            @PathVariable Long orderId,
+            @RequestParam(required = false) String paymentRef,
+            @RequestParam(required = false) Boolean async) throws Exception {
         String resolvedPaymentRef = (paymentRef == null || paymentRef.isBlank())
                 ? "MOCK_UPI_TXN_" + orderId + "_" + System.currentTimeMillis()
                 : paymentRef;
         orderService.markPaid(orderId, resolvedPaymentRef);
+
+        String base = props.getLinks().getBaseUrl();
+        boolean runAsync = async != null ? async : reportGenerationQueue.isAsyncEnabled();
+        if (runAsync) {
+            String statusUrl = base + "/api/orders/" + orderId + "/status";
+            try {
+                if (reportGenerationQueue.submit(orderId)) {
+                    return ResponseEntity.accepted()
+                            .header(HttpHeaders.LOCATION, statusUrl)
+                            .body(MockPayResponse.builder()
+                                    .orderId(orderId)
+                                    .status(OrderStatus.GENERATING)
+                                    .statusUrl(statusUrl)
+                                    .build());
+                }
+            } catch (RejectedExecutionException ex) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .body(MockPayResponse.builder()
+                                .orderId(orderId)
+                                .status(OrderStatus.PAID)
+                                .statusUrl(statusUrl)
+                                .build());
+            }
+        }
+
         ReportEntity report = reportService.generateAndDeliver(orderId);
         if (report.getReferenceNo() == null || report.getReferenceNo().isBlank() || "PENDING".equalsIgnoreCase(report.getReferenceNo())) {
             report = reportService.ensureReferenceAndArtifactsByReportId(report.getId());
         }
 
-        String base = props.getLinks().getBaseUrl();
-        return MockPayResponse.builder()
+        return ResponseEntity.ok(MockPayResponse.builder()
                 .orderId(orderId)
                 .status(OrderStatus.DELIVERED)
                 .reportId(report.getId())
                 .referenceNo(report.getReferenceNo())
                 .downloadUrl(base + "/api/reports/" + report.getId() + "/download")
                 .verifyUrl(base + "/api/reports/" + report.getId() + "/verify?code=" + report.getVerificationCode())
-                .build();
+                .build());
+    }
+
+    /**
+     * Poll target for async generation: GENERATING until the worker finishes, then DELIVERED
+     * (with report links) or FAILED.
+     */
+    @GetMapping("/{orderId}/status")
+    public OrderStatusResponse status(@PathVariable Long orderId) {
+        OrderEntity order = orderService.getOrder(orderId);
+        OrderStatusResponse.OrderStatusResponseBuilder res = OrderStatusResponse.builder()
+                .orderId(orderId)
+                .status(order.getStatus());
+
+        if (order.getStatus() == OrderStatus.DELIVERED) {
+            reportService.findByOrderId(orderId).ifPresent(report -> {
+                String base = props.getLinks().getBaseUrl();
+                res.reportId(report.getId())
+                        .referenceNo(report.getReferenceNo())
+                        .downloadUrl(base + "/api/reports/" + report.getId() + "/download")
+                        .verifyUrl(base + "/api/reports/" + report.getId() + "/verify?code=" + report.getVerificationCode());
+            });
+        }
+        return res.build();
     }
 
     /**
@@ -84,7 +154,7 @@ public class OrderController {
             @RequestParam(required = false) String whatsapp) {
         
         // First check: Is there ANY cache for this land?
-        SearchCacheEntity anyCache = searchCacheRepository.findValidByLandIdentifiers(khata, khesra, district);
+        SearchCacheEntity anyCache = searchCacheService.findValid(khata, khesra, district);
         
         if (anyCache == null) {
             // No cache exists - first time this land is searched
@@ -105,7 +175,7 @@ public class OrderController {
                 anyCache.getId(),
                 anyCache.getRiskBand(),
                 anyCache.getRiskScore(),
-                anyCache.getReusageCount(),
+                cacheReuseCounters.mergedReuseCount(anyCache),
                 isSameUser,  // true = ₹5, false = ₹25
                 isSameUser ? 500 : 2500,  // Price in paise
                 anyCache.getPdfPath()
@@ -122,7 +192,7 @@ public class OrderController {
         public Integer reusageCount;
         public boolean discountEligible;  // true if same user, false if different user
         public Integer pricePaise;        // 500 (₹5) if discount eligible, 2500 (₹25) if not
-        public String pdfPath;           // Path to cached report PDF
+        public String pdfPath;           // ReportStore key of the cached base document
         
         public CacheCheckResponse(Long cacheId, String riskBand, Integer riskScore, 
                                  Integer reusageCount, boolean discountEligible, 
@@ -0,0 +1,326 @@
+package com.landriskai.api;
+
+import com.landriskai.config.LandRiskAiProperties;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves stored (content-addressed) PDFs with HTTP caching and ranges:
+ * - strong ETag = the artifact's store key (SHA-256 of its bytes), Last-Modified, and a long
+ *   private Cache-Control (storage.downloadMaxAgeSeconds), not immutable: a download URL gets a
+ *   new artifact when its report is restamped, and a reload must be able to revalidate it;
+ * - 304 for a matching If-None-Match (or, without one, an If-Modified-Since not older than the report);
+ * - Range (honoured only while If-Range still matches): one range as a 206, several as
+ *   multipart/byteranges, none satisfiable as a 416; more than storage.maxRanges are answered with
+ *   the whole file rather than many tiny parts.
+ * Single-part bodies go out through the container's sendfile when it offers it (Tomcat NIO) and
+ * through FileChannel.transferTo otherwise.
+ */
+@Component
+public class PdfResponder {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String BOUNDARY = "LandRiskAI_byteranges";
+
+    private final LandRiskAiProperties.Storage cfg;
+
+    private final AtomicLong full = new AtomicLong();
+    private final AtomicLong partial = new AtomicLong();
+    private final AtomicLong multipart = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong unsatisfiable = new AtomicLong();
+    private final AtomicLong sendfile = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    public PdfResponder(LandRiskAiProperties props) {
+        this.cfg = props.getStorage();
+    }
+
+    /**
+     * Strong validator for a stored artifact
+     */
+    public static String etag(String key) {
+        return "\"" + key + "\"";
+    }
+
+    /**
+     * True when the request's If-None-Match already names the artifact. Lets callers answer
+     * 304 via {@link #notModified} before doing any work to locate the file.
+     */
+    public boolean matchesIfNoneMatch(HttpServletRequest request, String key) {
+        String header = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (header == null) {
+            return false;
+        }
+        String tag = etag(key);
+        for (String candidate : header.split(",")) {
+            String c = candidate.trim();
+            // If-None-Match uses the weak comparison
+            if (c.equals("*") || c.equals(tag) || c.equals("W/" + tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 304 for a client that already holds the artifact; {@code size} counts as saved
+     */
+    public void notModified(HttpServletResponse response, String key, Instant lastModified, long size) {
+        cachingHeaders(response, key, lastModified);
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        notModified.incrementAndGet();
+        bytesSaved.addAndGet(Math.max(0, size));
+    }
+
+    /**
+     * Answer a GET/HEAD for the stored artifact {@code key} held in {@code file}
+     */
+    public void serve(HttpServletRequest request, HttpServletResponse response,
+                      String key, File file, Instant lastModified, String filename) throws IOException {
+        long size = file.length();
+        if (matchesIfNoneMatch(request, key)
+                || (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null && notModifiedSince(request, lastModified))) {
+            notModified(response, key, lastModified, size);
+            return;
+        }
+
+        cachingHeaders(response, key, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        boolean head = "HEAD".equals(request.getMethod());
+
+        List<long[]> ranges = ifRangeHolds(request, key, lastModified)
+                ? parseRanges(request.getHeader(HttpHeaders.RANGE), size) : null;
+        if (ranges != null && ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            unsatisfiable.incrementAndGet();
+            return;
+        }
+
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setContentLengthLong(size);
+            full.incrementAndGet();
+            if (!head) {
+                send(request, response, file, 0, size);
+            }
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            long[] r = ranges.get(0);
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + r[0] + "-" + r[1] + "/" + size);
+            response.setContentLengthLong(r[1] - r[0] + 1);
+            partial.incrementAndGet();
+            if (!head) {
+                send(request, response, file, r[0], r[1] + 1);
+                bytesSaved.addAndGet(size - (r[1] - r[0] + 1));
+            }
+            return;
+        }
+
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long length = 0;
+        for (long[] r : ranges) {
+            byte[] h = ("\r\n--" + BOUNDARY + "\r\nContent-Type: " + MediaType.APPLICATION_PDF_VALUE
+                    + "\r\nContent-Range: bytes " + r[0] + "-" + r[1] + "/" + size + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(h);
+            length += h.length + (r[1] - r[0] + 1);
+        }
+        byte[] closing = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        response.setContentType("multipart/byteranges; boundary=" + BOUNDARY);
+        response.setContentLengthLong(length + closing.length);
+        multipart.incrementAndGet();
+        if (head) {
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        long payload = 0;
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            for (int i = 0; i < ranges.size(); i++) {
+                long[] r = ranges.get(i);
+                out.write(partHeaders.get(i));
+                transfer(ch, r[0], r[1] + 1, target);
+                payload += r[1] - r[0] + 1;
+            }
+        }
+        out.write(closing);
+        bytesServed.addAndGet(payload);
+        bytesSaved.addAndGet(Math.max(0, size - payload));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("full", full.get());
+        m.put("partial", partial.get());
+        m.put("multipart", multipart.get());
+        m.put("notModified", notModified.get());
+        m.put("rangeNotSatisfiable", unsatisfiable.get());
+        m.put("sendfile", sendfile.get());
+        m.put("bytesServed", bytesServed.get()); // PDF bytes put on the wire (not counting multipart headers)
+        m.put("bytesSaved", bytesSaved.get()); // PDF bytes not sent thanks to 304s and ranges
+        return m;
+    }
+
+    /**
+     * Bytes [start, end) of the file as the whole body: handed to the container's sendfile when
+     * offered, else copied by transferTo (no user-space buffer of ours)
+     */
+    private void send(HttpServletRequest request, HttpServletResponse response, File file, long start, long end)
+            throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+                && end - start >= cfg.getSendfileMinKilobytes() * 1024L) {
+            request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            sendfile.incrementAndGet();
+        } else {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                transfer(ch, start, end, Channels.newChannel(response.getOutputStream()));
+            }
+        }
+        bytesServed.addAndGet(end - start);
+    }
+
+    private static void transfer(FileChannel ch, long start, long end, WritableByteChannel target) throws IOException {
+        for (long pos = start; pos < end; ) {
+            long n = ch.transferTo(pos, end - pos, target);
+            if (n <= 0) {
+                throw new IOException("File shrank during transfer at " + pos);
+            }
+            pos += n;
+        }
+    }
+
+    private void cachingHeaders(HttpServletResponse response, String key, Instant lastModified) {
+        response.setHeader(HttpHeaders.ETAG, etag(key));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + cfg.getDownloadMaxAgeSeconds());
+        if (lastModified != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified.toEpochMilli());
+        }
+    }
+
+    private static boolean notModifiedSince(HttpServletRequest request, Instant lastModified) {
+        long since = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP dates have whole seconds
+        return since >= 0 && lastModified != null
+                && lastModified.truncatedTo(ChronoUnit.SECONDS).toEpochMilli() <= since;
+    }
+
+    /**
+     * No If-Range, or one still naming this artifact (strong ETag or exact Last-Modified)
+     */
+    private static boolean ifRangeHolds(HttpServletRequest request, String key, Instant lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag(key));
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && lastModified != null
+                && lastModified.truncatedTo(ChronoUnit.SECONDS).toEpochMilli() == date;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * The satisfiable ranges of a bytes Range header as inclusive [first, last] pairs, sorted and
+     * with overlapping or adjacent ones merged; empty when none is satisfiable; null when the
+     * whole file should be sent instead (no header, another unit, bad syntax, too many ranges).
+     */
+    private List<long[]> parseRanges(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String[] specs = header.substring("bytes=".length()).split(",");
+        if (specs.length > cfg.getMaxRanges()) {
+            return null;
+        }
+        List<long[]> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            String s = spec.trim();
+            int dash = s.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            long first, last;
+            try {
+                if (dash == 0) {
+                    // suffix: the last N bytes
+                    long n = Long.parseLong(s.substring(1));
+                    if (n <= 0) {
+                        continue;
+                    }
+                    first = Math.max(0, size - n);
+                    last = size - 1;
+                } else {
+                    first = Long.parseLong(s.substring(0, dash));
+                    if (dash == s.length() - 1) {
+                        last = size - 1;
+                    } else {
+                        last = Long.parseLong(s.substring(dash + 1));
+                        if (last < first) {
+                            return null;
+                        }
+                        last = Math.min(last, size - 1);
+                    }
+                }
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+            if (first < size && first <= last) {
+                ranges.add(new long[]{first, last});
+            }
+        }
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        List<long[]> merged = new ArrayList<>(ranges.size());
+        for (long[] r : ranges) {
+            long[] prev = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (prev != null && r[0] <= prev[1] + 1) {
+                prev[1] = Math.max(prev[1], r[1]);
+            } else {
+                merged.add(r);
+            }
+        }
+        return merged;
+    }
+}
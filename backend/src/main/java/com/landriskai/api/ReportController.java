@@ -3,7 +3,9 @@ package com.landriskai.api;
 import com.landriskai.entity.ReportEntity;
 import com.landriskai.repo.ReportRepository;
 import com.landriskai.service.ReportService;
-import org.springframework.core.io.FileSystemResource;
+import com.landriskai.storage.ReportStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -11,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
 @RestController
@@ -19,10 +22,15 @@ public class ReportController {
 
     private final ReportRepository reportRepo;
     private final ReportService reportService;
+    private final PdfResponder pdfResponder;
+    private final ReportStore reportStore;
 
-    public ReportController(ReportRepository reportRepo, ReportService reportService) {
+    public ReportController(ReportRepository reportRepo, ReportService reportService,
+                            PdfResponder pdfResponder, ReportStore reportStore) {
         this.reportRepo = reportRepo;
         this.reportService = reportService;
+        this.pdfResponder = pdfResponder;
+        this.reportStore = reportStore;
     }
 
     @GetMapping("/{reportId}")
@@ -43,24 +51,41 @@ public class ReportController {
         ));
     }
 
+    /**
+     * The stored PDF (conditional and ranged requests answered by {@link PdfResponder}), or with
+     * storage.streamDownloads a PDF stamped straight into the response on this thread
+     * (no Content-Length, no ranges; chunked)
+     */
     @GetMapping("/{reportId}/download")
-    public ResponseEntity<FileSystemResource> download(@PathVariable Long reportId) {
-        ReportEntity report;
+    public void download(@PathVariable Long reportId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        // Repeat fetches (link previews, resumed downloads) of an unchanged PDF: no pipeline work at all
+        ReportEntity current = reportRepo.findById(reportId).orElse(null);
+        if (current != null && ReportStore.isKey(current.getPdfPath())
+                && pdfResponder.matchesIfNoneMatch(request, current.getPdfPath())) {
+            pdfResponder.notModified(response, current.getPdfPath(), current.getUpdateTime(),
+                    reportStore.recordedSize(current.getPdfPath()));
+            return;
+        }
+
+        ReportService.PdfDownload pdf;
         try {
-            report = reportService.ensureReferenceAndArtifactsByReportId(reportId);
+            pdf = reportService.prepareDownload(reportId);
         } catch (IllegalArgumentException ex) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
         } catch (Exception ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to prepare download for report: " + reportId);
         }
 
-        FileSystemResource res = new FileSystemResource(report.getPdfPath());
         String filename = "LandRiskAI_Report_" + reportId + ".pdf";
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(res);
+        if (pdf.isStored()) {
+            pdfResponder.serve(request, response, pdf.pdfKey(), pdf.file(), pdf.report().getUpdateTime(), filename);
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        reportService.writePdf(pdf, response.getOutputStream());
     }
 
     @GetMapping("/{reportId}/verify")
@@ -97,11 +122,12 @@ public class ReportController {
         }
 
         @GetMapping("/by-ref/{ref}/download")
-        public ResponseEntity<FileSystemResource> downloadByRef(@PathVariable String ref) {
+        public void downloadByRef(@PathVariable String ref, HttpServletRequest request, HttpServletResponse response)
+                throws IOException {
             String normalized = ref != null ? ref.trim().toUpperCase() : "";
             ReportEntity report = reportRepo.findByReferenceNo(normalized)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Report not found: " + ref));
-            return download(report.getId());
+            download(report.getId(), request, response);
         }
 
         public record ReportByRefResponse(
@@ -0,0 +1,40 @@
+package com.landriskai.api;
+
+import com.landriskai.api.dto.RescoreJobResponse;
+import com.landriskai.service.RescoreService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rescore-jobs")
+public class RescoreController {
+
+    private final RescoreService rescoreService;
+
+    public RescoreController(RescoreService rescoreService) {
+        this.rescoreService = rescoreService;
+    }
+
+    /**
+     * Rescore stored reports against the active rule set; returns the running job if there is one
+     */
+    @PostMapping
+    public RescoreJobResponse start() {
+        return rescoreService.start();
+    }
+
+    @GetMapping
+    public List<RescoreJobResponse> recent() {
+        return rescoreService.recent();
+    }
+
+    @GetMapping("/{jobId}")
+    public RescoreJobResponse get(@PathVariable Long jobId) {
+        return rescoreService.get(jobId);
+    }
+}
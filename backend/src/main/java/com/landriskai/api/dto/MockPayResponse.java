@@ -17,4 +17,5 @@ public class MockPayResponse {
     private String referenceNo;
     private String downloadUrl;
     private String verifyUrl;
+    private String statusUrl; // async mode: poll until DELIVERED/FAILED
 }
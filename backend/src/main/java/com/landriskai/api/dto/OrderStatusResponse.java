@@ -0,0 +1,16 @@
+package com.landriskai.api.dto;
+
+import com.landriskai.domain.OrderStatus;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class OrderStatusResponse {
+    private Long orderId;
+    private OrderStatus status;
+    private Long reportId;      // set once the report exists
+    private String referenceNo;
+    private String downloadUrl;
+    private String verifyUrl;
+}
@@ -0,0 +1,30 @@
+package com.landriskai.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RescoreJobResponse {
+    private Long jobId;
+    private String status;
+    private String targetRuleSetVersion;
+    private long totalCandidates;
+    private long processed;
+    private long regenerated;
+    private long unchanged;
+    private long untouched;
+    private long failed;
+    private double percentComplete;
+    private double reportsPerSecond;  // over time spent processing
+    private Long lastReportId;        // checkpoint
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,25 @@
+package com.landriskai.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopParcelResponse {
+    private Long cacheId;
+    private String district;
+    private String circle;
+    private String village;
+    private String khata;
+    private String khesra;
+    private String riskBand;
+    private Integer riskScore;
+    private Integer reusageCount;   // includes reuses not yet flushed to the database
+    private Instant lastReuseAt;
+}
@@ -0,0 +1,37 @@
+package com.landriskai.config;
+
+import com.landriskai.storage.BlobStore;
+import com.landriskai.storage.LocalBlobStore;
+import com.landriskai.storage.S3BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Report artifact backend (storage.backend): files under storage.reportDir, or an S3-compatible
+ * bucket shared by every backend node
+ */
+@Slf4j
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    public BlobStore blobStore(LandRiskAiProperties props) {
+        LandRiskAiProperties.Storage storage = props.getStorage();
+        switch (storage.getBackend()) {
+            case "local":
+                return new LocalBlobStore(Path.of(storage.getReportDir()).toAbsolutePath().normalize());
+            case "s3":
+                LandRiskAiProperties.S3 s3 = storage.getS3();
+                if (s3.getAccessKey().isBlank() || s3.getSecretKey().isBlank()) {
+                    throw new IllegalStateException("storage.backend=s3 needs storage.s3.accessKey and secretKey");
+                }
+                log.info("[BLOB_STORE] S3 bucket {} at {} (prefix {})", s3.getBucket(), s3.getEndpoint(), s3.getPrefix());
+                return new S3BlobStore(s3);
+            default:
+                throw new IllegalStateException("Unknown storage.backend: " + storage.getBackend());
+        }
+    }
+}
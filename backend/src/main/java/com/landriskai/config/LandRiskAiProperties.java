@@ -21,11 +21,41 @@ public class LandRiskAiProperties {
     private Email email = new Email();
     private Sms sms = new Sms();
     private Admin admin = new Admin();
+    private Generation generation = new Generation();
+    private Cache cache = new Cache();
+    private Sweeper sweeper = new Sweeper();
+    private Risk risk = new Risk();
+    private LandRecords landRecords = new LandRecords();
+    private Location location = new Location();
 
     @Data
     public static class Storage {
-        private String reportDir = "./data/reports";
+        private String reportDir = "./data/reports"; // root of the content-addressed ReportStore
         private String retentionDays = "90";
+        private int unreferencedGraceMinutes = 60; // stored artifacts no row references are deleted after this
+        private boolean streamDownloads = false; // stamp report PDFs on download, straight into the response
+        private boolean writeThrough = true; // with streamDownloads: also keep the streamed PDF on disk (async)
+        private int writeBehindQueueCapacity = 64; // pending write-throughs; more are dropped, the next download re-stamps
+        private String backend = "local"; // local | s3: where ReportStore blobs live (reportDir or the bucket)
+        private String cacheDir = "./data/blob-cache"; // s3: read-through local copies of blobs
+        private long cacheMaxMegabytes = 1024; // least recently used copies are evicted past this
+        private S3 s3 = new S3();
+        private long downloadMaxAgeSeconds = 31536000; // Cache-Control max-age of stored PDFs; revalidated by ETag
+        private int maxRanges = 16; // Range requests with more ranges get the whole file
+        private int sendfileMinKilobytes = 48; // smaller bodies are copied with transferTo instead of sendfile
+    }
+
+    @Data
+    public static class S3 {
+        private String endpoint = "http://localhost:9000"; // any S3-compatible service
+        private String region = "us-east-1";
+        private String bucket = "landriskai-reports";
+        private String prefix = "reports/"; // object keys: <prefix><k[0..2)>/<k[2..4)>/<key>.pdf
+        private boolean pathStyle = true; // endpoint/bucket/key instead of bucket.endpoint/key
+        private String accessKey = ""; // Load from env
+        private String secretKey = ""; // Load from env
+        private int partSizeMegabytes = 8; // multipart upload above this; S3 needs at least 5
+        private int timeoutSeconds = 30;
     }
 
     @Data
@@ -90,4 +120,68 @@ public class LandRiskAiProperties {
         private boolean auditLoggingEnabled = true;
         private int auditRetentionDays = 365;
     }
+
+    @Data
+    public static class Generation {
+        private boolean asyncEnabled = false; // mock-pay returns 202 and generates on a worker
+        private int workers = 4;
+        private int queueCapacity = 100;
+        private String rejectionPolicy = "REJECT"; // REJECT, CALLER_RUNS
+        private int stuckAfterMinutes = 10; // GENERATING longer than this is re-driven
+        private int recoveryIntervalSeconds = 60;
+    }
+
+    @Data
+    public static class Cache {
+        private int l1MaxEntries = 10000; // in-process entries in front of lr_search_cache
+        private long bloomExpectedInsertions = 100000; // floor; sized up from the row count at rebuild
+        private double bloomFalsePositiveRate = 0.01;
+        private int bloomRebuildIntervalMinutes = 360; // sheds expired keys
+        private int reuseCounterStripes = 64;
+        private int reuseFlushIntervalSeconds = 10; // reuse counters are written behind in batches
+    }
+
+    @Data
+    public static class Sweeper {
+        private boolean enabled = true;
+        private int intervalMinutes = 30;
+        private int chunkSize = 500; // rows per DELETE/UPDATE statement
+        private long pauseMillis = 200; // between chunks, so interactive queries get the DB
+        private int maxChunksPerRun = 50; // the rest waits for the next run
+        private int cacheGraceMinutes = 60; // cache rows are kept this long past expiresAt
+    }
+
+    @Data
+    public static class Risk {
+        private int batchParallelism = 0; // worker threads for batch assessment; 0 = all cores
+        private int batchGrainSize = 256; // orders per fork-join leaf task
+        private int memoMaxEntries = 10000; // single-order results memoized per rule-set version; 0 = off
+        private int rescoreChunkSize = 50; // stored reports per rescore checkpoint
+        private int rescoreSourceProbesPerSecond = 20; // data-source lookups deciding whether a report needs a rescore; 0 = unpaced
+        private boolean ruleMetricsEnabled = false; // per-rule timing and fire counts; switchable at runtime
+        private long sourceDeadlineMillis = 800; // all data-source lookups of one assessment
+        private long sourceHedgeAfterMillis = 0; // resend a lookup still running after this; 0 = no hedging
+        private int sourceThreads = 16;
+        private boolean stubSourcesEnabled = false; // local stub sources with injected latency, for testing
+        private long stubLatencyMillis = 50;
+        private long stubJitterMillis = 200; // uniform extra latency
+        private double stubSlowRate = 0.05; // share of stub calls slowed by stubSlowMillis
+        private long stubSlowMillis = 2000;
+        private double stubFailureRate = 0.0;
+    }
+
+    @Data
+    public static class LandRecords {
+        private String indexPath = "./data/land-records.idx"; // built by LandRecordIndexBuilder; absent = checks off
+        private double areaTolerancePercent = 10; // provided vs recorded plot area
+        private String blacklistPath = "./data/parcel-blacklist.mph"; // built by ParcelBlacklistBuilder; absent = checks off
+        private int blacklistReloadIntervalSeconds = 60;
+    }
+
+    @Data
+    public static class Location {
+        private String gazetteerPath = "../frontend/data/bihar_full_data.json"; // district/block/village names and codes
+        private String priorsPath = "./data/location-priors.csv"; // level,code,points; re-read when it changes
+        private int reloadIntervalSeconds = 30;
+    }
 }
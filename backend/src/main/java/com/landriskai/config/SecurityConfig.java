@@ -2,6 +2,7 @@ package com.landriskai.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -23,6 +24,10 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
+                        // Starts re-assessing and regenerating stored reports: admins only, ahead of the open /api/**
+                        .requestMatchers(HttpMethod.POST, "/api/rescore-jobs/**").hasRole("ADMIN")
+                        // Switches or clears rule metrics for every caller
+                        .requestMatchers(HttpMethod.POST, "/api/metrics/risk-rules/**").hasRole("ADMIN")
                         .requestMatchers(
                                 "/",
                                 "/index.html",
@@ -0,0 +1,77 @@
+package com.landriskai.domain;
+
+import com.landriskai.entity.OrderEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical parcel identity (district + khata + khesra).
+ * - case-insensitive, surrounding whitespace ignored
+ * - district: internal whitespace/separator runs become one space ("Purba-Champaran" == "purba  champaran")
+ * - khata/khesra: separators "/ - \ _ . , : |" (with any spaces around them) become "/"
+ *   ("12 - 3" == "12/3"); leading/trailing separators are dropped
+ * {@link #searchHash()} is the SHA-256 of the canonical form and keys lr_search_cache.
+ */
+public record ParcelKey(String district, String khata, String khesra) {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[\\s\\-_.,:|/\\\\]+");
+    private static final Pattern ID_SEPARATORS = Pattern.compile("\\s*[\\-/\\\\_.,:|]+\\s*");
+    private static final Pattern EDGE_SLASHES = Pattern.compile("^/+|/+$");
+
+    public static ParcelKey of(String khata, String khesra, String district) {
+        return new ParcelKey(normalizeName(district), normalizeIdentifier(khata), normalizeIdentifier(khesra));
+    }
+
+    public static ParcelKey of(OrderEntity order) {
+        return of(order.getKhata(), order.getKhesra(), order.getDistrict());
+    }
+
+    /**
+     * Case- and whitespace-insensitive form for free text (owner name, circle, village)
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizeName(String value) {
+        if (value == null) {
+            return "";
+        }
+        return NAME_SEPARATORS.matcher(value.trim()).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String normalizeIdentifier(String value) {
+        if (value == null) {
+            return "";
+        }
+        String s = ID_SEPARATORS.matcher(value.trim()).replaceAll("/");
+        s = EDGE_SLASHES.matcher(s).replaceAll("");
+        return WHITESPACE.matcher(s).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 64-char hex SHA-256 of the canonical key
+     */
+    public String searchHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return district + "|" + khata + "|" + khesra;
+    }
+}
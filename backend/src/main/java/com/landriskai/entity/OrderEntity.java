@@ -10,7 +10,8 @@ import java.time.Instant;
 @Table(name = "lr_order",
     indexes = {
         @Index(name = "idx_order_whatsapp", columnList = "whatsapp_number"),
-        @Index(name = "idx_order_payment_ref", columnList = "payment_ref")
+        @Index(name = "idx_order_payment_ref", columnList = "payment_ref"),
+        @Index(name = "idx_order_status_updated", columnList = "status, update_time")
     },
     uniqueConstraints = {
         @UniqueConstraint(name = "uk_order_payment_ref", columnNames = "payment_ref")
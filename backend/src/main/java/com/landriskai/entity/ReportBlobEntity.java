@@ -0,0 +1,38 @@
+package com.landriskai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One stored artifact of the ReportStore, keyed by the SHA-256 of its bytes.
+ * refCount counts the rows pointing at it (report PDFs, search-cache base documents); a blob
+ * left at zero for storage.unreferencedGraceMinutes is deleted by the sweeper. updatedAt moves on
+ * every write or reference change, so a blob just written or released is never reclaimed at once.
+ */
+@Entity
+@Table(name = "lr_report_blob", indexes = {
+    @Index(name = "idx_report_blob_unreferenced", columnList = "refCount, updatedAt")
+})
+@Getter @Setter @Builder
+@NoArgsConstructor @AllArgsConstructor
+public class ReportBlobEntity {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer refCount = 0;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
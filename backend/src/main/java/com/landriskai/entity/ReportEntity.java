@@ -12,20 +12,26 @@ import java.time.Instant;
         @Index(name = "idx_report_verification_code", columnList = "verification_code"),
         @Index(name = "idx_report_reference_no", columnList = "reference_no"),
         @Index(name = "idx_report_order", columnList = "order_id"),
-        @Index(name = "idx_report_pdf_expires", columnList = "pdf_expires_at")
+        @Index(name = "idx_report_pdf_expires", columnList = "pdf_expires_at"),
+        @Index(name = "idx_report_rule_set", columnList = "rule_set_version")
     }
 )
 @Getter @Setter @Builder
 @NoArgsConstructor @AllArgsConstructor
 public class ReportEntity {
 
+    /**
+     * How long a stamped PDF is kept after it was attached; the sweeper detaches it afterwards
+     */
+    public static final long PDF_RETENTION_SECONDS = 7 * 24 * 3600L;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // One order -> one report in MVP
-    @OneToOne(optional = false)
-    @JoinColumn(name = "order_id", unique = true, nullable = false)
+    // One order -> one delivered report, plus regenerated versions of it (latest id wins)
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "order_id", nullable = false)
     private OrderEntity order;
 
     @Enumerated(EnumType.STRING)
@@ -42,7 +48,7 @@ public class ReportEntity {
     private String referenceNo; // customer-facing reference number
 
     @Column(nullable = false)
-    private String pdfPath; // local file path
+    private String pdfPath; // ReportStore key of the stamped PDF, or PENDING
 
     /**
      * Report delivery status
@@ -86,6 +92,31 @@ public class ReportEntity {
      */
     private Long parentReportId;
 
+    /**
+     * Version of the rule set that scored this report (null for reports from before versioning)
+     */
+    @Column(name = "rule_set_version", length = 16)
+    private String ruleSetVersion;
+
+    /**
+     * "id@version" of every rule in that rule set, comma separated
+     */
+    @Column(length = 1000)
+    private String ruleVersions;
+
+    /**
+     * Codes of the findings the report contains, comma separated
+     */
+    @Column(length = 500)
+    private String findingCodes;
+
+    /**
+     * The recorded RiskResult (findings with evidence), so the PDF can be stamped again without a
+     * new assessment (null for reports from before it was recorded)
+     */
+    @Column(columnDefinition = "TEXT")
+    private String riskAnalysisJson;
+
     @Column(nullable = false, updatable = false)
     private Instant generatedAt;
 
@@ -104,7 +135,7 @@ public class ReportEntity {
         this.createTime = Instant.now();
         this.updateTime = Instant.now();
         // PDF links expire in 7 days
-        this.pdfExpiresAt = Instant.now().plusSeconds(7 * 24 * 3600L);
+        this.pdfExpiresAt = Instant.now().plusSeconds(PDF_RETENTION_SECONDS);
     }
 
     @PreUpdate
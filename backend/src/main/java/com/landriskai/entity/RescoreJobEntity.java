@@ -0,0 +1,92 @@
+package com.landriskai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One pass bringing stored reports up to a rule-set version.
+ * lastReportId is the checkpoint: reports are visited in id order and the counters are saved
+ * together with it after every chunk, so a restarted job continues where it stopped.
+ */
+@Entity
+@Table(name = "lr_rescore_job", indexes = {
+    @Index(name = "idx_rescore_job_status", columnList = "status")
+})
+@Getter @Setter @Builder
+@NoArgsConstructor @AllArgsConstructor
+public class RescoreJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 16)
+    private String targetRuleSetVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long lastReportId = 0L;
+
+    /**
+     * Stale reports counted when the job started
+     */
+    @Column(nullable = false)
+    private Long totalCandidates;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long processed = 0L;
+
+    /**
+     * Result changed: a new report superseded the stored one
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private Long regenerated = 0L;
+
+    /**
+     * Touched by a changed rule, but re-assessment gave the same result
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private Long unchanged = 0L;
+
+    /**
+     * No changed rule applies to the report's inputs; only the version was updated
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private Long untouched = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long failed = 0L;
+
+    /**
+     * Time spent processing chunks, excluding time the job was not running
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private Long activeMillis = 0L;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    private Instant finishedAt;
+
+    public enum Status {
+        RUNNING,    // also after a restart, until resumed
+        COMPLETED,
+        SUPERSEDED, // the active rule set changed before the job finished
+        FAILED
+    }
+}
@@ -2,20 +2,24 @@ package com.landriskai.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.Instant;
 
 /**
  * Cache for previously searched land parcels
  * Stores search results for 7 days to enable quick reuse without reprocessing
+ * Updates only write changed columns: reuse counters are incremented in place by
+ * CacheReuseCounters and must not be overwritten by entity saves.
  */
 @Entity
 @Table(name = "lr_search_cache", indexes = {
-    @Index(name = "idx_khata_khesra", columnList = "khata, khesra"),
     @Index(name = "idx_location", columnList = "district, circle, village"),
     @Index(name = "idx_expires_at", columnList = "expiresAt"),
-    @Index(name = "idx_created_at", columnList = "createdAt")
+    @Index(name = "idx_created_at", columnList = "createdAt"),
+    @Index(name = "idx_reusage_count", columnList = "reusageCount, id")
 })
+@DynamicUpdate
 @Getter
 @Setter
 @Builder
@@ -47,7 +51,7 @@ public class SearchCacheEntity {
     private String ownerName;
     private String plotArea;
 
-    // Hash for quick duplicate detection
+    // SHA-256 of the canonical ParcelKey; every parcel lookup is a point read on this unique index
     @Column(nullable = false, unique = true, length = 64)
     private String searchHash;
 
@@ -61,8 +65,11 @@ public class SearchCacheEntity {
     // Risk metrics
     private String riskBand;
     private Integer riskScore;
+    // Rule set that produced the cached analysis; rows from another rule set are recomputed
+    @Column(length = 16)
+    private String ruleSetVersion;
 
-    // PDF storage
+    // PDF storage: ReportStore key of the base document
     private String pdfPath;
     private Instant pdfGeneratedAt;
 
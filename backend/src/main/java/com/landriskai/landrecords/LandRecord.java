@@ -0,0 +1,30 @@
+package com.landriskai.landrecords;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One row of a land-records extract. A parcel with several owners has one row per owner.
+ *
+ * @param parcelKey canonical {@link com.landriskai.domain.ParcelKey} string (district|khata|khesra)
+ * @param area      recorded area in the extract's unit, NaN when the extract has none
+ */
+public record LandRecord(String parcelKey, String circle, String village, String owner, double area) {
+
+    private static final Pattern LEADING_NUMBER = Pattern.compile("^\\s*(\\d+(?:\\.\\d+)?|\\.\\d+)");
+
+    /**
+     * Leading decimal of an area value ("0.25", "0.25 acre"), NaN when there is none
+     */
+    public static double parseArea(String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        Matcher m = LEADING_NUMBER.matcher(value);
+        return m.find() ? Double.parseDouble(m.group(1)) : Double.NaN;
+    }
+
+    public boolean hasArea() {
+        return !Double.isNaN(area);
+    }
+}
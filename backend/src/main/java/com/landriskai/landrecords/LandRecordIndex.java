@@ -0,0 +1,164 @@
+package com.landriskai.landrecords;
+
+import com.landriskai.domain.ParcelKey;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped land-records index written by {@link LandRecordIndexBuilder}.
+ * Opening maps the file and checks the header; nothing is parsed up front, so the rows stay
+ * off-heap in the page cache and a multi-million-row file opens in milliseconds.
+ *
+ * Layout (little-endian):
+ * - header, 64 bytes: magic "LRIX", format version, entry count, entries offset,
+ *   records offset, 8-byte dataset fingerprint
+ * - entries: (keyHash, recordOffset) longs, sorted by keyHash; binary search finds a parcel
+ *   in O(log n), its rows (one per owner) are adjacent
+ * - records: per row, u16-length-prefixed UTF-8 parcel key, circle, village, owner, then the
+ *   area as a double (NaN when unknown)
+ * Lookups use absolute reads only, so one instance is safe for concurrent readers.
+ * A mapping is limited to 2 GiB; larger extracts should be split (e.g. per district).
+ */
+public final class LandRecordIndex {
+
+    static final int MAGIC = 0x5852494C; // "LRIX" little-endian
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int ENTRY_BYTES = 16;
+
+    private final Path path;
+    private final MappedByteBuffer buf;
+    private final int count;
+    private final int entriesOffset;
+    private final String fingerprint;
+
+    private LandRecordIndex(Path path, MappedByteBuffer buf) throws IOException {
+        this.path = path;
+        this.buf = buf;
+        if (buf.capacity() < HEADER_BYTES || buf.getInt(0) != MAGIC) {
+            throw new IOException("Not a land-records index: " + path);
+        }
+        if (buf.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported land-records index version " + buf.getInt(4) + ": " + path);
+        }
+        long n = buf.getLong(8);
+        this.entriesOffset = (int) buf.getLong(16);
+        long recordsOffset = buf.getLong(24);
+        if (n < 0 || n > Integer.MAX_VALUE || entriesOffset + n * ENTRY_BYTES != recordsOffset || recordsOffset > buf.capacity()) {
+            throw new IOException("Corrupt land-records index header: " + path);
+        }
+        this.count = (int) n;
+        byte[] fp = new byte[8];
+        buf.get(32, fp);
+        this.fingerprint = HexFormat.of().formatHex(fp);
+    }
+
+    public static LandRecordIndex open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Land-records index over 2 GiB, split the extract: " + path);
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            // The mapping stays valid after the channel is closed
+            return new LandRecordIndex(path, buf);
+        }
+    }
+
+    /**
+     * All rows recorded for the parcel, empty when it is not in the extract
+     */
+    public List<LandRecord> find(ParcelKey key) {
+        String canonical = key.toString();
+        long hash = hash(canonical);
+        int lo = 0, hi = count - 1, first = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long h = entryHash(mid);
+            if (h < hash) {
+                lo = mid + 1;
+            } else {
+                if (h == hash) first = mid;
+                hi = mid - 1;
+            }
+        }
+        if (first < 0) {
+            return List.of();
+        }
+        List<LandRecord> rows = new ArrayList<>(2);
+        for (int i = first; i < count && entryHash(i) == hash; i++) {
+            LandRecord row = readRecord((int) buf.getLong(entriesOffset + i * ENTRY_BYTES + 8));
+            // Different parcels can share a 64-bit hash: the stored key decides
+            if (row.parcelKey().equals(canonical)) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long fileBytes() {
+        return buf.capacity();
+    }
+
+    /**
+     * First 8 bytes (hex) of the SHA-256 over the indexed rows; changes whenever the data does
+     */
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    private long entryHash(int i) {
+        return buf.getLong(entriesOffset + i * ENTRY_BYTES);
+    }
+
+    private LandRecord readRecord(int offset) {
+        int[] pos = {offset};
+        String key = readString(pos);
+        String circle = readString(pos);
+        String village = readString(pos);
+        String owner = readString(pos);
+        double area = buf.getDouble(pos[0]);
+        return new LandRecord(key, circle, village, owner, area);
+    }
+
+    private String readString(int[] pos) {
+        int len = Short.toUnsignedInt(buf.getShort(pos[0]));
+        byte[] bytes = new byte[len];
+        buf.get(pos[0] + 2, bytes);
+        pos[0] += 2 + len;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 64-bit FNV-1a over the canonical key's chars with a final avalanche; part of the file format
+     */
+    static long hash(String canonical) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < canonical.length(); i++) {
+            h ^= canonical.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,314 @@
+package com.landriskai.landrecords;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.landriskai.domain.ParcelKey;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles land-record extracts into a {@link LandRecordIndex} file.
+ * Inputs are CSV with a header row or NDJSON (one object per line, by file extension), with
+ * the fields district, circle, village, khata, khesra, owner, area. Rows without district,
+ * khata or khesra are skipped. Parcels are keyed by the canonical {@link ParcelKey}.
+ * Records are streamed to a temporary file; only 16 bytes per row stay on the heap for the
+ * sort. The finished index replaces the target atomically.
+ *
+ * Usage: LandRecordIndexBuilder &lt;output.idx&gt; &lt;input.csv|.ndjson&gt;...
+ * (gradle landRecordIndex -PlandRecordArgs="out.idx in.csv")
+ */
+public final class LandRecordIndexBuilder {
+
+    private static final int MAX_FIELD_BYTES = 0xFFFF;
+
+    private long[] hashes = new long[1 << 16];
+    private long[] offsets = new long[1 << 16];
+    private int count;
+    private long recordBytes;
+    private long skipped;
+    private final MessageDigest digest;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private LandRecordIndexBuilder() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LandRecordIndexBuilder <output.idx> <input.csv|.ndjson>...");
+            System.exit(2);
+        }
+        List<Path> inputs = Arrays.stream(args, 1, args.length).map(Path::of).toList();
+        long started = System.currentTimeMillis();
+        Result r = build(inputs, Path.of(args[0]));
+        System.out.printf("%,d rows indexed (%,d skipped), %,d bytes, fingerprint %s, %d ms%n",
+                r.rows(), r.skipped(), r.bytes(), r.fingerprint(), System.currentTimeMillis() - started);
+    }
+
+    public record Result(int rows, long skipped, long bytes, String fingerprint) {}
+
+    public static Result build(List<Path> inputs, Path output) throws IOException {
+        LandRecordIndexBuilder b = new LandRecordIndexBuilder();
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path records = Files.createTempFile(parent, "land-records", ".rec");
+        Path tmp = Files.createTempFile(parent, "land-records", ".idx");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(records), 1 << 16)) {
+                for (Path input : inputs) {
+                    String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+                    if (name.endsWith(".csv")) {
+                        b.readCsv(input, out);
+                    } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                        b.readNdjson(input, out);
+                    } else {
+                        throw new IOException("Unsupported land-records input (expected .csv or .ndjson): " + input);
+                    }
+                }
+            }
+            byte[] fingerprint = Arrays.copyOf(b.digest.digest(), 8);
+            b.write(records, tmp, fingerprint);
+            Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Result(b.count, b.skipped, Files.size(output), HexFormat.of().formatHex(fingerprint));
+        } finally {
+            Files.deleteIfExists(records);
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void readCsv(Path input, OutputStream out) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = parseCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> f = parseCsvLine(line);
+                add(out, field(f, columns, "district"), field(f, columns, "circle"), field(f, columns, "village"),
+                        field(f, columns, "khata"), field(f, columns, "khesra"),
+                        field(f, columns, "owner", "owner_name"), field(f, columns, "area", "plot_area"));
+            }
+        }
+    }
+
+    private void readNdjson(Path input, OutputStream out) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode n;
+                try {
+                    n = mapper.readTree(line);
+                } catch (IOException ex) {
+                    skipped++;
+                    continue;
+                }
+                add(out, text(n, "district"), text(n, "circle"), text(n, "village"), text(n, "khata"), text(n, "khesra"),
+                        text(n, "owner", "ownerName"), text(n, "area", "plotArea"));
+            }
+        }
+    }
+
+    private void add(OutputStream out, String district, String circle, String village,
+                     String khata, String khesra, String owner, String area) throws IOException {
+        ParcelKey key = ParcelKey.of(khata, khesra, district);
+        if (key.district().isEmpty() || key.khata().isEmpty() || key.khesra().isEmpty()) {
+            skipped++;
+            return;
+        }
+        byte[][] fields = {utf8(key.toString()), utf8(circle), utf8(village), utf8(owner)};
+        int size = Double.BYTES;
+        for (byte[] f : fields) {
+            if (f.length > MAX_FIELD_BYTES) {
+                skipped++;
+                return;
+            }
+            size += 2 + f.length;
+        }
+        ByteBuffer rec = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte[] f : fields) {
+            rec.putShort((short) f.length).put(f);
+        }
+        rec.putDouble(LandRecord.parseArea(area));
+        out.write(rec.array());
+        digest.update(rec.array());
+
+        if (count == hashes.length) {
+            hashes = Arrays.copyOf(hashes, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        hashes[count] = LandRecordIndex.hash(key.toString());
+        offsets[count] = recordBytes;
+        count++;
+        recordBytes += size;
+    }
+
+    private void write(Path records, Path target, byte[] fingerprint) throws IOException {
+        long entriesOffset = LandRecordIndex.HEADER_BYTES;
+        long recordsOffset = entriesOffset + (long) count * LandRecordIndex.ENTRY_BYTES;
+        if (recordsOffset + recordBytes > Integer.MAX_VALUE) {
+            throw new IOException("Land-records index would exceed 2 GiB; split the extract (e.g. per district)");
+        }
+        sort(0, count - 1);
+
+        try (FileChannel ch = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel in = FileChannel.open(records, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(LandRecordIndex.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(LandRecordIndex.MAGIC).putInt(LandRecordIndex.FORMAT_VERSION)
+                    .putLong(count).putLong(entriesOffset).putLong(recordsOffset).put(fingerprint);
+            header.clear();
+            writeFully(ch, header);
+
+            ByteBuffer entries = ByteBuffer.allocate(LandRecordIndex.ENTRY_BYTES * 4096).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < count; i++) {
+                if (!entries.hasRemaining()) {
+                    entries.flip();
+                    writeFully(ch, entries);
+                    entries.clear();
+                }
+                entries.putLong(hashes[i]).putLong(recordsOffset + offsets[i]);
+            }
+            entries.flip();
+            writeFully(ch, entries);
+
+            for (long pos = 0; pos < recordBytes; ) {
+                pos += in.transferTo(pos, recordBytes - pos, ch);
+            }
+            ch.force(true);
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+
+    // Quicksort of the parallel (hash, offset) arrays by hash; rows of one parcel stay adjacent
+    private void sort(int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            long pivot = median(hashes[lo], hashes[mid], hashes[hi]);
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (hashes[i] < pivot) i++;
+                while (hashes[j] > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            // Recurse into the smaller half so stack depth stays O(log n)
+            if (j - lo < hi - i) {
+                sort(lo, j);
+                lo = i;
+            } else {
+                sort(i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && hashes[j - 1] > hashes[j]; j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private static long median(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private void swap(int i, int j) {
+        long h = hashes[i]; hashes[i] = hashes[j]; hashes[j] = h;
+        long o = offsets[i]; offsets[i] = offsets[j]; offsets[j] = o;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.trim().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String... names) {
+        for (String name : names) {
+            Integer i = columns.get(name);
+            if (i != null && i < fields.size()) {
+                return fields.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static String text(JsonNode node, String... names) {
+        for (String name : names) {
+            JsonNode v = node.get(name);
+            if (v != null && !v.isNull()) {
+                return v.asText();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * RFC 4180 fields: quoted fields may contain commas and doubled quotes (not line breaks)
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        fields.add(cur.toString());
+        return fields;
+    }
+}
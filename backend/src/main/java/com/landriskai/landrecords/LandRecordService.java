@@ -0,0 +1,91 @@
+package com.landriskai.landrecords;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.domain.ParcelKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The land-records index configured at landRecords.indexPath, mapped at startup.
+ * Without an index file (or with an unreadable one) lookups report "not available" and the
+ * land-record rule stays silent.
+ */
+@Slf4j
+@Component
+public class LandRecordService {
+
+    private final LandRecordIndex index;
+    private final long openMillis;
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    public LandRecordService(LandRiskAiProperties props) {
+        String configured = props.getLandRecords().getIndexPath();
+        Path path = configured == null || configured.isBlank() ? null : Path.of(configured);
+        long started = System.nanoTime();
+        LandRecordIndex opened = null;
+        if (path != null && Files.isRegularFile(path)) {
+            try {
+                opened = LandRecordIndex.open(path);
+            } catch (Exception ex) {
+                log.error("[LAND_RECORDS] Could not open index {}, land-record checks disabled", path, ex);
+            }
+        } else {
+            log.info("[LAND_RECORDS] No index at {}, land-record checks disabled", path);
+        }
+        this.index = opened;
+        this.openMillis = (System.nanoTime() - started) / 1_000_000;
+        if (opened != null) {
+            log.info("[LAND_RECORDS] Mapped {} rows ({} KiB, fingerprint {}) from {} in {} ms",
+                    opened.size(), opened.fileBytes() / 1024, opened.fingerprint(), path, openMillis);
+        }
+    }
+
+    public boolean isAvailable() {
+        return index != null;
+    }
+
+    /**
+     * Dataset fingerprint, null without an index
+     */
+    public String fingerprint() {
+        return index == null ? null : index.fingerprint();
+    }
+
+    /**
+     * Rows recorded for the parcel; empty when it is not recorded or no index is available
+     */
+    public List<LandRecord> find(ParcelKey key) {
+        if (index == null) {
+            return List.of();
+        }
+        lookups.incrementAndGet();
+        List<LandRecord> rows = index.find(key);
+        if (!rows.isEmpty()) {
+            hits.incrementAndGet();
+        }
+        return rows;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("available", index != null);
+        if (index != null) {
+            m.put("path", index.path().toString());
+            m.put("rows", index.size());
+            m.put("fileBytes", index.fileBytes());
+            m.put("fingerprint", index.fingerprint());
+            m.put("openMillis", openMillis);
+        }
+        m.put("lookups", lookups.get());
+        m.put("hits", hits.get());
+        return m;
+    }
+}
@@ -0,0 +1,244 @@
+package com.landriskai.landrecords;
+
+import com.landriskai.domain.ParcelKey;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+
+/**
+ * Read-only, memory-mapped set of listed parcels (encumbered or under dispute), written by
+ * {@link ParcelBlacklistBuilder}. Membership costs one hash of the key and three reads from the
+ * mapping, whatever the list size; nothing but this object lives on the heap.
+ *
+ * The index is a minimal perfect hash (hash-and-displace): every listed key maps to its own
+ * slot in [0, n). A key's 64-bit hash picks a bucket, the bucket's stored displacement picks the
+ * slot. Unlisted keys also land on some slot, so each slot keeps a 32-bit fingerprint of its
+ * key's hash; a mismatch rejects the key (false positives about 1 in 4 billion).
+ *
+ * Lookups hash the tuple's parts in place: apart from the order's ParcelKey, a miss allocates nothing.
+ *
+ * Layout (little-endian):
+ * - header, 64 bytes: magic "PBLK", format version, key count n, bucket count, hash seed,
+ *   8-byte dataset fingerprint, displacements offset, slots offset
+ * - displacements: one int per bucket
+ * - slots: n int fingerprints, then n flag bytes ({@link #ENCUMBRANCE} | {@link #DISPUTE})
+ * Lookups use absolute reads only, so one instance is safe for concurrent readers.
+ */
+public final class ParcelBlacklist {
+
+    static final int MAGIC = 0x4B4C4250; // "PBLK" little-endian
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 64;
+
+    public static final int ENCUMBRANCE = 1;
+    public static final int DISPUTE = 2;
+
+    private final Path path;
+    private final MappedByteBuffer buf;
+    private final int count;
+    private final int buckets;
+    private final long seed;
+    private final int displacementsOffset;
+    private final int slotsOffset;
+    private final int flagsOffset;
+    private final String fingerprint;
+
+    private ParcelBlacklist(Path path, MappedByteBuffer buf) throws IOException {
+        this.path = path;
+        this.buf = buf;
+        if (buf.capacity() < HEADER_BYTES || buf.getInt(0) != MAGIC) {
+            throw new IOException("Not a parcel blacklist: " + path);
+        }
+        if (buf.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported parcel blacklist version " + buf.getInt(4) + ": " + path);
+        }
+        this.count = buf.getInt(8);
+        this.buckets = buf.getInt(12);
+        this.seed = buf.getLong(16);
+        byte[] fp = new byte[8];
+        buf.get(24, fp);
+        this.fingerprint = HexFormat.of().formatHex(fp);
+        long disp = buf.getLong(32);
+        long slots = buf.getLong(40);
+        if (count < 0 || buckets < 1 || disp != HEADER_BYTES || slots != disp + 4L * buckets
+                || slots + 5L * count != buf.capacity()) {
+            throw new IOException("Corrupt parcel blacklist header: " + path);
+        }
+        this.displacementsOffset = (int) disp;
+        this.slotsOffset = (int) slots;
+        this.flagsOffset = (int) (slots + 4L * count);
+    }
+
+    public static ParcelBlacklist open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Parcel blacklist over 2 GiB: " + path);
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            // The mapping stays valid after the channel is closed, and after the file is replaced
+            return new ParcelBlacklist(path, buf);
+        }
+    }
+
+    /**
+     * {@link #ENCUMBRANCE} / {@link #DISPUTE} bits for a listed parcel, 0 when it is not listed
+     */
+    public int flags(ParcelKey parcel, String circle, String village) {
+        if (count == 0) {
+            return 0;
+        }
+        long h = hash(seed, parcel, circle, village);
+        int d = buf.getInt(displacementsOffset + 4 * bucket(h, buckets));
+        int slot = slot(h, d, count);
+        if (buf.getInt(slotsOffset + 4 * slot) != fingerprint(h)) {
+            return 0;
+        }
+        return buf.get(flagsOffset + slot);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long fileBytes() {
+        return buf.capacity();
+    }
+
+    /**
+     * First 8 bytes (hex) of the SHA-256 over the sorted listed keys and flags
+     */
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Canonical listed tuple: the {@link ParcelKey}, then circle and village trimmed, lower-cased,
+     * with whitespace runs as one space
+     */
+    static String key(ParcelKey parcel, String circle, String village) {
+        StringBuilder sb = new StringBuilder(64).append(parcel).append('|');
+        appendNormalized(sb, circle);
+        sb.append('|');
+        appendNormalized(sb, village);
+        return sb.toString();
+    }
+
+    // Hashing and slot placement below are part of the file format
+
+    static long hash(long seed, String key) {
+        return mix(hashChars(0xCBF29CE484222325L ^ seed, key));
+    }
+
+    /**
+     * Same as hash(seed, key(parcel, circle, village)), without building the key
+     */
+    static long hash(long seed, ParcelKey parcel, String circle, String village) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        h = hashChars(h, parcel.district());
+        h = hashChar(h, '|');
+        h = hashChars(h, parcel.khata());
+        h = hashChar(h, '|');
+        h = hashChars(h, parcel.khesra());
+        h = hashChar(h, '|');
+        h = hashNormalized(h, circle);
+        h = hashChar(h, '|');
+        h = hashNormalized(h, village);
+        return mix(h);
+    }
+
+    private static long hashChars(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h = hashChar(h, s.charAt(i));
+        }
+        return h;
+    }
+
+    private static long hashChar(long h, char c) {
+        return (h ^ c) * 0x100000001B3L;
+    }
+
+    private static long hashNormalized(long h, String s) {
+        if (s == null) {
+            return h;
+        }
+        int end = trimmedEnd(s);
+        boolean space = false;
+        for (int i = trimmedStart(s, end); i < end; i++) {
+            char c = s.charAt(i);
+            if (c <= ' ') {
+                space = true;
+                continue;
+            }
+            if (space) {
+                h = hashChar(h, ' ');
+                space = false;
+            }
+            h = hashChar(h, Character.toLowerCase(c));
+        }
+        return h;
+    }
+
+    private static void appendNormalized(StringBuilder sb, String s) {
+        if (s == null) {
+            return;
+        }
+        int end = trimmedEnd(s);
+        boolean space = false;
+        for (int i = trimmedStart(s, end); i < end; i++) {
+            char c = s.charAt(i);
+            if (c <= ' ') {
+                space = true;
+                continue;
+            }
+            if (space) {
+                sb.append(' ');
+                space = false;
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+    }
+
+    private static int trimmedEnd(String s) {
+        int end = s.length();
+        while (end > 0 && s.charAt(end - 1) <= ' ') end--;
+        return end;
+    }
+
+    private static int trimmedStart(String s, int end) {
+        int start = 0;
+        while (start < end && s.charAt(start) <= ' ') start++;
+        return start;
+    }
+
+    static int bucket(long h, int buckets) {
+        return (int) (((h >>> 32) * buckets) >>> 32);
+    }
+
+    static int slot(long h, int displacement, int count) {
+        return (int) (((mix(h + displacement * 0x9E3779B97F4A7C15L) >>> 32) * count) >>> 32);
+    }
+
+    static int fingerprint(long h) {
+        return (int) h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,319 @@
+package com.landriskai.landrecords;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.landriskai.domain.ParcelKey;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles published encumbrance/dispute lists into a {@link ParcelBlacklist} file.
+ * Inputs are CSV with a header row or NDJSON (by file extension) with the fields district,
+ * circle, village, khata, khesra and an optional type: "encumbrance" (also mortgage, lien,
+ * charge) or anything else, read as a dispute (litigation, court case, ...). Rows without
+ * district, khata or khesra are skipped; a tuple listed more than once keeps all its types.
+ *
+ * Placement (hash-and-displace): keys are grouped into n/4 buckets by hash; buckets are placed
+ * largest first, each trying displacements 0, 1, 2, ... until all its keys fall on free, distinct
+ * slots. If a bucket finds no displacement, or two keys share a 64-bit hash, the build restarts
+ * with the next seed. The finished file replaces the target atomically.
+ *
+ * Usage: ParcelBlacklistBuilder &lt;output.mph&gt; &lt;input.csv|.ndjson&gt;...
+ * (gradle parcelBlacklist -PblacklistArgs="out.mph list.csv")
+ */
+public final class ParcelBlacklistBuilder {
+
+    private static final int KEYS_PER_BUCKET = 4;
+    private static final int MAX_DISPLACEMENT = 1 << 24;
+    private static final int MAX_SEEDS = 16;
+
+    private final Map<String, Integer> listed = new HashMap<>();
+    private long skipped;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private ParcelBlacklistBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ParcelBlacklistBuilder <output.mph> <input.csv|.ndjson>...");
+            System.exit(2);
+        }
+        List<Path> inputs = Arrays.stream(args, 1, args.length).map(Path::of).toList();
+        long started = System.currentTimeMillis();
+        Result r = build(inputs, Path.of(args[0]));
+        System.out.printf("%,d parcels listed (%,d rows skipped), %,d bytes (%.2f per parcel), seed %d, fingerprint %s, %d ms%n",
+                r.parcels(), r.skipped(), r.bytes(), r.parcels() == 0 ? 0.0 : (double) r.bytes() / r.parcels(),
+                r.seed(), r.fingerprint(), System.currentTimeMillis() - started);
+    }
+
+    public record Result(int parcels, long skipped, long bytes, long seed, String fingerprint) {}
+
+    public static Result build(List<Path> inputs, Path output) throws IOException {
+        ParcelBlacklistBuilder b = new ParcelBlacklistBuilder();
+        for (Path input : inputs) {
+            String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                b.readCsv(input);
+            } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                b.readNdjson(input);
+            } else {
+                throw new IOException("Unsupported blacklist input (expected .csv or .ndjson): " + input);
+            }
+        }
+
+        String[] keys = b.listed.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        byte[] flags = new byte[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            flags[i] = b.listed.get(keys[i]).byteValue();
+        }
+        byte[] fingerprint = fingerprint(keys, flags);
+
+        for (long seed = 0; seed < MAX_SEEDS; seed++) {
+            Placement p = place(keys, seed);
+            if (p == null) {
+                continue;
+            }
+            Path parent = output.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "parcel-blacklist", ".mph");
+            try {
+                write(tmp, p, flags, seed, fingerprint);
+                Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            return new Result(keys.length, b.skipped, Files.size(output), seed, HexFormat.of().formatHex(fingerprint));
+        }
+        throw new IOException("No perfect hash found for " + keys.length + " parcels after " + MAX_SEEDS + " seeds");
+    }
+
+    /**
+     * Slot fingerprints and flag order of a successful placement
+     */
+    private record Placement(int buckets, int[] displacements, int[] slotFingerprints, int[] slotKey) {}
+
+    private static Placement place(String[] keys, long seed) {
+        int n = keys.length;
+        int buckets = Math.max(1, (n + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET);
+        long[] hashes = new long[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = ParcelBlacklist.hash(seed, keys[i]);
+        }
+        long[] sorted = hashes.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < n; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                return null;
+            }
+        }
+
+        // Keys grouped by bucket (counting sort): members of bucket b are byBucket[start[b] .. start[b + 1])
+        int[] start = new int[buckets + 1];
+        for (long h : hashes) {
+            start[ParcelBlacklist.bucket(h, buckets) + 1]++;
+        }
+        int maxSize = 0;
+        for (int b = 0; b < buckets; b++) {
+            maxSize = Math.max(maxSize, start[b + 1]);
+            start[b + 1] += start[b];
+        }
+        int[] byBucket = new int[n];
+        int[] fill = Arrays.copyOf(start, buckets);
+        for (int i = 0; i < n; i++) {
+            byBucket[fill[ParcelBlacklist.bucket(hashes[i], buckets)]++] = i;
+        }
+
+        // Buckets largest first (counting sort by size, descending)
+        int[] sizeStart = new int[maxSize + 2];
+        for (int b = 0; b < buckets; b++) {
+            sizeStart[maxSize - (start[b + 1] - start[b]) + 1]++;
+        }
+        for (int s = 0; s <= maxSize; s++) {
+            sizeStart[s + 1] += sizeStart[s];
+        }
+        int[] order = new int[buckets];
+        for (int b = 0; b < buckets; b++) {
+            order[sizeStart[maxSize - (start[b + 1] - start[b])]++] = b;
+        }
+
+        int[] displacements = new int[buckets];
+        int[] slotKey = new int[n];
+        Arrays.fill(slotKey, -1);
+        int[] slots = new int[maxSize];
+        for (int b : order) {
+            int from = start[b], size = start[b + 1] - from;
+            if (size == 0) {
+                break;
+            }
+            int d = 0;
+            search:
+            for (; d < MAX_DISPLACEMENT; d++) {
+                for (int j = 0; j < size; j++) {
+                    int s = ParcelBlacklist.slot(hashes[byBucket[from + j]], d, n);
+                    if (slotKey[s] >= 0) {
+                        continue search;
+                    }
+                    for (int k = 0; k < j; k++) {
+                        if (slots[k] == s) {
+                            continue search;
+                        }
+                    }
+                    slots[j] = s;
+                }
+                break;
+            }
+            if (d == MAX_DISPLACEMENT) {
+                return null;
+            }
+            displacements[b] = d;
+            for (int j = 0; j < size; j++) {
+                slotKey[slots[j]] = byBucket[from + j];
+            }
+        }
+
+        int[] slotFingerprints = new int[n];
+        for (int s = 0; s < n; s++) {
+            slotFingerprints[s] = ParcelBlacklist.fingerprint(hashes[slotKey[s]]);
+        }
+        return new Placement(buckets, displacements, slotFingerprints, slotKey);
+    }
+
+    private static void write(Path target, Placement p, byte[] flags, long seed, byte[] fingerprint) throws IOException {
+        int n = flags.length;
+        long displacementsOffset = ParcelBlacklist.HEADER_BYTES;
+        long slotsOffset = displacementsOffset + 4L * p.buckets();
+        ByteBuffer out = ByteBuffer.allocate((int) (slotsOffset + 5L * n)).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(ParcelBlacklist.MAGIC).putInt(ParcelBlacklist.FORMAT_VERSION)
+                .putInt(n).putInt(p.buckets()).putLong(seed).put(fingerprint)
+                .putLong(displacementsOffset).putLong(slotsOffset);
+        out.position((int) displacementsOffset);
+        for (int d : p.displacements()) {
+            out.putInt(d);
+        }
+        for (int f : p.slotFingerprints()) {
+            out.putInt(f);
+        }
+        for (int s = 0; s < n; s++) {
+            out.put(flags[p.slotKey()[s]]);
+        }
+        out.flip();
+        try (FileChannel ch = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                ch.write(out);
+            }
+            ch.force(true);
+        }
+    }
+
+    private void readCsv(Path input) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = LandRecordIndexBuilder.parseCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> f = LandRecordIndexBuilder.parseCsvLine(line);
+                add(field(f, columns, "district"), field(f, columns, "circle"), field(f, columns, "village"),
+                        field(f, columns, "khata"), field(f, columns, "khesra"), field(f, columns, "type", "reason"));
+            }
+        }
+    }
+
+    private void readNdjson(Path input) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode n;
+                try {
+                    n = mapper.readTree(line);
+                } catch (IOException ex) {
+                    skipped++;
+                    continue;
+                }
+                add(text(n, "district"), text(n, "circle"), text(n, "village"), text(n, "khata"), text(n, "khesra"),
+                        text(n, "type", "reason"));
+            }
+        }
+    }
+
+    private void add(String district, String circle, String village, String khata, String khesra, String type) {
+        ParcelKey parcel = ParcelKey.of(khata, khesra, district);
+        if (parcel.district().isEmpty() || parcel.khata().isEmpty() || parcel.khesra().isEmpty()) {
+            skipped++;
+            return;
+        }
+        listed.merge(ParcelBlacklist.key(parcel, circle, village), flag(type), (a, b) -> a | b);
+    }
+
+    private static int flag(String type) {
+        String t = type == null ? "" : type.trim().toLowerCase(Locale.ROOT);
+        return t.startsWith("encumb") || t.equals("mortgage") || t.equals("lien") || t.equals("charge")
+                ? ParcelBlacklist.ENCUMBRANCE
+                : ParcelBlacklist.DISPUTE;
+    }
+
+    private static byte[] fingerprint(String[] keys, byte[] flags) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (int i = 0; i < keys.length; i++) {
+                digest.update(keys[i].getBytes(StandardCharsets.UTF_8));
+                digest.update(flags[i]);
+                digest.update((byte) '\n');
+            }
+            return Arrays.copyOf(digest.digest(), 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String... names) {
+        for (String name : names) {
+            Integer i = columns.get(name);
+            if (i != null && i < fields.size()) {
+                return fields.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static String text(JsonNode node, String... names) {
+        for (String name : names) {
+            JsonNode v = node.get(name);
+            if (v != null && !v.isNull()) {
+                return v.asText();
+            }
+        }
+        return null;
+    }
+}
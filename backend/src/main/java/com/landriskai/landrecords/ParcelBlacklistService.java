@@ -0,0 +1,142 @@
+package com.landriskai.landrecords;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.risk.rules.RuleSetChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The encumbrance/dispute list configured at landRecords.blacklistPath, mapped at startup.
+ * The file is checked every landRecords.blacklistReloadIntervalSeconds; a changed file is mapped
+ * and swapped in as a whole (lookups in flight finish on the old mapping), then a
+ * {@link RuleSetChangedEvent} makes the new list a new rule-set version.
+ * A missing or unreadable file keeps the last good list (none at startup: checks stay silent).
+ */
+@Slf4j
+@Component
+public class ParcelBlacklistService {
+
+    private final LandRiskAiProperties.LandRecords cfg;
+    private final ApplicationEventPublisher events;
+    private volatile ParcelBlacklist blacklist;
+    private volatile String lastSeen = "";
+    private volatile Instant loadedAt;
+    private long reloads;
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    public ParcelBlacklistService(LandRiskAiProperties props, ApplicationEventPublisher events) {
+        this.cfg = props.getLandRecords();
+        this.events = events;
+        reload();
+    }
+
+    public boolean isAvailable() {
+        return blacklist != null;
+    }
+
+    /**
+     * Dataset fingerprint, null without a list
+     */
+    public String fingerprint() {
+        ParcelBlacklist b = blacklist;
+        return b == null ? null : b.fingerprint();
+    }
+
+    /**
+     * {@link ParcelBlacklist#ENCUMBRANCE} / {@link ParcelBlacklist#DISPUTE} bits, 0 when not listed or no list is loaded
+     */
+    public int flags(ParcelKey parcel, String circle, String village) {
+        ParcelBlacklist b = blacklist;
+        if (b == null) {
+            return 0;
+        }
+        lookups.incrementAndGet();
+        int flags = b.flags(parcel, circle, village);
+        if (flags != 0) {
+            hits.incrementAndGet();
+        }
+        return flags;
+    }
+
+    @Scheduled(
+            initialDelayString = "${landriskai.landRecords.blacklistReloadIntervalSeconds:60}",
+            fixedDelayString = "${landriskai.landRecords.blacklistReloadIntervalSeconds:60}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void reloadIfChanged() {
+        if (reload()) {
+            events.publishEvent(new RuleSetChangedEvent("parcel blacklist reloaded"));
+        }
+    }
+
+    /**
+     * @return true when a changed list was swapped in
+     */
+    synchronized boolean reload() {
+        String configured = cfg.getBlacklistPath();
+        if (configured == null || configured.isBlank()) {
+            return false;
+        }
+        Path path = Path.of(configured);
+        try {
+            if (!Files.isRegularFile(path)) {
+                if (!lastSeen.equals("missing")) {
+                    log.info("[BLACKLIST] No parcel blacklist at {}", path);
+                    lastSeen = "missing";
+                }
+                return false;
+            }
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            String seen = attrs.size() + "@" + attrs.lastModifiedTime().toMillis() + "@" + attrs.fileKey();
+            if (seen.equals(lastSeen)) {
+                return false;
+            }
+            long started = System.nanoTime();
+            ParcelBlacklist next = ParcelBlacklist.open(path);
+            lastSeen = seen;
+            ParcelBlacklist previous = blacklist;
+            if (previous != null && next.fingerprint().equals(previous.fingerprint())) {
+                return false;
+            }
+            blacklist = next;
+            loadedAt = Instant.now();
+            reloads++;
+            log.info("[BLACKLIST] Mapped {} listed parcels ({} KiB, fingerprint {}) from {} in {} ms",
+                    next.size(), next.fileBytes() / 1024, next.fingerprint(), path, (System.nanoTime() - started) / 1_000_000);
+            return true;
+        } catch (Exception ex) {
+            log.error("[BLACKLIST] Could not map {}, keeping fingerprint {}", path, fingerprint(), ex);
+            return false;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        ParcelBlacklist b = blacklist;
+        m.put("available", b != null);
+        if (b != null) {
+            m.put("path", b.path().toString());
+            m.put("parcels", b.size());
+            m.put("fileBytes", b.fileBytes());
+            m.put("fingerprint", b.fingerprint());
+            m.put("loadedAt", loadedAt == null ? null : loadedAt.toString());
+            m.put("reloads", reloads);
+        }
+        m.put("lookups", lookups.get());
+        m.put("hits", hits.get());
+        return m;
+    }
+}
@@ -1,123 +1,200 @@
 package com.landriskai.pdf;
 
-import com.landriskai.config.LandRiskAiProperties;
 import com.landriskai.entity.OrderEntity;
 import com.landriskai.risk.RiskFinding;
+import com.landriskai.risk.RiskInputKey;
 import com.landriskai.risk.RiskResult;
 import com.lowagie.text.*;
+import com.lowagie.text.pdf.PdfArray;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfEncryption;
+import com.lowagie.text.pdf.PdfName;
+import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfStamper;
 import com.lowagie.text.pdf.PdfWriter;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.nio.file.Files;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-
+import java.util.GregorianCalendar;
+
+/**
+ * Renders reports in two stages:
+ * - a base document per parcel assessment (findings, parcel snapshot, checklist, disclaimer)
+ *   with a blank band reserved under the title on page 1
+ * - a per-order stamp onto that base: reference no, report id, verification code,
+ *   generation time and contact block in the band, reference no in every page footer
+ * A cached base can be stamped for any number of orders without re-laying out the report.
+ * Fonts and static sections come prebuilt from a {@link ReportTemplate}.
+ * Documents are written to the given stream; where they are kept is up to the caller.
+ */
 @Service
 public class PdfReportService {
 
-    private final LandRiskAiProperties props;
+    private static final float MARGIN = 36;
+    private static final float STAMP_LEADING = 14;
+    private static final int STAMP_LINES = 4;
+    private static final String STAMP_Y_HEADER = "LandRiskAI-StampY";
+
+    private final ReportTemplate template;
+
+    public PdfReportService() throws IOException {
+        this.template = new ReportTemplate(STAMP_LINES * STAMP_LEADING);
+    }
+
+    /**
+     * Render the order-independent base document into {@code out} (left open).
+     * The output depends only on the order's parcel inputs and the result: no creation date, and
+     * a file ID derived from the inputs, so equal assessments render byte-identical bases.
+     * Stamped reports get their own modification date and file ID.
+     */
+    public void renderBase(OrderEntity order, RiskResult result, OutputStream out) throws Exception {
+        Document doc = new Document(PageSize.A4, MARGIN, MARGIN, MARGIN, MARGIN);
+        PdfWriter writer = PdfWriter.getInstance(doc, out);
+        writer.setCloseStream(false);
+        doc.open();
+        writer.getInfo().remove(PdfName.CREATIONDATE);
+        byte[] fileId = fileId(order, result);
+        writer.getInfo().put(PdfName.FILEID, PdfEncryption.createInfoId(fileId, fileId));
+        ReportTemplate t = template;
+        Font body = t.body;
+
+        doc.add(t.titleParagraph);
+
+        // Reserved band for the per-order stamp; its top edge travels with the document
+        float stampTop = writer.getVerticalPosition(false);
+        doc.addHeader(STAMP_Y_HEADER, Float.toString(stampTop));
+        doc.add(t.stampBand);
+
+        // Summary block
+        doc.add(t.summaryHeading);
+        doc.add(new Paragraph("Risk Band: " + result.getBand(), body));
+        doc.add(new Paragraph("Risk Score (0-100): " + result.getScore(), body));
+        doc.add(Chunk.NEWLINE);
+
+        // Parcel snapshot
+        doc.add(t.parcelHeading);
+        doc.add(new Paragraph("District: " + order.getDistrict(), body));
+        doc.add(new Paragraph("Circle/Block: " + order.getCircle(), body));
+        doc.add(new Paragraph("Village/Mauza: " + order.getVillage(), body));
+        doc.add(new Paragraph("Khata: " + displayIdentifier(order.getKhata()) + " | Khesra: " + displayIdentifier(order.getKhesra()), body));
+        doc.add(new Paragraph("Owner Name: " + safe(order.getOwnerName()), body));
+        if (order.getPlotArea() != null) doc.add(new Paragraph("Plot Area: " + order.getPlotArea(), body));
+        doc.add(Chunk.NEWLINE);
+
+        // Findings
+        doc.add(t.findingsHeading);
+        PdfPTable table = new PdfPTable(ReportTemplate.FINDING_COLUMNS);
+        table.setWidthPercentage(100);
+        addRow(table, t.findingHeaderRow);
+
+        if (result.getFindings().isEmpty()) {
+            addRow(table, t.noFindingsRow);
+        } else {
+            for (RiskFinding f : result.getFindings()) {
+                table.addCell(ReportTemplate.cell(f.getTitle() + " (" + f.getSeverity() + ")", t.cell));
+                table.addCell(ReportTemplate.cell(f.getMessage() + "\nEvidence: " + safe(f.getEvidence()), t.cell));
+                table.addCell(ReportTemplate.cell(safe(f.getSource()), t.cell));
+                table.addCell(ReportTemplate.cell(safe(f.getConfidence()), t.cell));
+            }
+        }
+        doc.add(table);
+        doc.add(Chunk.NEWLINE);
+
+        // Next steps
+        doc.add(t.checklistHeading);
+        doc.add(t.checklist);
+        doc.add(Chunk.NEWLINE);
 
-    public PdfReportService(LandRiskAiProperties props) {
-        this.props = props;
+        // Disclaimer (reference no is stamped into every page footer)
+        doc.add(t.disclaimerHeading);
+        doc.add(t.disclaimer);
+
+        doc.close();
     }
 
-    public String generatePdf(OrderEntity order, RiskResult result, Long reportId, String verificationCode, String referenceNo) throws Exception {
+    /**
+     * Stamp the per-order parts onto a base document, writing the report to {@code out} as it is
+     * produced. The stream is flushed but left open.
+     * The modification date is the report's generation time and the file ID is derived from the
+     * base and the stamped fields, so stamping one report onto the same base again gives the same bytes.
+     * @param generatedAt the report's generation time, as recorded on the report
+     */
+    public void stamp(Path basePdf, OrderEntity order, Long reportId, String verificationCode, String referenceNo,
+                      Instant generatedAt, OutputStream out) throws IOException {
         String resolvedReferenceNo = resolveReferenceNo(referenceNo, reportId);
-        File dir = new File(props.getStorage().getReportDir());
-        if (!dir.exists()) Files.createDirectories(dir.toPath());
-
-        String filename = "LandRiskAI_Report_" + reportId + ".pdf";
-        File out = new File(dir, filename);
-
-        try (FileOutputStream fos = new FileOutputStream(out)) {
-            Document doc = new Document(PageSize.A4, 36, 36, 36, 36);
-            PdfWriter.getInstance(doc, fos);
-            doc.open();
-
-            Font h1 = new Font(Font.HELVETICA, 16, Font.BOLD);
-            Font h2 = new Font(Font.HELVETICA, 12, Font.BOLD);
-            Font body = new Font(Font.HELVETICA, 10, Font.NORMAL);
-
-            doc.add(new Paragraph("LandRiskAI - Bihar Land Risk Report (MVP Demo)", h1));
-            doc.add(new Paragraph("Reference No: " + resolvedReferenceNo, body));
-            doc.add(new Paragraph("Report ID: " + reportId + " | Verification Code: " + verificationCode, body));
-            doc.add(new Paragraph("Generated: " + DateTimeFormatter.ISO_INSTANT.format(Instant.now()), body));
-            doc.add(Chunk.NEWLINE);
-
-            // Summary block
-            doc.add(new Paragraph("Summary", h2));
-            doc.add(new Paragraph("Risk Band: " + result.getBand(), body));
-            doc.add(new Paragraph("Risk Score (0-100): " + result.getScore(), body));
-            doc.add(Chunk.NEWLINE);
-
-            // Parcel snapshot
-            doc.add(new Paragraph("Parcel Snapshot", h2));
-            doc.add(new Paragraph("District: " + order.getDistrict(), body));
-            doc.add(new Paragraph("Circle/Block: " + order.getCircle(), body));
-            doc.add(new Paragraph("Village/Mauza: " + order.getVillage(), body));
-            doc.add(new Paragraph("Khata: " + displayIdentifier(order.getKhata()) + " | Khesra: " + displayIdentifier(order.getKhesra()), body));
-            if (order.getOwnerName() != null) doc.add(new Paragraph("Owner (input): " + order.getOwnerName(), body));
-            if (order.getPlotArea() != null) doc.add(new Paragraph("Plot Area: " + order.getPlotArea(), body));
-            doc.add(Chunk.NEWLINE);
-
-            // Owner & contact
-            doc.add(new Paragraph("Owner & Contact", h2));
-            doc.add(new Paragraph("Owner Name: " + safe(order.getOwnerName()), body));
-            doc.add(new Paragraph("WhatsApp: " + safe(order.getWhatsappNumber()), body));
-            doc.add(new Paragraph("Email: " + safe(order.getEmailAddress()), body));
-            doc.add(Chunk.NEWLINE);
-
-            // Findings
-            doc.add(new Paragraph("Findings & Evidence", h2));
-            PdfPTable table = new PdfPTable(new float[]{2, 3, 2, 2});
-            table.setWidthPercentage(100);
-            table.addCell(headerCell("Finding"));
-            table.addCell(headerCell("Message / Evidence"));
-            table.addCell(headerCell("Source"));
-            table.addCell(headerCell("Confidence"));
-
-            if (result.getFindings().isEmpty()) {
-                table.addCell(cell("No findings"));
-                table.addCell(cell("No issues detected by MVP rules."));
-                table.addCell(cell("N/A"));
-                table.addCell(cell("N/A"));
-            } else {
-                for (RiskFinding f : result.getFindings()) {
-                    table.addCell(cell(f.getTitle() + " (" + f.getSeverity() + ")"));
-                    table.addCell(cell(f.getMessage() + "\nEvidence: " + safe(f.getEvidence())));
-                    table.addCell(cell(safe(f.getSource())));
-                    table.addCell(cell(safe(f.getConfidence())));
-                }
+        PdfReader reader = new PdfReader(basePdf.toString());
+        try {
+            PdfStamper stamper = new PdfStamper(reader, out);
+            stamper.getWriter().setCloseStream(false);
+            stamper.setEnforcedModificationDate(GregorianCalendar.from(generatedAt.atZone(ZoneOffset.UTC)));
+            byte[] fileId = stampFileId(reader, reportId, verificationCode, resolvedReferenceNo, generatedAt);
+            stamper.setOverrideFileId(PdfEncryption.createInfoId(fileId, fileId));
+            Font body = template.body;
+            Font footer = template.footer;
+
+            float y = Float.parseFloat(reader.getInfo().get(STAMP_Y_HEADER)) - STAMP_LEADING;
+            PdfContentByte first = stamper.getOverContent(1);
+            String[] lines = {
+                    "Reference No: " + resolvedReferenceNo,
+                    "Report ID: " + reportId + " | Verification Code: " + verificationCode,
+                    "Generated: " + DateTimeFormatter.ISO_INSTANT.format(generatedAt),
+                    "Contact: WhatsApp " + safe(order.getWhatsappNumber()) + " | Email " + safe(order.getEmailAddress())
+            };
+            for (String line : lines) {
+                showLine(first, body, line, y);
+                y -= STAMP_LEADING;
+            }
+
+            int pages = reader.getNumberOfPages();
+            for (int page = 1; page <= pages; page++) {
+                showLine(stamper.getOverContent(page), footer,
+                        "Reference No: " + resolvedReferenceNo + " | Page " + page + " of " + pages, MARGIN / 2);
             }
-            doc.add(table);
-            doc.add(Chunk.NEWLINE);
-
-            // Next steps
-            doc.add(new Paragraph("Recommended Next Steps (Buyer Checklist)", h2));
-            com.lowagie.text.List list = new com.lowagie.text.List(false, 12);
-            list.add(new ListItem("Verify the exact Khata/Khesra and area in official records for this village/circle.", body));
-            list.add(new ListItem("Ask seller for chain documents (sale deed/partition/mutation receipts) and validate continuity.", body));
-            list.add(new ListItem("Check for any encumbrance or dispute indicators via local verification (registry/court search).", body));
-            list.add(new ListItem("If risk band is AMBER/RED, consider professional verification before paying advance.", body));
-            doc.add(list);
-            doc.add(Chunk.NEWLINE);
-
-            // Disclaimer
-            doc.add(new Paragraph("Disclaimer", h2));
-                doc.add(new Paragraph(
-                    "Reference No: " + resolvedReferenceNo + "\n" +
-                    "This report is for informational purposes only and is NOT a legal title certificate or legal advice. " +
-                    "It is generated based on the inputs provided and data availability at the time of generation. " +
-                    "Users must independently verify all details with relevant authorities and documents.",
-                    body));
-
-            doc.close();
+            stamper.close();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static byte[] fileId(OrderEntity order, RiskResult result) {
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        StringBuilder sb = new StringBuilder(256).append(RiskInputKey.of(order))
+                .append('|').append(result.getBand()).append('|').append(result.getScore());
+        for (RiskFinding f : result.getFindings()) {
+            sb.append('|').append(f.getCode()).append('=').append(f.getEvidence());
         }
+        return md5.digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
 
-        return out.getAbsolutePath();
+    private static byte[] stampFileId(PdfReader reader, Long reportId, String verificationCode, String referenceNo,
+                                      Instant generatedAt) {
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        PdfArray baseId = reader.getTrailer().getAsArray(PdfName.ID);
+        if (baseId != null && baseId.size() > 0) {
+            md5.update(baseId.getPdfObject(0).getBytes());
+        }
+        String stamped = reportId + "|" + verificationCode + "|" + referenceNo + "|" + generatedAt;
+        return md5.digest(stamped.getBytes(StandardCharsets.UTF_8));
     }
 
     private String safe(String s) { return s == null ? "" : s; }
@@ -134,18 +211,21 @@ public class PdfReportService {
         return value == null || value.isBlank() ? "Not provided" : value;
     }
 
-    private com.lowagie.text.pdf.PdfPCell headerCell(String t) {
-        Font f = new Font(Font.HELVETICA, 10, Font.BOLD);
-        com.lowagie.text.pdf.PdfPCell c = new com.lowagie.text.pdf.PdfPCell(new Phrase(t, f));
-        c.setPadding(6);
-        return c;
+    /**
+     * One left-aligned line at the left margin, written as a plain text object
+     * (ColumnText would set up a full line layout per call)
+     */
+    private static void showLine(PdfContentByte cb, Font font, String text, float y) {
+        cb.beginText();
+        cb.setFontAndSize(font.getBaseFont(), font.getSize());
+        cb.setTextMatrix(MARGIN, y);
+        cb.showText(text);
+        cb.endText();
     }
 
-    private com.lowagie.text.pdf.PdfPCell cell(String t) {
-        Font f = new Font(Font.HELVETICA, 9, Font.NORMAL);
-        com.lowagie.text.pdf.PdfPCell c = new com.lowagie.text.pdf.PdfPCell(new Phrase(t, f));
-        c.setPadding(6);
-        return c;
+    private static void addRow(PdfPTable table, PdfPCell[] cells) {
+        for (PdfPCell c : cells) {
+            table.addCell(c);
+        }
     }
 }
-
@@ -0,0 +1,93 @@
+package com.landriskai.pdf;
+
+import com.lowagie.text.Font;
+import com.lowagie.text.ListItem;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfPCell;
+
+import java.io.IOException;
+
+/**
+ * The order-independent parts of a report, built once per {@link PdfReportService}: fonts bound
+ * to shared base fonts, the title, section headings, buyer checklist, disclaimer and the
+ * findings table's header and empty rows.
+ * Elements are never modified after construction, and rendering only reads them (table cells are
+ * copied into each table), so every document, on any thread, adds the same instances. Only the
+ * summary, parcel snapshot and findings rows are laid out per report.
+ */
+final class ReportTemplate {
+
+    static final float[] FINDING_COLUMNS = {2, 3, 2, 2};
+    private static final float CELL_PADDING = 6;
+
+    // Base fonts carry the weight: a bold style on a regular base font would be drawn as fake bold
+    final Font title;
+    final Font heading;
+    final Font body;
+    final Font cell;
+    final Font footer;
+    private final Font cellHeader;
+
+    final Paragraph titleParagraph;
+    final Paragraph stampBand; // blank band under the title where the per-order stamp goes
+    final Paragraph summaryHeading;
+    final Paragraph parcelHeading;
+    final Paragraph findingsHeading;
+    final Paragraph checklistHeading;
+    final Paragraph disclaimerHeading;
+    final com.lowagie.text.List checklist;
+    final Paragraph disclaimer;
+    final PdfPCell[] findingHeaderRow;
+    final PdfPCell[] noFindingsRow;
+
+    ReportTemplate(float stampBandHeight) throws IOException {
+        BaseFont regular = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+        BaseFont bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+        title = new Font(bold, 16);
+        heading = new Font(bold, 12);
+        body = new Font(regular, 10);
+        cellHeader = new Font(bold, 10);
+        cell = new Font(regular, 9);
+        footer = new Font(regular, 8);
+
+        titleParagraph = new Paragraph("LandRiskAI - Bihar Land Risk Report (MVP Demo)", title);
+        stampBand = new Paragraph(" ", body);
+        stampBand.setSpacingAfter(stampBandHeight);
+        summaryHeading = new Paragraph("Summary", heading);
+        parcelHeading = new Paragraph("Parcel Snapshot", heading);
+        findingsHeading = new Paragraph("Findings & Evidence", heading);
+        checklistHeading = new Paragraph("Recommended Next Steps (Buyer Checklist)", heading);
+        disclaimerHeading = new Paragraph("Disclaimer", heading);
+
+        // List.add sets each item's indentation: done here, once
+        checklist = new com.lowagie.text.List(false, 12);
+        checklist.add(new ListItem("Verify the exact Khata/Khesra and area in official records for this village/circle.", body));
+        checklist.add(new ListItem("Ask seller for chain documents (sale deed/partition/mutation receipts) and validate continuity.", body));
+        checklist.add(new ListItem("Check for any encumbrance or dispute indicators via local verification (registry/court search).", body));
+        checklist.add(new ListItem("If risk band is AMBER/RED, consider professional verification before paying advance.", body));
+
+        disclaimer = new Paragraph(
+                "This report is for informational purposes only and is NOT a legal title certificate or legal advice. " +
+                "It is generated based on the inputs provided and data availability at the time of generation. " +
+                "Users must independently verify all details with relevant authorities and documents.",
+                body);
+
+        findingHeaderRow = new PdfPCell[]{
+                cell("Finding", cellHeader), cell("Message / Evidence", cellHeader),
+                cell("Source", cellHeader), cell("Confidence", cellHeader)};
+        noFindingsRow = new PdfPCell[]{
+                cell("No findings", cell), cell("No issues detected by MVP rules.", cell),
+                cell("N/A", cell), cell("N/A", cell)};
+    }
+
+    /**
+     * Table cell in the report's cell style; PdfPTable.addCell copies it
+     */
+    static PdfPCell cell(String text, Font font) {
+        PdfPCell c = new PdfPCell(new Phrase(text, font));
+        c.setPadding(CELL_PADDING);
+        return c;
+    }
+}
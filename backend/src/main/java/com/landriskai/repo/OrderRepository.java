@@ -1,7 +1,16 @@
 package com.landriskai.repo;
 
+import com.landriskai.domain.OrderStatus;
 import com.landriskai.entity.OrderEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.Instant;
+import java.util.List;
+
 public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
+
+    /**
+     * Orders that have sat in a status since before the cutoff, oldest first (recovery sweeps)
+     */
+    List<OrderEntity> findTop50ByStatusAndUpdateTimeBeforeOrderByUpdateTimeAsc(OrderStatus status, Instant cutoff);
 }
@@ -0,0 +1,40 @@
+package com.landriskai.repo;
+
+import com.landriskai.entity.ReportBlobEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ReportBlobRepository extends JpaRepository<ReportBlobEntity, String> {
+
+    /**
+     * Add delta references (never below zero). Returns 0 when the blob has no row.
+     */
+    @Modifying
+    @Query("UPDATE ReportBlobEntity b SET b.refCount = CASE WHEN b.refCount + ?2 < 0 THEN 0 ELSE b.refCount + ?2 END, " +
+           "b.updatedAt = ?3 WHERE b.hash = ?1")
+    int adjustRefs(String hash, int delta, Instant now);
+
+    /**
+     * Unreferenced blobs idle since before the cutoff, longest idle first. Returns [hash, sizeBytes].
+     */
+    @Query("SELECT b.hash, b.sizeBytes FROM ReportBlobEntity b WHERE b.refCount <= 0 AND b.updatedAt < ?1 ORDER BY b.updatedAt")
+    List<Object[]> findUnreferencedBefore(Instant cutoff, Pageable page);
+
+    /**
+     * Re-checks both conditions so a blob written or referenced since it was selected survives
+     */
+    @Modifying
+    @Query("DELETE FROM ReportBlobEntity b WHERE b.hash = ?1 AND b.refCount <= 0 AND b.updatedAt < ?2")
+    int deleteIfUnreferenced(String hash, Instant cutoff);
+
+    /**
+     * One row: [blobs, bytes, references]
+     */
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.sizeBytes), 0), COALESCE(SUM(b.refCount), 0) FROM ReportBlobEntity b")
+    List<Object[]> totals();
+}
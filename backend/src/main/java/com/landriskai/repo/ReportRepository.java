@@ -1,13 +1,80 @@
 package com.landriskai.repo;
 
 import com.landriskai.entity.ReportEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface ReportRepository extends JpaRepository<ReportEntity, Long> {
     Optional<ReportEntity> findByIdAndVerificationCode(Long id, String verificationCode);
-    Optional<ReportEntity> findByOrder_Id(Long orderId);
+    /**
+     * Current report for the order: regenerated reports supersede their parent
+     */
+    Optional<ReportEntity> findFirstByOrder_IdOrderByIdDesc(Long orderId);
     Optional<ReportEntity> findByReferenceNo(String referenceNo);
     boolean existsByReferenceNo(String referenceNo);
+
+    /**
+     * Reports whose PDF file is past retention, oldest first via idx_report_pdf_expires.
+     * Returns [id, pdfPath].
+     */
+    @Query("SELECT r.id, r.pdfPath FROM ReportEntity r WHERE r.pdfExpiresAt < ?1 AND r.pdfPath <> 'PENDING' ORDER BY r.pdfExpiresAt")
+    List<Object[]> findPdfsExpiredBefore(Instant cutoff, Pageable page);
+
+    /**
+     * Detach the file from the report if it still holds exactly {@code pdfPath} (not restamped
+     * since it was selected); a later download re-renders it.
+     * @return 1 when this call detached that key, so the caller owns its reference
+     */
+    @Modifying
+    @Query("UPDATE ReportEntity r SET r.pdfPath = 'PENDING', r.updateTime = ?3 WHERE r.id = ?1 AND r.pdfPath = ?2")
+    int releasePdf(Long id, String pdfPath, Instant now);
+
+    /**
+     * Reports whose pdfPath is still a file path from before the ReportStore, in id order.
+     * Returns [id, pdfPath].
+     */
+    @Query("SELECT r.id, r.pdfPath FROM ReportEntity r WHERE r.id > ?1 AND r.pdfPath <> 'PENDING' " +
+           "AND LENGTH(r.pdfPath) <> 64 ORDER BY r.id")
+    List<Object[]> findLegacyPdfPathsAfter(long afterId, Pageable page);
+
+    /**
+     * Attach a PDF written after the report was saved, without loading the entity
+     */
+    @Modifying
+    @Query("UPDATE ReportEntity r SET r.pdfPath = ?2, r.updateTime = ?3 WHERE r.id = ?1")
+    int attachPdf(Long id, String pdfPath, Instant now);
+
+    /**
+     * Attach a PDF to a report that is still PENDING, kept until {@code expiresAt}; 0 when another
+     * write got there first
+     */
+    @Modifying
+    @Query("UPDATE ReportEntity r SET r.pdfPath = ?2, r.updateTime = ?3, r.pdfExpiresAt = ?4 WHERE r.id = ?1 AND r.pdfPath = 'PENDING'")
+    int attachPendingPdf(Long id, String pdfPath, Instant now, Instant expiresAt);
+
+    /**
+     * Current reports (latest per order) not yet scored by the given rule set, in id order after a checkpoint
+     */
+    @Query("SELECT r FROM ReportEntity r WHERE r.id > ?1 " +
+           "AND (r.ruleSetVersion IS NULL OR r.ruleSetVersion <> ?2) AND r.referenceNo <> 'PENDING' " +
+           "AND r.id = (SELECT MAX(r2.id) FROM ReportEntity r2 WHERE r2.order = r.order) ORDER BY r.id")
+    List<ReportEntity> findStaleAfter(long afterId, String ruleSetVersion, Pageable page);
+
+    @Query("SELECT COUNT(r) FROM ReportEntity r WHERE r.id > ?1 " +
+           "AND (r.ruleSetVersion IS NULL OR r.ruleSetVersion <> ?2) AND r.referenceNo <> 'PENDING' " +
+           "AND r.id = (SELECT MAX(r2.id) FROM ReportEntity r2 WHERE r2.order = r.order)")
+    long countStaleAfter(long afterId, String ruleSetVersion);
+
+    /**
+     * Record that the reports' results are unchanged under the given rule set
+     */
+    @Modifying
+    @Query("UPDATE ReportEntity r SET r.ruleSetVersion = ?2, r.ruleVersions = ?3, r.findingCodes = ?4, r.updateTime = ?5 WHERE r.id IN ?1")
+    int restampRuleSet(List<Long> ids, String ruleSetVersion, String ruleVersions, String findingCodes, Instant now);
 }
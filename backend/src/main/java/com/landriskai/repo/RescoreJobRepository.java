@@ -0,0 +1,11 @@
+package com.landriskai.repo;
+
+import com.landriskai.entity.RescoreJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RescoreJobRepository extends JpaRepository<RescoreJobEntity, Long> {
+    List<RescoreJobEntity> findByStatus(RescoreJobEntity.Status status);
+    List<RescoreJobEntity> findTop20ByOrderByIdDesc();
+}
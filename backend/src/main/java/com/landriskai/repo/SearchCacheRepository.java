@@ -1,50 +1,101 @@
 package com.landriskai.repo;
 
+import com.landriskai.api.dto.TopParcelResponse;
 import com.landriskai.entity.SearchCacheEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SearchCacheRepository extends JpaRepository<SearchCacheEntity, Long> {
     
     /**
-     * Find valid cache by land identifiers AND verify same user (email + whatsapp)
-     * Only returns cache if user is the same AND cache hasn't expired
-     * Different users pay full price, same user gets 80% discount
+     * Valid cache row for a parcel, looked up through the unique searchHash index.
+     * searchHash = ParcelKey.searchHash(): same parcel regardless of case/spacing/separators.
      */
-    @Query("SELECT c FROM SearchCacheEntity c WHERE c.khata = ?1 AND c.khesra = ?2 AND c.district = ?3 " +
-           "AND c.lastUserEmail = ?4 AND c.lastUserWhatsapp = ?5 AND c.expiresAt > current_timestamp")
-    SearchCacheEntity findValidByLandAndUser(String khata, String khesra, String district, String userEmail, String userWhatsapp);
-    
+    @Query("SELECT c FROM SearchCacheEntity c WHERE c.searchHash = ?1 AND c.expiresAt > current_timestamp")
+    SearchCacheEntity findValidBySearchHash(String searchHash);
+
     /**
-     * Find cache by land identifiers (regardless of user) - for analytics
+     * Row for a parcel whether or not it has expired (the write path revives expired rows
+     * instead of inserting a duplicate searchHash)
      */
-    @Query("SELECT c FROM SearchCacheEntity c WHERE c.khata = ?1 AND c.khesra = ?2 AND c.district = ?3 AND c.expiresAt > current_timestamp")
-    SearchCacheEntity findValidByLandIdentifiers(String khata, String khesra, String district);
-    
+    Optional<SearchCacheEntity> findBySearchHash(String searchHash);
+
     /**
-     * Find cache by land identifiers with circle
+     * Rows still carrying a pre-SHA-256 searchHash, in id order (backfill)
      */
-    @Query("SELECT c FROM SearchCacheEntity c WHERE c.khata = ?1 AND c.khesra = ?2 AND c.district = ?3 AND c.circle = ?4 AND c.expiresAt > current_timestamp")
-    SearchCacheEntity findValidByLandIdentifiersWithCircle(String khata, String khesra, String district, String circle);
-    
+    @Query("SELECT c FROM SearchCacheEntity c WHERE c.id > ?1 AND LENGTH(c.searchHash) <> 64 ORDER BY c.id")
+    List<SearchCacheEntity> findLegacySearchHashesAfter(Long afterId, Pageable page);
+
     /**
-     * Find all expired caches for cleanup
+     * Rows whose pdfPath is still a file path from before the ReportStore, in id order.
+     * Returns [id, pdfPath].
      */
-    @Query("SELECT c FROM SearchCacheEntity c WHERE c.expiresAt < current_timestamp")
-    List<SearchCacheEntity> findExpiredCaches();
-    
+    @Query("SELECT c.id, c.pdfPath FROM SearchCacheEntity c WHERE c.id > ?1 AND c.pdfPath IS NOT NULL " +
+           "AND LENGTH(c.pdfPath) <> 64 ORDER BY c.id")
+    List<Object[]> findLegacyPdfPathsAfter(long afterId, Pageable page);
+
+    @Modifying
+    @Query("UPDATE SearchCacheEntity c SET c.pdfPath = ?2 WHERE c.id = ?1")
+    int setPdfPath(Long id, String pdfPath);
+
     /**
-     * Get top reused searches for analytics
+     * Land identifiers of valid rows after the given id, for rebuilding in-memory key filters
+     * in id-ordered pages. Returns [id, khata, khesra, district].
      */
-    @Query(value = "SELECT c FROM SearchCacheEntity c WHERE c.expiresAt > current_timestamp ORDER BY c.reusageCount DESC", nativeQuery = false)
-    List<SearchCacheEntity> findTopReusesByExpiry();
+    @Query("SELECT c.id, c.khata, c.khesra, c.district FROM SearchCacheEntity c " +
+           "WHERE c.id > ?1 AND c.expiresAt > current_timestamp ORDER BY c.id")
+    List<Object[]> findValidLandIdentifiersAfter(Long afterId, Pageable page);
+
+    @Query("SELECT COUNT(c) FROM SearchCacheEntity c WHERE c.expiresAt > current_timestamp")
+    long countValid();
+
+    /**
+     * Oldest expired rows first, walking idx_expires_at. Returns [id, pdfPath].
+     */
+    @Query("SELECT c.id, c.pdfPath FROM SearchCacheEntity c WHERE c.expiresAt < ?1 ORDER BY c.expiresAt")
+    List<Object[]> findExpiredBefore(Instant cutoff, Pageable page);
+
+    /**
+     * Re-checks expiry so a row revived since it was selected survives
+     */
+    @Modifying
+    @Query("DELETE FROM SearchCacheEntity c WHERE c.id IN ?1 AND c.expiresAt < ?2")
+    int deleteExpired(List<Long> ids, Instant cutoff);
+
+    /**
+     * Which of the ids still exist; after {@link #deleteExpired} in the same transaction, the rows it kept
+     */
+    @Query("SELECT c.id FROM SearchCacheEntity c WHERE c.id IN ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
     
     /**
-     * Calculate total revenue from cache reusages
+     * Keyset page of valid, reused rows in (reusageCount, id) descending order via idx_reusage_count.
+     * Start with (Integer.MAX_VALUE, Long.MAX_VALUE) and continue from the last row returned.
+     * Projected: the analysis/findings TEXT columns are never loaded.
+     */
+    @Query("SELECT new com.landriskai.api.dto.TopParcelResponse(c.id, c.district, c.circle, c.village, c.khata, c.khesra, " +
+           "c.riskBand, c.riskScore, c.reusageCount, c.lastReuseAt) FROM SearchCacheEntity c " +
+           "WHERE c.expiresAt > current_timestamp AND c.reusageCount > 0 " +
+           "AND (c.reusageCount < ?1 OR (c.reusageCount = ?1 AND c.id < ?2)) " +
+           "ORDER BY c.reusageCount DESC, c.id DESC")
+    List<TopParcelResponse> findTopReusedAfter(int lastCount, long lastId, Pageable page);
+
+    @Query("SELECT new com.landriskai.api.dto.TopParcelResponse(c.id, c.district, c.circle, c.village, c.khata, c.khesra, " +
+           "c.riskBand, c.riskScore, c.reusageCount, c.lastReuseAt) FROM SearchCacheEntity c " +
+           "WHERE c.id IN ?1 AND c.expiresAt > current_timestamp")
+    List<TopParcelResponse> findValidReuseRows(Collection<Long> ids);
+
+    /**
+     * Calculate total revenue from cache reusages (flushed counts only, see CacheReuseCounters)
      */
     @Query("SELECT COALESCE(SUM(c.totalRevenueFromReusagePaise), 0) FROM SearchCacheEntity c")
     Long calculateTotalCacheRevenue();
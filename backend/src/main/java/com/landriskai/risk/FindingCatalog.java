@@ -0,0 +1,137 @@
+package com.landriskai.risk;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Definitions of every finding the built-in rules can report, keyed by code
+ */
+public final class FindingCatalog {
+
+    public static final FindingDefinition OWN_MISSING = new FindingDefinition(
+            "OWN_MISSING",
+            "Owner name not provided",
+            "Owner name was not provided, so identity matching confidence is reduced.",
+            FindingSeverity.WARNING,
+            "User input",
+            "LOW");
+
+    public static final FindingDefinition AREA_MISSING = new FindingDefinition(
+            "AREA_MISSING",
+            "Plot area not provided",
+            "Area mismatch checks are limited because plot area is not provided.",
+            FindingSeverity.INFO,
+            "User input",
+            "LOW");
+
+    public static final FindingDefinition ID_FORMAT = new FindingDefinition(
+            "ID_FORMAT",
+            "Khata/Khesra format looks unusual",
+            "Khata/Khesra includes uncommon characters. Verify the identifiers are correct.",
+            FindingSeverity.WARNING,
+            "Input validation heuristics",
+            "MEDIUM");
+
+    public static final FindingDefinition LOCATION_PRIOR = new FindingDefinition(
+            "LOCATION_PRIOR",
+            "Location risk prior",
+            "Historical risk for this district, circle or village adjusts the score.",
+            FindingSeverity.INFO,
+            "Location risk priors",
+            "MEDIUM");
+
+    public static final FindingDefinition LR_NOT_FOUND = new FindingDefinition(
+            "LR_NOT_FOUND",
+            "Parcel not found in land records",
+            "No land-record entry matches this district, khata and khesra. Verify the identifiers with the circle office.",
+            FindingSeverity.WARNING,
+            "Land records extract",
+            "MEDIUM");
+
+    public static final FindingDefinition LR_OWNER_MISMATCH = new FindingDefinition(
+            "LR_OWNER_MISMATCH",
+            "Owner differs from land records",
+            "The owner name provided does not match any recorded owner of this parcel.",
+            FindingSeverity.WARNING,
+            "Land records extract",
+            "HIGH");
+
+    public static final FindingDefinition LR_AREA_MISMATCH = new FindingDefinition(
+            "LR_AREA_MISMATCH",
+            "Plot area differs from land records",
+            "The plot area provided differs from the recorded area of this parcel.",
+            FindingSeverity.WARNING,
+            "Land records extract",
+            "HIGH");
+
+    public static final FindingDefinition LR_LOCATION_MISMATCH = new FindingDefinition(
+            "LR_LOCATION_MISMATCH",
+            "Circle/village differs from land records",
+            "The parcel is recorded under a different circle or village than the one provided.",
+            FindingSeverity.INFO,
+            "Land records extract",
+            "MEDIUM");
+
+    public static final FindingDefinition LISTED_ENCUMBRANCE = new FindingDefinition(
+            "LISTED_ENCUMBRANCE",
+            "Parcel on published encumbrance list",
+            "This parcel appears on the published list of encumbered land (mortgage, lien or charge). Obtain an encumbrance certificate before paying.",
+            FindingSeverity.WARNING,
+            "Published encumbrance/dispute list",
+            "HIGH");
+
+    public static final FindingDefinition LISTED_DISPUTE = new FindingDefinition(
+            "LISTED_DISPUTE",
+            "Parcel on published dispute list",
+            "This parcel appears on the published list of land under dispute or litigation. Do not transact before consulting a lawyer.",
+            FindingSeverity.CRITICAL,
+            "Published encumbrance/dispute list",
+            "HIGH");
+
+    public static final FindingDefinition SOURCE_UNVERIFIED = new FindingDefinition(
+            "SOURCE_UNVERIFIED",
+            "Record check incomplete",
+            "A record source did not answer in time, so this check could not be completed. Regenerate the report or verify with the office concerned.",
+            FindingSeverity.INFO,
+            "External record sources",
+            "LOW");
+
+    public static final FindingDefinition ENCUMBRANCE_FOUND = new FindingDefinition(
+            "ENCUMBRANCE_FOUND",
+            "Encumbrance recorded",
+            "A mortgage, lien or charge is recorded against this parcel. Obtain an encumbrance certificate before paying.",
+            FindingSeverity.WARNING,
+            "Encumbrance registry",
+            "MEDIUM");
+
+    public static final FindingDefinition COURT_CASE_PENDING = new FindingDefinition(
+            "COURT_CASE_PENDING",
+            "Pending court case",
+            "A pending civil case names this parcel. Consult a lawyer before any transaction.",
+            FindingSeverity.CRITICAL,
+            "Court case registry",
+            "MEDIUM");
+
+    public static final FindingDefinition MUTATION_PENDING = new FindingDefinition(
+            "MUTATION_PENDING",
+            "Mutation pending",
+            "A mutation (dakhil-kharij) application is pending for this parcel; ownership may be about to change.",
+            FindingSeverity.WARNING,
+            "Mutation register",
+            "MEDIUM");
+
+    private static final Map<String, FindingDefinition> BY_CODE = Stream.of(OWN_MISSING, AREA_MISSING, ID_FORMAT, LOCATION_PRIOR,
+                    LR_NOT_FOUND, LR_OWNER_MISMATCH, LR_AREA_MISMATCH, LR_LOCATION_MISMATCH,
+                    LISTED_ENCUMBRANCE, LISTED_DISPUTE,
+                    SOURCE_UNVERIFIED, ENCUMBRANCE_FOUND, COURT_CASE_PENDING, MUTATION_PENDING)
+            .collect(Collectors.toUnmodifiableMap(FindingDefinition::code, Function.identity()));
+
+    private FindingCatalog() {
+    }
+
+    public static FindingDefinition byCode(String code) {
+        return BY_CODE.get(code);
+    }
+}
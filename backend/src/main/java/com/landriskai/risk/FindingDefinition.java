@@ -0,0 +1,19 @@
+package com.landriskai.risk;
+
+/**
+ * The constant part of a finding, shared by every assessment that reports it.
+ * See {@link FindingCatalog} for the definitions the built-in rules emit.
+ */
+public record FindingDefinition(
+        String code,
+        String title,
+        String message,
+        FindingSeverity severity,
+        String source,
+        String confidence // HIGH/MEDIUM/LOW for MVP
+) {
+
+    public RiskFinding withEvidence(String evidence) {
+        return new RiskFinding(this, evidence);
+    }
+}
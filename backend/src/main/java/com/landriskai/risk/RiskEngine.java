@@ -1,94 +1,176 @@
 package com.landriskai.risk;
 
-import com.landriskai.domain.RiskBand;
+import com.landriskai.config.LandRiskAiProperties;
 import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.rules.RiskRuleRegistry;
+import com.landriskai.risk.rules.RuleSet;
+import com.landriskai.util.TtlLruCache;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
 
+/**
+ * Scores an order with the active rule set (see com.landriskai.risk.rules).
+ * Base risk is 10; each rule adds its points and finding; bands: >= 60 RED, >= 30 AMBER, else GREEN.
+ *
+ * Bulk rescoring goes through {@link #assessAll}: one rule-set snapshot for the whole batch,
+ * split across a dedicated fork-join pool (risk.batchParallelism), results in input order.
+ *
+ * Single assessments are memoized by their risk inputs and the rule-set version; the memo is
+ * dropped as soon as a different rule set becomes active. Memoized results are shared:
+ * callers must not modify them. Batches bypass the memo so a rescore can't flush it.
+ * Partial results (a data source missed the deadline) are never memoized.
+ */
 @Service
 public class RiskEngine {
 
+    private final RiskRuleRegistry ruleRegistry;
+    private final ForkJoinPool batchPool;
+    private final int grainSize;
+    private final TtlLruCache<MemoKey, RiskResult> memo;
+    private volatile String memoVersion;
+
+    public RiskEngine(RiskRuleRegistry ruleRegistry, LandRiskAiProperties props) {
+        this.ruleRegistry = ruleRegistry;
+        LandRiskAiProperties.Risk cfg = props.getRisk();
+        int parallelism = cfg.getBatchParallelism() > 0 ? cfg.getBatchParallelism() : Runtime.getRuntime().availableProcessors();
+        this.batchPool = new ForkJoinPool(parallelism);
+        this.grainSize = Math.max(1, cfg.getBatchGrainSize());
+        this.memo = cfg.getMemoMaxEntries() > 0 ? new TtlLruCache<>(cfg.getMemoMaxEntries()) : null;
+    }
+
+    public RiskResult assess(OrderEntity order) {
+        return assess(ruleRegistry.current(), order);
+    }
+
     /**
-     * MVP rules:
-     * - If ownerName is missing -> warning (+15)
-     * - If plotArea missing -> info (+5)
-     * - If khata/khesra not numeric-ish -> warning (+10)
-     * - Example "hotspot" demo: if district contains "patna" -> info (+5)
+     * Assess with a given rule set, e.g. one whose version is recorded with the result
      */
-    public RiskResult assess(OrderEntity order) {
-        int score = 10; // base risk
-        List<RiskFinding> findings = new ArrayList<>();
-
-        if (order.getOwnerName() == null || order.getOwnerName().isBlank()) {
-            score += 15;
-            findings.add(RiskFinding.builder()
-                    .code("OWN_MISSING")
-                    .title("Owner name not provided")
-                    .message("Owner name was not provided, so identity matching confidence is reduced.")
-                    .severity(FindingSeverity.WARNING)
-                    .evidence("Input missing")
-                    .source("User input")
-                    .confidence("LOW")
-                    .build());
+    public RiskResult assess(RuleSet ruleSet, OrderEntity order) {
+        if (memo == null) {
+            return ruleSet.evaluate(order);
+        }
+        String activeVersion = ruleRegistry.current().version();
+        if (!activeVersion.equals(memoVersion)) {
+            resetMemo(activeVersion);
+        }
+
+        MemoKey key = MemoKey.of(ruleSet.version(), order);
+        RiskResult result = memo.get(key);
+        if (result == null) {
+            result = ruleSet.evaluate(order);
+            if (!result.isPartial()) {
+                memo.put(key, result, Long.MAX_VALUE);
+            }
         }
+        return result;
+    }
+
+    public Map<String, Object> memoStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", memo != null);
+        m.put("ruleSetVersion", ruleRegistry.current().version());
+        if (memo != null) {
+            m.putAll(memo.stats());
+        }
+        return m;
+    }
 
-        if (order.getPlotArea() == null || order.getPlotArea().isBlank()) {
-            score += 5;
-            findings.add(RiskFinding.builder()
-                    .code("AREA_MISSING")
-                    .title("Plot area not provided")
-                    .message("Area mismatch checks are limited because plot area is not provided.")
-                    .severity(FindingSeverity.INFO)
-                    .evidence("Input missing")
-                    .source("User input")
-                    .confidence("LOW")
-                    .build());
+    private synchronized void resetMemo(String version) {
+        if (!version.equals(memoVersion)) {
+            memo.clear();
+            memoVersion = version;
         }
+    }
+
+    public RuleSet ruleSet() {
+        return ruleRegistry.current();
+    }
+
+    /**
+     * Assess a batch with the current rule set; result i belongs to order i
+     */
+    public List<RiskResult> assessAll(List<OrderEntity> orders) {
+        return assessAll(ruleRegistry.current(), orders);
+    }
+
+    public List<RiskResult> assessAll(Stream<OrderEntity> orders) {
+        return assessAll(orders.toList());
+    }
 
-        String khata = order.getKhata();
-        String khesra = order.getKhesra();
-        boolean khataProvided = khata != null && !khata.isBlank();
-        boolean khesraProvided = khesra != null && !khesra.isBlank();
-        boolean khataInvalid = khataProvided && !khata.matches("^[0-9A-Za-z\\-/]+$");
-        boolean khesraInvalid = khesraProvided && !khesra.matches("^[0-9A-Za-z\\-/]+$");
-
-        if (khataInvalid || khesraInvalid) {
-            score += 10;
-            findings.add(RiskFinding.builder()
-                    .code("ID_FORMAT")
-                    .title("Khata/Khesra format looks unusual")
-                    .message("Khata/Khesra includes uncommon characters. Verify the identifiers are correct.")
-                    .severity(FindingSeverity.WARNING)
-                .evidence("khata=" + (khataProvided ? khata : "N/A") + ", khesra=" + (khesraProvided ? khesra : "N/A"))
-                    .source("Input validation heuristics")
-                    .confidence("MEDIUM")
-                    .build());
+    /**
+     * Assess a batch with a fixed rule set, e.g. one whose version is recorded with the results
+     */
+    public List<RiskResult> assessAll(RuleSet ruleSet, List<OrderEntity> orders) {
+        OrderEntity[] input = orders.toArray(new OrderEntity[0]);
+        RiskResult[] results = new RiskResult[input.length];
+        if (input.length <= grainSize) {
+            for (int i = 0; i < input.length; i++) {
+                results[i] = ruleSet.evaluate(input[i]);
+            }
+        } else {
+            batchPool.invoke(new AssessRange(ruleSet, input, results, 0, input.length, grainSize));
         }
+        return Arrays.asList(results);
+    }
+
+    public int batchParallelism() {
+        return batchPool.getParallelism();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchPool.shutdown();
+    }
 
-        if (order.getDistrict() != null && order.getDistrict().toLowerCase().contains("patna")) {
-            score += 5;
-            findings.add(RiskFinding.builder()
-                    .code("DEMO_CONTEXT")
-                    .title("Higher activity region (demo)")
-                    .message("This is a demo context rule. Replace with real location risk datasets later.")
-                    .severity(FindingSeverity.INFO)
-                    .evidence("district=" + order.getDistrict())
-                    .source("Demo rule")
-                    .confidence("LOW")
-                    .build());
+    /**
+     * The exact fields rules read, not the normalized RiskInputKey: ID_FORMAT and the finding
+     * evidence depend on how identifiers were typed. Contact details are not risk inputs.
+     */
+    private record MemoKey(String ruleSetVersion, String district, String circle, String village,
+                           String khata, String khesra, String ownerName, String plotArea) {
+        static MemoKey of(String ruleSetVersion, OrderEntity order) {
+            return new MemoKey(ruleSetVersion, order.getDistrict(), order.getCircle(), order.getVillage(),
+                    order.getKhata(), order.getKhesra(), order.getOwnerName(), order.getPlotArea());
         }
+    }
+
+    // Each leaf writes only its own slice of the results array: no merging, order preserved
+    private static final class AssessRange extends RecursiveAction {
+        private final RuleSet ruleSet;
+        private final OrderEntity[] input;
+        private final RiskResult[] results;
+        private final int from;
+        private final int to;
+        private final int grainSize;
 
-        RiskBand band;
-        if (score >= 60) band = RiskBand.RED;
-        else if (score >= 30) band = RiskBand.AMBER;
-        else band = RiskBand.GREEN;
+        AssessRange(RuleSet ruleSet, OrderEntity[] input, RiskResult[] results, int from, int to, int grainSize) {
+            this.ruleSet = ruleSet;
+            this.input = input;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.grainSize = grainSize;
+        }
 
-        return RiskResult.builder()
-                .score(Math.min(score, 100))
-                .band(band)
-                .findings(findings)
-                .build();
+        @Override
+        protected void compute() {
+            if (to - from <= grainSize) {
+                for (int i = from; i < to; i++) {
+                    results[i] = ruleSet.evaluate(input[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AssessRange(ruleSet, input, results, from, mid, grainSize),
+                      new AssessRange(ruleSet, input, results, mid, to, grainSize));
+        }
     }
 }
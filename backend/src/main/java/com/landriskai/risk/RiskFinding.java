@@ -1,16 +1,54 @@
 package com.landriskai.risk;
 
-import lombok.Builder;
-import lombok.Data;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
-@Data
-@Builder
-public class RiskFinding {
-    private String code;
-    private String title;
-    private String message;
-    private FindingSeverity severity;
-    private String evidence;
-    private String source;
-    private String confidence; // HIGH/MEDIUM/LOW for MVP
+/**
+ * One reported finding: a shared {@link FindingDefinition} plus this assessment's evidence.
+ * Serialized flat, exactly like the original code/title/.../confidence object.
+ */
+@EqualsAndHashCode
+@ToString
+@JsonPropertyOrder({"code", "title", "message", "severity", "evidence", "source", "confidence"})
+public final class RiskFinding {
+
+    private final FindingDefinition definition;
+    private final String evidence;
+
+    public RiskFinding(FindingDefinition definition, String evidence) {
+        this.definition = definition;
+        this.evidence = evidence;
+    }
+
+    /**
+     * Stored findings re-attach to the catalog definition when their text still matches it
+     */
+    @JsonCreator
+    public static RiskFinding fromJson(
+            @JsonProperty("code") String code,
+            @JsonProperty("title") String title,
+            @JsonProperty("message") String message,
+            @JsonProperty("severity") FindingSeverity severity,
+            @JsonProperty("evidence") String evidence,
+            @JsonProperty("source") String source,
+            @JsonProperty("confidence") String confidence) {
+        FindingDefinition parsed = new FindingDefinition(code, title, message, severity, source, confidence);
+        FindingDefinition known = FindingCatalog.byCode(code);
+        return new RiskFinding(parsed.equals(known) ? known : parsed, evidence);
+    }
+
+    @JsonIgnore
+    public FindingDefinition getDefinition() { return definition; }
+
+    public String getCode() { return definition.code(); }
+    public String getTitle() { return definition.title(); }
+    public String getMessage() { return definition.message(); }
+    public FindingSeverity getSeverity() { return definition.severity(); }
+    public String getEvidence() { return evidence; }
+    public String getSource() { return definition.source(); }
+    public String getConfidence() { return definition.confidence(); }
 }
@@ -0,0 +1,28 @@
+package com.landriskai.risk;
+
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.entity.SearchCacheEntity;
+
+/**
+ * Everything RiskEngine reads from an order, exactly as typed. Two orders with equal keys get the
+ * same assessment; contact details (WhatsApp, email) are deliberately not part of it.
+ * Not normalized like ParcelKey: ID_FORMAT and the finding evidence depend on how identifiers were
+ * written ("12.3" and "12/3" are one parcel but not one assessment), the same reason RiskEngine's
+ * memo uses the raw fields.
+ */
+public record RiskInputKey(String district, String circle, String village, String khata, String khesra,
+                           String ownerName, String plotArea) {
+
+    public static RiskInputKey of(OrderEntity order) {
+        return new RiskInputKey(order.getDistrict(), order.getCircle(), order.getVillage(),
+                order.getKhata(), order.getKhesra(), order.getOwnerName(), order.getPlotArea());
+    }
+
+    /**
+     * Inputs a search-cache row's risk analysis was computed from
+     */
+    public static RiskInputKey of(SearchCacheEntity cache) {
+        return new RiskInputKey(cache.getDistrict(), cache.getCircle(), cache.getVillage(),
+                cache.getKhata(), cache.getKhesra(), cache.getOwnerName(), cache.getPlotArea());
+    }
+}
@@ -2,14 +2,17 @@ package com.landriskai.risk;
 
 import com.landriskai.domain.RiskBand;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.List;
 
-@Data
+@Value
 @Builder
+@Jacksonized
 public class RiskResult {
-    private int score; // 0-100 (higher = riskier)
-    private RiskBand band;
-    private List<RiskFinding> findings;
+    int score; // 0-100 (higher = riskier)
+    RiskBand band;
+    List<RiskFinding> findings;
+    boolean partial; // a data source missed the deadline or failed; never cached or memoized
 }
@@ -0,0 +1,258 @@
+package com.landriskai.risk.location;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * District / block (circle) / village names and census codes from the gazetteer the web form
+ * uses (frontend/data/bihar_full_data.json). Every place gets a dense index, so per-place data
+ * lives in plain int arrays; names resolve to those indexes case- and whitespace-insensitively.
+ * Name lookups hash and compare the raw input in place: resolving an order allocates nothing.
+ * A village name used for two different codes in one block is ambiguous and does not resolve.
+ */
+public final class LocationGazetteer {
+
+    public static final int UNKNOWN = -1;
+    private static final int AMBIGUOUS = -2;
+    private static final int NO_PARENT = -1;
+
+    private final NameTable districtByName;
+    private final NameTable blockByName;
+    private final NameTable villageByName;
+    private final Map<Integer, Integer> districtByCode = new HashMap<>();
+    private final Map<Integer, Integer> blockByCode = new HashMap<>();
+    private final Map<Integer, Integer> villageByCode = new HashMap<>();
+    private final int[] districtCodes;
+    private final int[] blockCodes;
+    private final int[] villageCodes;
+
+    private LocationGazetteer(JsonNode root) {
+        int villageRows = 0, blockRows = 0, districtRows = 0;
+        for (JsonNode d : root.path("districts")) {
+            districtRows++;
+            for (JsonNode b : d.path("blocks")) {
+                blockRows++;
+                villageRows += b.path("villages").size();
+            }
+        }
+        this.districtByName = new NameTable(districtRows);
+        this.blockByName = new NameTable(blockRows);
+        this.villageByName = new NameTable(villageRows);
+
+        IntList districts = new IntList(), blocks = new IntList(), villages = new IntList();
+        for (JsonNode d : root.path("districts")) {
+            int district = districts.add(d.path("district_code").asInt());
+            districtByName.putIfAbsent(NO_PARENT, d.path("district_name").asText(), district);
+            for (JsonNode b : d.path("blocks")) {
+                int block = blocks.add(b.path("block_code").asInt());
+                blockByName.putIfAbsent(district, b.path("block_name").asText(), block);
+                for (JsonNode v : b.path("villages")) {
+                    int code = v.path("village_code").asInt();
+                    Integer village = villageByCode.get(code);
+                    if (village == null) {
+                        village = villages.add(code);
+                        villageByCode.put(code, village);
+                    }
+                    villageByName.putOrMarkAmbiguous(block, v.path("village_name").asText(), village);
+                }
+            }
+        }
+        this.districtCodes = districts.toArray();
+        this.blockCodes = blocks.toArray();
+        this.villageCodes = villages.toArray();
+        for (int i = 0; i < districtCodes.length; i++) districtByCode.putIfAbsent(districtCodes[i], i);
+        for (int i = 0; i < blockCodes.length; i++) blockByCode.putIfAbsent(blockCodes[i], i);
+    }
+
+    public static LocationGazetteer load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return new LocationGazetteer(new ObjectMapper().readTree(in));
+        }
+    }
+
+    public int district(String name) {
+        return name == null ? UNKNOWN : districtByName.get(NO_PARENT, name);
+    }
+
+    public int block(int district, String name) {
+        if (district == UNKNOWN || name == null) return UNKNOWN;
+        return blockByName.get(district, name);
+    }
+
+    public int village(int block, String name) {
+        if (block == UNKNOWN || name == null) return UNKNOWN;
+        return villageByName.get(block, name);
+    }
+
+    public int districtIndexOfCode(int code) {
+        return districtByCode.getOrDefault(code, UNKNOWN);
+    }
+
+    public int blockIndexOfCode(int code) {
+        return blockByCode.getOrDefault(code, UNKNOWN);
+    }
+
+    public int villageIndexOfCode(int code) {
+        return villageByCode.getOrDefault(code, UNKNOWN);
+    }
+
+    public int districtCode(int district) {
+        return districtCodes[district];
+    }
+
+    public int blockCode(int block) {
+        return blockCodes[block];
+    }
+
+    public int villageCode(int village) {
+        return villageCodes[village];
+    }
+
+    public int districtCount() {
+        return districtCodes.length;
+    }
+
+    public int blockCount() {
+        return blockCodes.length;
+    }
+
+    public int villageCount() {
+        return villageCodes.length;
+    }
+
+    /**
+     * Open-addressing (parent index, name) -> index table. Names are compared as if trimmed,
+     * whitespace runs collapsed to one space and lower-cased, without building that string.
+     */
+    private static final class NameTable {
+        private final int[] parents;
+        private final String[] names;   // normalized
+        private final int[] values;
+        private final int mask;
+
+        NameTable(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+            this.parents = new int[capacity];
+            this.names = new String[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        void putIfAbsent(int parent, String name, int value) {
+            int slot = slot(parent, name);
+            if (names[slot] == null) {
+                parents[slot] = parent;
+                names[slot] = normalize(name);
+                values[slot] = value;
+            }
+        }
+
+        void putOrMarkAmbiguous(int parent, String name, int value) {
+            int slot = slot(parent, name);
+            if (names[slot] == null) {
+                parents[slot] = parent;
+                names[slot] = normalize(name);
+                values[slot] = value;
+            } else if (values[slot] != value) {
+                values[slot] = AMBIGUOUS;
+            }
+        }
+
+        int get(int parent, String name) {
+            int slot = slot(parent, name);
+            int value = names[slot] == null ? UNKNOWN : values[slot];
+            return value == AMBIGUOUS ? UNKNOWN : value;
+        }
+
+        // Slot holding (parent, name), or the empty slot where it belongs
+        private int slot(int parent, String name) {
+            int h = hash(name) * 31 + parent;
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (names[slot] != null && (parents[slot] != parent || !sameName(names[slot], name))) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static int hash(String raw) {
+            int h = 0;
+            boolean space = false, started = false;
+            for (int i = 0; i < raw.length(); i++) {
+                char c = raw.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    space = started;
+                    continue;
+                }
+                if (space) {
+                    h = h * 31 + ' ';
+                    space = false;
+                }
+                h = h * 31 + Character.toLowerCase(c);
+                started = true;
+            }
+            return h;
+        }
+
+        private static boolean sameName(String normalized, String raw) {
+            int j = 0;
+            boolean space = false, started = false;
+            for (int i = 0; i < raw.length(); i++) {
+                char c = raw.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    space = started;
+                    continue;
+                }
+                if (space) {
+                    if (j >= normalized.length() || normalized.charAt(j++) != ' ') return false;
+                    space = false;
+                }
+                if (j >= normalized.length() || normalized.charAt(j++) != Character.toLowerCase(c)) return false;
+                started = true;
+            }
+            return j == normalized.length();
+        }
+
+        private static String normalize(String raw) {
+            StringBuilder sb = new StringBuilder(raw.length());
+            boolean space = false;
+            for (int i = 0; i < raw.length(); i++) {
+                char c = raw.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    space = sb.length() > 0;
+                    continue;
+                }
+                if (space) {
+                    sb.append(' ');
+                    space = false;
+                }
+                sb.append(Character.toLowerCase(c));
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        int add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            return size++;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.landriskai.risk.location;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.risk.rules.RuleSetChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Location risk priors for the location rule. The gazetteer is read once at startup; the priors
+ * file (location.priorsPath) is re-read whenever its size or modification time changes and
+ * swapped in as a whole, then a {@link RuleSetChangedEvent} makes the new table a new rule-set
+ * version. A missing or unreadable file keeps the last good table (empty at startup).
+ */
+@Slf4j
+@Component
+public class LocationPriorService {
+
+    private final LandRiskAiProperties.Location cfg;
+    private final ApplicationEventPublisher events;
+    private final LocationGazetteer gazetteer;
+    private volatile LocationPriors priors;
+    private volatile String lastSeen = "";
+    private volatile Instant loadedAt;
+    private long reloads;
+
+    public LocationPriorService(LandRiskAiProperties props, ApplicationEventPublisher events) {
+        this.cfg = props.getLocation();
+        this.events = events;
+        LocationGazetteer loaded = null;
+        try {
+            loaded = LocationGazetteer.load(Path.of(cfg.getGazetteerPath()));
+            log.info("[LOCATION] Gazetteer {}: {} districts, {} blocks, {} villages",
+                    cfg.getGazetteerPath(), loaded.districtCount(), loaded.blockCount(), loaded.villageCount());
+        } catch (Exception ex) {
+            log.warn("[LOCATION] Gazetteer {} not loaded, location priors disabled: {}", cfg.getGazetteerPath(), ex.toString());
+        }
+        this.gazetteer = loaded;
+        if (loaded != null) {
+            this.priors = LocationPriors.empty(loaded);
+            reload();
+        }
+    }
+
+    /**
+     * Null when the gazetteer could not be loaded
+     */
+    public LocationGazetteer gazetteer() {
+        return gazetteer;
+    }
+
+    /**
+     * Null when the gazetteer could not be loaded
+     */
+    public LocationPriors priors() {
+        return priors;
+    }
+
+    @Scheduled(
+            initialDelayString = "${landriskai.location.reloadIntervalSeconds:30}",
+            fixedDelayString = "${landriskai.location.reloadIntervalSeconds:30}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void reloadIfChanged() {
+        if (gazetteer != null && reload()) {
+            events.publishEvent(new RuleSetChangedEvent("location priors reloaded"));
+        }
+    }
+
+    /**
+     * @return true when a changed priors file was swapped in
+     */
+    synchronized boolean reload() {
+        Path path = Path.of(cfg.getPriorsPath());
+        try {
+            if (!Files.isRegularFile(path)) {
+                if (!lastSeen.equals("missing")) {
+                    log.info("[LOCATION] No priors file at {}", path);
+                    lastSeen = "missing";
+                }
+                return false;
+            }
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            String seen = attrs.size() + "@" + attrs.lastModifiedTime().toMillis();
+            if (seen.equals(lastSeen)) {
+                return false;
+            }
+            LocationPriors next = LocationPriors.parse(gazetteer, Files.readAllBytes(path));
+            lastSeen = seen;
+            if (next.version().equals(priors.version())) {
+                return false;
+            }
+            priors = next;
+            loadedAt = Instant.now();
+            reloads++;
+            log.info("[LOCATION] Priors {} loaded from {}: {} entries, {} skipped", next.version(), path, next.entries(), next.skipped());
+            return true;
+        } catch (Exception ex) {
+            log.error("[LOCATION] Could not load priors from {}, keeping version {}", path, priors.version(), ex);
+            return false;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("gazetteerLoaded", gazetteer != null);
+        LocationPriors p = priors;
+        if (p != null) {
+            m.put("priorsVersion", p.version());
+            m.put("entries", p.entries());
+            m.put("skipped", p.skipped());
+            m.put("loadedAt", loadedAt == null ? null : loadedAt.toString());
+            m.put("reloads", reloads);
+        }
+        return m;
+    }
+}
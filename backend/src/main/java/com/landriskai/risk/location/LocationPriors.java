@@ -0,0 +1,130 @@
+package com.landriskai.risk.location;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Immutable risk-prior table: points per district, block and village, in int arrays indexed by
+ * {@link LocationGazetteer} place index. The most specific place with a prior wins.
+ *
+ * File format, one entry per line ("#" comments and blank lines ignored):
+ * <pre>
+ * level,code,points      # level = district | block | village, code = gazetteer census code
+ * district,230,5
+ * village,221800,-3
+ * </pre>
+ */
+public final class LocationPriors {
+
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private final int[] district;
+    private final int[] block;
+    private final int[] village;
+    private final int entries;
+    private final int skipped;
+    private final String version;
+
+    private LocationPriors(int[] district, int[] block, int[] village, int entries, int skipped, String version) {
+        this.district = district;
+        this.block = block;
+        this.village = village;
+        this.entries = entries;
+        this.skipped = skipped;
+        this.version = version;
+    }
+
+    public static LocationPriors empty(LocationGazetteer gazetteer) {
+        return new LocationPriors(filled(gazetteer.districtCount()), filled(gazetteer.blockCount()),
+                filled(gazetteer.villageCount()), 0, 0, "none");
+    }
+
+    /**
+     * Entries naming codes the gazetteer doesn't know, or malformed lines, are skipped and counted
+     */
+    public static LocationPriors parse(LocationGazetteer gazetteer, byte[] content) throws IOException {
+        int[] district = filled(gazetteer.districtCount());
+        int[] block = filled(gazetteer.blockCount());
+        int[] village = filled(gazetteer.villageCount());
+        int entries = 0, skipped = 0;
+        try (BufferedReader reader = new BufferedReader(new StringReader(new String(content, StandardCharsets.UTF_8)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comment = line.indexOf('#');
+                String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (entry.isEmpty() || entry.toLowerCase(Locale.ROOT).startsWith("level,")) {
+                    continue;
+                }
+                String[] f = entry.split(",");
+                int index, points;
+                int[] table;
+                try {
+                    int code = Integer.parseInt(f[1].trim());
+                    points = Integer.parseInt(f[2].trim());
+                    switch (f[0].trim().toLowerCase(Locale.ROOT)) {
+                        case "district" -> { table = district; index = gazetteer.districtIndexOfCode(code); }
+                        case "block", "circle" -> { table = block; index = gazetteer.blockIndexOfCode(code); }
+                        case "village" -> { table = village; index = gazetteer.villageIndexOfCode(code); }
+                        default -> { skipped++; continue; }
+                    }
+                } catch (RuntimeException ex) {
+                    skipped++;
+                    continue;
+                }
+                if (index == LocationGazetteer.UNKNOWN || f.length != 3) {
+                    skipped++;
+                    continue;
+                }
+                table[index] = points;
+                entries++;
+            }
+        }
+        return new LocationPriors(district, block, village, entries, skipped, hash(content));
+    }
+
+    /**
+     * Points of the most specific place with a prior, {@link #NONE} when none has one
+     */
+    public int prior(int districtIndex, int blockIndex, int villageIndex) {
+        if (villageIndex >= 0 && village[villageIndex] != NONE) return village[villageIndex];
+        if (blockIndex >= 0 && block[blockIndex] != NONE) return block[blockIndex];
+        if (districtIndex >= 0) return district[districtIndex];
+        return NONE;
+    }
+
+    public int entries() {
+        return entries;
+    }
+
+    public int skipped() {
+        return skipped;
+    }
+
+    /**
+     * Content hash of the priors file ("none" without one)
+     */
+    public String version() {
+        return version;
+    }
+
+    private static int[] filled(int n) {
+        int[] a = new int[n];
+        Arrays.fill(a, NONE);
+        return a;
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content), 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.FindingCatalog;
+import com.landriskai.risk.RiskFinding;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plot area missing -> info (+5)
+ */
+@Component
+public class AreaMissingRule implements RiskRule {
+
+    // Evidence is constant too: every assessment shares this instance
+    private static final RiskFinding FINDING = FindingCatalog.AREA_MISSING.withEvidence("Input missing");
+
+    @Override
+    public String id() {
+        return "AREA_MISSING";
+    }
+
+    @Override
+    public int order() {
+        return 200;
+    }
+
+    @Override
+    public void evaluate(OrderEntity order, RiskAccumulator acc) {
+        if (order.getPlotArea() == null || order.getPlotArea().isBlank()) {
+            acc.add(5, FINDING);
+        }
+    }
+}
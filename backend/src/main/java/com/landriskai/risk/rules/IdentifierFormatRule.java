@@ -0,0 +1,57 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.FindingCatalog;
+import org.springframework.stereotype.Component;
+
+/**
+ * Khata/khesra with characters outside [0-9A-Za-z-/] -> warning (+10).
+ * The character class is compiled once into an ASCII lookup table; a check is one array
+ * read per character with no Matcher allocated.
+ */
+@Component
+public class IdentifierFormatRule implements RiskRule {
+
+    private static final boolean[] ALLOWED = new boolean[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) ALLOWED[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++) ALLOWED[c] = true;
+        for (char c = 'a'; c <= 'z'; c++) ALLOWED[c] = true;
+        ALLOWED['-'] = true;
+        ALLOWED['/'] = true;
+    }
+
+    @Override
+    public String id() {
+        return "ID_FORMAT";
+    }
+
+    @Override
+    public int order() {
+        return 300;
+    }
+
+    @Override
+    public void evaluate(OrderEntity order, RiskAccumulator acc) {
+        String khata = order.getKhata();
+        String khesra = order.getKhesra();
+        boolean khataProvided = khata != null && !khata.isBlank();
+        boolean khesraProvided = khesra != null && !khesra.isBlank();
+
+        if ((khataProvided && !wellFormed(khata)) || (khesraProvided && !wellFormed(khesra))) {
+            acc.add(10, FindingCatalog.ID_FORMAT.withEvidence(
+                    "khata=" + (khataProvided ? khata : "N/A") + ", khesra=" + (khesraProvided ? khesra : "N/A")));
+        }
+    }
+
+    static boolean wellFormed(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= ALLOWED.length || !ALLOWED[c]) {
+                return false;
+            }
+        }
+        return !value.isEmpty();
+    }
+}
@@ -0,0 +1,150 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.landrecords.LandRecord;
+import com.landriskai.landrecords.LandRecordService;
+import com.landriskai.risk.FindingCatalog;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Compares order inputs with the land-records index (silent when no index is loaded):
+ * - parcel not recorded -> warning (+15)
+ * - owner name given, matching no recorded owner -> warning (+20)
+ * - numeric plot area given, off every recorded area by more than landRecords.areaTolerancePercent -> warning (+10)
+ * - circle/village given, different from every recorded row -> info (+5)
+ * The version carries the dataset fingerprint, so reports scored against other data count as changed.
+ */
+@Component
+public class LandRecordMismatchRule implements RiskRule {
+
+    private static final Set<String> FINDING_CODES = Set.of(
+            FindingCatalog.LR_NOT_FOUND.code(), FindingCatalog.LR_OWNER_MISMATCH.code(),
+            FindingCatalog.LR_AREA_MISMATCH.code(), FindingCatalog.LR_LOCATION_MISMATCH.code());
+    private static final int MAX_EVIDENCE_OWNERS = 3;
+
+    private final LandRecordService landRecords;
+    private final double areaTolerance;
+    private final String version;
+
+    public LandRecordMismatchRule(LandRecordService landRecords, LandRiskAiProperties props) {
+        this.landRecords = landRecords;
+        this.areaTolerance = props.getLandRecords().getAreaTolerancePercent() / 100.0;
+        this.version = landRecords.isAvailable() ? "1+" + landRecords.fingerprint() : "1";
+    }
+
+    @Override
+    public String id() {
+        return "LAND_RECORD";
+    }
+
+    @Override
+    public int order() {
+        return 150;
+    }
+
+    @Override
+    public String version() {
+        return version;
+    }
+
+    @Override
+    public Set<String> findingCodes() {
+        return FINDING_CODES;
+    }
+
+    @Override
+    public void evaluate(OrderEntity order, RiskAccumulator acc) {
+        if (!landRecords.isAvailable()) {
+            return;
+        }
+        ParcelKey key = ParcelKey.of(order);
+        List<LandRecord> rows = landRecords.find(key);
+        if (rows.isEmpty()) {
+            acc.add(15, FindingCatalog.LR_NOT_FOUND.withEvidence("parcel=" + key));
+            return;
+        }
+        checkOwner(order.getOwnerName(), rows, acc);
+        checkArea(order.getPlotArea(), rows, acc);
+        checkLocation(order, rows, acc);
+    }
+
+    private void checkOwner(String ownerName, List<LandRecord> rows, RiskAccumulator acc) {
+        if (ownerName == null || ownerName.isBlank()) {
+            return;
+        }
+        Set<String> given = nameTokens(ownerName);
+        StringJoiner recorded = new StringJoiner("; ");
+        int listed = 0;
+        for (LandRecord row : rows) {
+            if (row.owner().isBlank()) {
+                continue;
+            }
+            if (sameName(given, nameTokens(row.owner()))) {
+                return;
+            }
+            if (listed++ < MAX_EVIDENCE_OWNERS) {
+                recorded.add(row.owner());
+            }
+        }
+        if (listed > 0) {
+            acc.add(20, FindingCatalog.LR_OWNER_MISMATCH.withEvidence("provided=" + ownerName + ", recorded=" + recorded
+                    + (listed > MAX_EVIDENCE_OWNERS ? " (+" + (listed - MAX_EVIDENCE_OWNERS) + " more)" : "")));
+        }
+    }
+
+    private void checkArea(String plotArea, List<LandRecord> rows, RiskAccumulator acc) {
+        // plotArea also carries ownership types ("Purchased"); only numbers are compared
+        double given = LandRecord.parseArea(plotArea);
+        if (Double.isNaN(given)) {
+            return;
+        }
+        double recorded = Double.NaN;
+        for (LandRecord row : rows) {
+            if (!row.hasArea()) {
+                continue;
+            }
+            if (Math.abs(given - row.area()) <= areaTolerance * row.area()) {
+                return;
+            }
+            recorded = row.area();
+        }
+        if (!Double.isNaN(recorded)) {
+            acc.add(10, FindingCatalog.LR_AREA_MISMATCH.withEvidence("provided=" + plotArea.trim() + ", recorded=" + recorded));
+        }
+    }
+
+    private void checkLocation(OrderEntity order, List<LandRecord> rows, RiskAccumulator acc) {
+        String circle = ParcelKey.normalize(order.getCircle());
+        String village = ParcelKey.normalize(order.getVillage());
+        LandRecord mismatch = null;
+        for (LandRecord row : rows) {
+            boolean circleOk = circle.isEmpty() || row.circle().isBlank() || circle.equals(ParcelKey.normalize(row.circle()));
+            boolean villageOk = village.isEmpty() || row.village().isBlank() || village.equals(ParcelKey.normalize(row.village()));
+            if (circleOk && villageOk) {
+                return;
+            }
+            mismatch = row;
+        }
+        if (mismatch != null) {
+            acc.add(5, FindingCatalog.LR_LOCATION_MISMATCH.withEvidence(
+                    "recorded circle=" + mismatch.circle() + ", village=" + mismatch.village()));
+        }
+    }
+
+    private static Set<String> nameTokens(String name) {
+        return new HashSet<>(Arrays.asList(ParcelKey.normalize(name.replaceAll("[^\\p{L}\\p{N}\\s]", " ")).split(" ")));
+    }
+
+    // Same person when one name's words all appear in the other ("Ram Kumar" ~ "Ram Kumar Singh")
+    private static boolean sameName(Set<String> a, Set<String> b) {
+        return a.size() <= b.size() ? b.containsAll(a) : a.containsAll(b);
+    }
+}
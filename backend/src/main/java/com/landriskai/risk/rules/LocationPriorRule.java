@@ -0,0 +1,65 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.FindingCatalog;
+import com.landriskai.risk.location.LocationGazetteer;
+import com.landriskai.risk.location.LocationPriorService;
+import com.landriskai.risk.location.LocationPriors;
+import org.springframework.stereotype.Component;
+
+/**
+ * Location risk prior: district / circle / village names resolve to gazetteer indexes, and the
+ * most specific place with a prior adds its points (negative points lower the score).
+ * The version follows the priors file, so a reload is a new rule-set version.
+ */
+@Component
+public class LocationPriorRule implements RiskRule {
+
+    private final LocationPriorService locations;
+
+    public LocationPriorRule(LocationPriorService locations) {
+        this.locations = locations;
+    }
+
+    @Override
+    public String id() {
+        return "LOCATION_PRIOR";
+    }
+
+    @Override
+    public int order() {
+        return 400;
+    }
+
+    @Override
+    public String version() {
+        LocationPriors priors = locations.priors();
+        return priors == null ? "1" : "1+" + priors.version();
+    }
+
+    @Override
+    public void evaluate(OrderEntity order, RiskAccumulator acc) {
+        LocationGazetteer gazetteer = locations.gazetteer();
+        LocationPriors priors = locations.priors();
+        if (gazetteer == null || priors.entries() == 0) {
+            return;
+        }
+        int district = gazetteer.district(order.getDistrict());
+        if (district == LocationGazetteer.UNKNOWN) {
+            return;
+        }
+        int block = gazetteer.block(district, order.getCircle());
+        int village = gazetteer.village(block, order.getVillage());
+        int points = priors.prior(district, block, village);
+        if (points != LocationPriors.NONE && points != 0) {
+            acc.add(points, FindingCatalog.LOCATION_PRIOR.withEvidence(evidence(gazetteer, district, block, village, points)));
+        }
+    }
+
+    private static String evidence(LocationGazetteer g, int district, int block, int village, int points) {
+        return "district=" + g.districtCode(district)
+                + (block == LocationGazetteer.UNKNOWN ? "" : ", block=" + g.blockCode(block))
+                + (village == LocationGazetteer.UNKNOWN ? "" : ", village=" + g.villageCode(village))
+                + ", prior=" + (points > 0 ? "+" : "") + points;
+    }
+}
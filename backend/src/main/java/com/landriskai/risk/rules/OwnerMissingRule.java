@@ -0,0 +1,33 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.FindingCatalog;
+import com.landriskai.risk.RiskFinding;
+import org.springframework.stereotype.Component;
+
+/**
+ * Owner name missing -> warning (+15)
+ */
+@Component
+public class OwnerMissingRule implements RiskRule {
+
+    // Evidence is constant too: every assessment shares this instance
+    private static final RiskFinding FINDING = FindingCatalog.OWN_MISSING.withEvidence("Input missing");
+
+    @Override
+    public String id() {
+        return "OWN_MISSING";
+    }
+
+    @Override
+    public int order() {
+        return 100;
+    }
+
+    @Override
+    public void evaluate(OrderEntity order, RiskAccumulator acc) {
+        if (order.getOwnerName() == null || order.getOwnerName().isBlank()) {
+            acc.add(15, FINDING);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.landrecords.ParcelBlacklist;
+import com.landriskai.landrecords.ParcelBlacklistService;
+import com.landriskai.risk.FindingCatalog;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Flags parcels on the published encumbrance/dispute list (silent when no list is loaded):
+ * - listed as encumbered -> warning (+25)
+ * - listed as under dispute or litigation -> critical (+35)
+ * A parcel matches on district, circle, village, khata and khesra. The version follows the
+ * list's fingerprint, so a refreshed list is a new rule-set version.
+ */
+@Component
+public class ParcelBlacklistRule implements RiskRule {
+
+    private static final Set<String> FINDING_CODES = Set.of(
+            FindingCatalog.LISTED_ENCUMBRANCE.code(), FindingCatalog.LISTED_DISPUTE.code());
+
+    private final ParcelBlacklistService blacklist;
+
+    public ParcelBlacklistRule(ParcelBlacklistService blacklist) {
+        this.blacklist = blacklist;
+    }
+
+    @Override
+    public String id() {
+        return "PARCEL_BLACKLIST";
+    }
+
+    @Override
+    public int order() {
+        return 160;
+    }
+
+    @Override
+    public String version() {
+        String fingerprint = blacklist.fingerprint();
+        return fingerprint == null ? "1" : "1+" + fingerprint;
+    }
+
+    @Override
+    public Set<String> findingCodes() {
+        return FINDING_CODES;
+    }
+
+    @Override
+    public void evaluate(OrderEntity order, RiskAccumulator acc) {
+        if (!blacklist.isAvailable()) {
+            return;
+        }
+        int flags = blacklist.flags(ParcelKey.of(order), order.getCircle(), order.getVillage());
+        if ((flags & ParcelBlacklist.ENCUMBRANCE) != 0) {
+            acc.add(25, FindingCatalog.LISTED_ENCUMBRANCE.withEvidence("list=" + blacklist.fingerprint()));
+        }
+        if ((flags & ParcelBlacklist.DISPUTE) != 0) {
+            acc.add(35, FindingCatalog.LISTED_DISPUTE.withEvidence("list=" + blacklist.fingerprint()));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.risk.RiskFinding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Score and findings collected while one order runs through a {@link RuleSet}.
+ * The findings list is created on the first finding, sized for the rule set so it never resizes;
+ * a clean order allocates no list at all.
+ * Source lookups started for the assessment are reached through {@link #lookup}.
+ */
+public final class RiskAccumulator {
+
+    private int score;
+    private final int expectedFindings;
+    private final SourceLookups lookups;
+    private List<RiskFinding> findings;
+    private boolean partial;
+
+    RiskAccumulator(int baseScore, int expectedFindings, SourceLookups lookups) {
+        this.score = baseScore;
+        this.expectedFindings = expectedFindings;
+        this.lookups = lookups;
+    }
+
+    public void add(int points, RiskFinding finding) {
+        score += points;
+        if (findings == null) {
+            findings = new ArrayList<>(expectedFindings);
+        }
+        findings.add(finding);
+    }
+
+    public int score() {
+        return score;
+    }
+
+    /**
+     * The source's answer for this assessment, waiting at most until the assessment deadline
+     *
+     * @throws java.util.concurrent.TimeoutException when the deadline passes first
+     */
+    public <T> T lookup(RiskDataSource<T> source) throws Exception {
+        if (lookups == null) {
+            throw new IllegalStateException("No source lookups for this assessment: " + source.id());
+        }
+        return lookups.await(source);
+    }
+
+    /**
+     * Some input could not be checked: the result must not be cached or memoized
+     */
+    public void markPartial() {
+        partial = true;
+    }
+
+    boolean partial() {
+        return partial;
+    }
+
+    int findingCount() {
+        return findings == null ? 0 : findings.size();
+    }
+
+    /**
+     * Read-only view of the findings
+     */
+    List<RiskFinding> findings() {
+        return findings == null ? List.of() : Collections.unmodifiableList(findings);
+    }
+}
@@ -0,0 +1,25 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.entity.OrderEntity;
+
+/**
+ * External lookup a {@link SourceBackedRule} depends on (encumbrance, court cases, mutation
+ * records, ...). fetch() may block; {@link SourceFetcher} runs it on its own pool, in parallel
+ * with the other sources of the assessment, and stops waiting at the assessment deadline.
+ */
+public interface RiskDataSource<T> {
+
+    /**
+     * Stable identifier; one lookup per source and assessment, shared by every rule using it
+     */
+    String id();
+
+    T fetch(OrderEntity order) throws Exception;
+
+    /**
+     * Whether a second, identical request may be sent when the first is slow (reads without side effects)
+     */
+    default boolean hedgeable() {
+        return true;
+    }
+}
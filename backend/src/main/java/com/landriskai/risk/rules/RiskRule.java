@@ -0,0 +1,40 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.entity.OrderEntity;
+
+import java.util.Set;
+
+/**
+ * One risk check. Implementations are Spring beans picked up by {@link RiskRuleRegistry}.
+ * - precompute everything that doesn't depend on the order (patterns, tables, templates)
+ *   in the constructor: evaluate() runs for every assessment
+ * - evaluate() must be thread-safe and must not block; it reports through the accumulator only
+ * - bump version() whenever the rule's behaviour changes, so stored results can be told apart
+ */
+public interface RiskRule {
+
+    /**
+     * Stable identifier, usually the code of the finding the rule emits
+     */
+    String id();
+
+    /**
+     * Evaluation position; rules with equal order run by id
+     */
+    default int order() {
+        return 0;
+    }
+
+    default String version() {
+        return "1";
+    }
+
+    /**
+     * Codes of the findings this rule can emit; used to tell which stored reports a changed rule touched
+     */
+    default Set<String> findingCodes() {
+        return Set.of(id());
+    }
+
+    void evaluate(OrderEntity order, RiskAccumulator acc);
+}
@@ -0,0 +1,79 @@
+package com.landriskai.risk.rules;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the active {@link RuleSet} from all {@link RiskRule} beans and swaps in a new one
+ * when a {@link RuleSetChangedEvent} is published. Readers always see one complete rule set.
+ */
+@Slf4j
+@Component
+public class RiskRuleRegistry {
+
+    private static final Comparator<RiskRule> EVALUATION_ORDER =
+            Comparator.comparingInt(RiskRule::order).thenComparing(RiskRule::id);
+
+    private final List<RiskRule> rules;
+    private final RuleMetrics metrics;
+    private final SourceFetcher fetcher;
+    private volatile RuleSet current;
+
+    public RiskRuleRegistry(List<RiskRule> rules, RuleMetrics metrics, SourceFetcher fetcher) {
+        this.rules = List.copyOf(rules);
+        this.metrics = metrics;
+        this.fetcher = fetcher;
+        this.current = build();
+        log.info("[RISK_RULES] Rule set {} active: {}", current.version(), current.ruleVersions());
+    }
+
+    public RuleSet current() {
+        return current;
+    }
+
+    @EventListener
+    public synchronized void onRuleSetChanged(RuleSetChangedEvent event) {
+        RuleSet next = build();
+        if (!next.version().equals(current.version())) {
+            log.info("[RISK_RULES] Rule set {} -> {} ({}): {}", current.version(), next.version(), event.reason(), next.ruleVersions());
+        }
+        current = next;
+    }
+
+    private RuleSet build() {
+        RiskRule[] ordered = rules.toArray(new RiskRule[0]);
+        Arrays.sort(ordered, EVALUATION_ORDER);
+
+        Set<String> ids = new HashSet<>();
+        List<String> ruleVersions = new ArrayList<>(ordered.length);
+        for (RiskRule rule : ordered) {
+            if (!ids.add(rule.id())) {
+                throw new IllegalStateException("Duplicate risk rule id: " + rule.id());
+            }
+            ruleVersions.add(rule.id() + "@" + rule.version());
+        }
+        return new RuleSet(ordered, List.copyOf(ruleVersions), versionHash(ruleVersions), metrics, fetcher);
+    }
+
+    private static String versionHash(List<String> ruleVersions) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(String.join(";", ruleVersions).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.util.Log2Histogram;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-rule latency, fire counts and score contributions, recorded by {@link RuleSet#evaluate}
+ * while enabled (risk.ruleMetricsEnabled, switchable at runtime). Disabled, an assessment pays
+ * one volatile read. Stats are kept per "id@version", so a changed rule starts fresh.
+ */
+@Component
+public class RuleMetrics {
+
+    private final ConcurrentHashMap<String, RuleStats> byRule = new ConcurrentHashMap<>();
+    private final Log2Histogram assessNanos = new Log2Histogram();
+    private volatile boolean enabled;
+
+    public RuleMetrics(LandRiskAiProperties props) {
+        this.enabled = props.getRisk().isRuleMetricsEnabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void reset() {
+        byRule.values().forEach(RuleStats::reset);
+        assessNanos.reset();
+    }
+
+    /**
+     * Stats slots for a rule set, aligned with its evaluation order
+     */
+    RuleStats[] statsFor(List<String> ruleVersions) {
+        RuleStats[] stats = new RuleStats[ruleVersions.size()];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = byRule.computeIfAbsent(ruleVersions.get(i), k -> new RuleStats());
+        }
+        return stats;
+    }
+
+    void recordAssessment(long nanos) {
+        assessNanos.record(nanos);
+    }
+
+    /**
+     * @param ruleVersions the active rule set's rules, reported in evaluation order
+     */
+    public Map<String, Object> snapshot(List<String> ruleVersions) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("assessment", latency(assessNanos));
+        List<Map<String, Object>> rules = new ArrayList<>();
+        for (String ruleVersion : ruleVersions) {
+            RuleStats s = byRule.get(ruleVersion);
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("rule", ruleVersion);
+            long evaluations = s == null ? 0 : s.nanos.count();
+            long fires = s == null ? 0 : s.fires.sum();
+            long points = s == null ? 0 : s.points.sum();
+            r.put("evaluations", evaluations);
+            r.put("fires", fires);
+            r.put("fireRate", evaluations == 0 ? 0 : (double) fires / evaluations);
+            r.put("pointsTotal", points);
+            r.put("pointsPerFire", fires == 0 ? 0 : (double) points / fires);
+            r.put("latency", s == null ? latency(new Log2Histogram()) : latency(s.nanos));
+            rules.add(r);
+        }
+        m.put("rules", rules);
+        return m;
+    }
+
+    private static Map<String, Object> latency(Log2Histogram h) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("meanNanos", Math.round(h.mean()));
+        m.put("p50Nanos", h.quantile(0.50));
+        m.put("p90Nanos", h.quantile(0.90));
+        m.put("p99Nanos", h.quantile(0.99));
+        m.put("maxNanos", h.max());
+        m.put("histogramNanos", h.buckets());
+        return m;
+    }
+
+    static final class RuleStats {
+        final Log2Histogram nanos = new Log2Histogram();
+        final LongAdder fires = new LongAdder();
+        final LongAdder points = new LongAdder();
+
+        void record(long elapsedNanos, int addedPoints, boolean fired) {
+            nanos.record(elapsedNanos);
+            if (fired) {
+                fires.increment();
+                points.add(addedPoints);
+            }
+        }
+
+        void reset() {
+            nanos.reset();
+            fires.reset();
+            points.reset();
+        }
+    }
+}
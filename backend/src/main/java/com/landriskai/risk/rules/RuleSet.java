@@ -0,0 +1,160 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.domain.RiskBand;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.RiskResult;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, ordered snapshot of the active rules. The version is a hash of the rule ids and
+ * rule versions in evaluation order: equal versions give equal results for equal inputs.
+ */
+public final class RuleSet {
+
+    static final int BASE_SCORE = 10;
+
+    private final RiskRule[] rules;
+    private final List<String> ruleVersions;
+    private final Map<String, RiskRule> rulesById;
+    private final String version;
+    private final RuleMetrics metrics;
+    private final RuleMetrics.RuleStats[] stats;
+    private final SourceFetcher fetcher;
+    private final RiskDataSource<?>[] sources;
+
+    RuleSet(RiskRule[] rules, List<String> ruleVersions, String version, RuleMetrics metrics, SourceFetcher fetcher) {
+        this.rules = rules;
+        this.ruleVersions = ruleVersions;
+        this.version = version;
+        this.metrics = metrics;
+        this.stats = metrics.statsFor(ruleVersions);
+        this.fetcher = fetcher;
+        Map<String, RiskRule> byId = new LinkedHashMap<>();
+        Map<String, RiskDataSource<?>> sourcesById = new LinkedHashMap<>();
+        for (RiskRule rule : rules) {
+            byId.put(rule.id(), rule);
+            if (rule instanceof SourceBackedRule<?> sourced) {
+                sourcesById.putIfAbsent(sourced.source().id(), sourced.source());
+            }
+        }
+        this.rulesById = Collections.unmodifiableMap(byId);
+        this.sources = sourcesById.values().toArray(new RiskDataSource<?>[0]);
+    }
+
+    /**
+     * Source lookups all start before the first rule runs and share one deadline;
+     * the rules themselves still run in order on the calling thread.
+     */
+    public RiskResult evaluate(OrderEntity order) {
+        SourceLookups lookups = sources.length == 0 ? null : fetcher.begin(order, sources);
+        RiskAccumulator acc = new RiskAccumulator(BASE_SCORE, rules.length, lookups);
+        try {
+            if (metrics.isEnabled()) {
+                evaluateRecorded(order, acc);
+            } else {
+                for (RiskRule rule : rules) {
+                    rule.evaluate(order, acc);
+                }
+            }
+        } finally {
+            if (lookups != null) {
+                lookups.finish();
+            }
+        }
+
+        int score = acc.score();
+        RiskBand band;
+        if (score >= 60) band = RiskBand.RED;
+        else if (score >= 30) band = RiskBand.AMBER;
+        else band = RiskBand.GREEN;
+
+        return RiskResult.builder()
+                .score(Math.min(score, 100))
+                .band(band)
+                .findings(acc.findings())
+                .partial(acc.partial())
+                .build();
+    }
+
+    private void evaluateRecorded(OrderEntity order, RiskAccumulator acc) {
+        long started = System.nanoTime();
+        long ruleStarted = started;
+        for (int i = 0; i < rules.length; i++) {
+            int score = acc.score();
+            int findings = acc.findingCount();
+            rules[i].evaluate(order, acc);
+            long now = System.nanoTime();
+            stats[i].record(now - ruleStarted, acc.score() - score,
+                    acc.score() != score || acc.findingCount() != findings);
+            ruleStarted = now;
+        }
+        metrics.recordAssessment(ruleStarted - started);
+    }
+
+    /**
+     * Whether this rule alone reports anything for the order
+     */
+    public boolean fires(RiskRule rule, OrderEntity order) {
+        SourceLookups lookups = rule instanceof SourceBackedRule<?> sourced
+                ? fetcher.begin(order, new RiskDataSource<?>[]{sourced.source()})
+                : null;
+        RiskAccumulator acc = new RiskAccumulator(0, 1, lookups);
+        try {
+            rule.evaluate(order, acc);
+        } finally {
+            if (lookups != null) {
+                lookups.finish();
+            }
+        }
+        return acc.score() != 0 || !acc.findings().isEmpty();
+    }
+
+    /**
+     * Rules whose id@version is not in the given list (added or changed since it was recorded),
+     * plus ids recorded there that are no longer active (mapped to null). A null list means
+     * nothing is known: every rule counts as changed.
+     */
+    public Map<String, RiskRule> changedSince(List<String> recordedRuleVersions) {
+        Map<String, RiskRule> changed = new LinkedHashMap<>(rulesById);
+        if (recordedRuleVersions == null) {
+            return changed;
+        }
+        for (String recorded : recordedRuleVersions) {
+            int at = recorded.lastIndexOf('@');
+            String id = at < 0 ? recorded : recorded.substring(0, at);
+            RiskRule rule = rulesById.get(id);
+            if (rule == null) {
+                changed.put(id, null);
+            } else if (recorded.equals(id + "@" + rule.version())) {
+                changed.remove(id);
+            }
+        }
+        return changed;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    /**
+     * "id@version" per rule, in evaluation order
+     */
+    public List<String> ruleVersions() {
+        return ruleVersions;
+    }
+
+    /**
+     * Distinct data sources the rules depend on
+     */
+    public int sourceCount() {
+        return sources.length;
+    }
+
+    public int size() {
+        return rules.length;
+    }
+}
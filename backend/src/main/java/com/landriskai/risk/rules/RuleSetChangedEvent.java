@@ -0,0 +1,7 @@
+package com.landriskai.risk.rules;
+
+/**
+ * Published when rules or the data they read change; the registry rebuilds its rule set
+ */
+public record RuleSetChangedEvent(String reason) {
+}
@@ -0,0 +1,60 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.FindingCatalog;
+
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A rule scoring the answer of a {@link RiskDataSource}. The rule set starts every source's
+ * lookup when an assessment begins, so sources run in parallel; by the time this rule is
+ * evaluated it only waits for what is left of the assessment deadline.
+ * A source that misses the deadline or fails does not fail the assessment: the rule reports a
+ * LOW-confidence SOURCE_UNVERIFIED finding instead, and the result is marked partial.
+ */
+public abstract class SourceBackedRule<T> implements RiskRule {
+
+    public abstract RiskDataSource<T> source();
+
+    /**
+     * Score the source's answer, as {@link RiskRule#evaluate} does for order inputs
+     */
+    protected abstract void evaluate(OrderEntity order, T data, RiskAccumulator acc);
+
+    /**
+     * Points added when the source could not answer
+     */
+    protected int unverifiedPoints() {
+        return 5;
+    }
+
+    @Override
+    public Set<String> findingCodes() {
+        return Set.of(id(), FindingCatalog.SOURCE_UNVERIFIED.code());
+    }
+
+    @Override
+    public final void evaluate(OrderEntity order, RiskAccumulator acc) {
+        T data;
+        try {
+            data = acc.lookup(source());
+        } catch (TimeoutException ex) {
+            unverified(acc, "no answer within the assessment deadline");
+            return;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            unverified(acc, "interrupted");
+            return;
+        } catch (Exception ex) {
+            unverified(acc, "lookup failed: " + ex.getMessage());
+            return;
+        }
+        evaluate(order, data, acc);
+    }
+
+    private void unverified(RiskAccumulator acc, String reason) {
+        acc.markPartial();
+        acc.add(unverifiedPoints(), FindingCatalog.SOURCE_UNVERIFIED.withEvidence("source=" + source().id() + ", " + reason));
+    }
+}
@@ -0,0 +1,211 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.util.Log2Histogram;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs {@link RiskDataSource} lookups on a bounded pool, so the sources of one assessment
+ * answer in parallel and a slow source only costs up to the assessment deadline
+ * (risk.sourceDeadlineMillis, shared by all sources of the assessment).
+ * With risk.sourceHedgeAfterMillis > 0, a lookup still running after that delay gets a second,
+ * identical request; the first answer wins and the other is cancelled. This trims tail latency
+ * of sources that are occasionally slow, at the cost of a few extra requests.
+ * When the pool is saturated new lookups fail fast and their rules degrade like on a timeout.
+ */
+@Component
+public class SourceFetcher {
+
+    private static final int QUEUE_PER_THREAD = 16;
+
+    private final long deadlineNanos;
+    private final long hedgeAfterMillis;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService hedgeTimer;
+    private final Map<String, SourceStats> stats = new ConcurrentHashMap<>();
+
+    public SourceFetcher(LandRiskAiProperties props) {
+        LandRiskAiProperties.Risk cfg = props.getRisk();
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, cfg.getSourceDeadlineMillis()));
+        this.hedgeAfterMillis = cfg.getSourceHedgeAfterMillis();
+        int threads = Math.max(1, cfg.getSourceThreads());
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD),
+                r -> {
+                    Thread t = new Thread(r, "risk-source-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.hedgeTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "risk-source-hedge");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Start every source's lookup now; the returned lookups share one deadline
+     */
+    SourceLookups begin(OrderEntity order, RiskDataSource<?>[] sources) {
+        SourceLookups lookups = new SourceLookups(this, order, System.nanoTime() + deadlineNanos);
+        for (RiskDataSource<?> source : sources) {
+            lookups.start(source);
+        }
+        return lookups;
+    }
+
+    <T> CompletableFuture<T> fetch(RiskDataSource<T> source, OrderEntity order) {
+        SourceStats st = stats(source.id());
+        st.calls.increment();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Attempts attempts = new Attempts();
+        // Losers and abandoned lookups are interrupted once the result is settled
+        result.whenComplete((v, ex) -> attempts.cancelAll());
+        attempts.submit(source, order, result, st, false);
+
+        if (hedgeAfterMillis > 0 && source.hedgeable() && !result.isDone()) {
+            Future<?> hedge = hedgeTimer.schedule(() -> {
+                if (!result.isDone()) {
+                    st.hedges.increment();
+                    attempts.submit(source, order, result, st, true);
+                }
+            }, hedgeAfterMillis, TimeUnit.MILLISECONDS);
+            result.whenComplete((v, ex) -> hedge.cancel(false));
+        }
+        return result;
+    }
+
+    void recordTimeout(String sourceId) {
+        stats(sourceId).timeouts.increment();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("deadlineMillis", TimeUnit.NANOSECONDS.toMillis(deadlineNanos));
+        m.put("hedgeAfterMillis", hedgeAfterMillis);
+        m.put("activeThreads", executor.getActiveCount());
+        m.put("queued", executor.getQueue().size());
+        Map<String, Object> sources = new TreeMap<>();
+        stats.forEach((id, st) -> sources.put(id, st.snapshot()));
+        m.put("sources", sources);
+        return m;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeTimer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private SourceStats stats(String sourceId) {
+        return stats.computeIfAbsent(sourceId, id -> new SourceStats());
+    }
+
+    /**
+     * Requests in flight for one lookup: the primary and possibly a hedge
+     */
+    private final class Attempts {
+        private final CopyOnWriteArrayList<Future<?>> futures = new CopyOnWriteArrayList<>();
+        private final AtomicInteger running = new AtomicInteger();
+
+        <T> void submit(RiskDataSource<T> source, OrderEntity order, CompletableFuture<T> result,
+                        SourceStats st, boolean hedge) {
+            running.incrementAndGet();
+            try {
+                futures.add(executor.submit(() -> run(source, order, result, st, hedge)));
+            } catch (RejectedExecutionException ex) {
+                st.rejected.increment();
+                failed(result, ex);
+            }
+            if (result.isDone()) {
+                cancelAll();
+            }
+        }
+
+        private <T> void run(RiskDataSource<T> source, OrderEntity order, CompletableFuture<T> result,
+                             SourceStats st, boolean hedge) {
+            if (result.isDone()) {
+                running.decrementAndGet();
+                return;
+            }
+            long started = System.nanoTime();
+            try {
+                T value = source.fetch(order);
+                st.latency.record(System.nanoTime() - started);
+                if (result.complete(value) && hedge) {
+                    st.hedgeWins.increment();
+                }
+                running.decrementAndGet();
+            } catch (InterruptedException ex) {
+                // Cancelled: the other request answered or nobody waits any more
+                running.decrementAndGet();
+            } catch (Exception ex) {
+                if (!result.isDone()) {
+                    st.failures.increment();
+                }
+                failed(result, ex);
+            }
+        }
+
+        /**
+         * A failure settles the lookup only when no other request can still answer
+         */
+        private void failed(CompletableFuture<?> result, Exception ex) {
+            if (running.decrementAndGet() == 0) {
+                result.completeExceptionally(ex);
+            }
+        }
+
+        void cancelAll() {
+            for (Future<?> f : futures) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    private static class SourceStats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder hedges = new LongAdder();
+        final LongAdder hedgeWins = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final Log2Histogram latency = new Log2Histogram();
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("calls", calls.sum());
+            m.put("hedges", hedges.sum());
+            m.put("hedgeWins", hedgeWins.sum());
+            m.put("timeouts", timeouts.sum());
+            m.put("failures", failures.sum());
+            m.put("rejected", rejected.sum());
+            m.put("answered", latency.count());
+            m.put("latencyMeanMs", latency.mean() / 1_000_000.0);
+            m.put("latencyP50Ms", latency.quantile(0.50) / 1_000_000.0);
+            m.put("latencyP99Ms", latency.quantile(0.99) / 1_000_000.0);
+            m.put("latencyMaxMs", latency.max() / 1_000_000.0);
+            return m;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.landriskai.risk.rules;
+
+import com.landriskai.entity.OrderEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-flight source lookups of one assessment, all bounded by the same deadline.
+ * Used by the thread running the assessment only.
+ */
+final class SourceLookups {
+
+    private final SourceFetcher fetcher;
+    private final OrderEntity order;
+    private final long deadlineNanos;
+    private final Map<String, CompletableFuture<?>> pending = new HashMap<>(4);
+
+    SourceLookups(SourceFetcher fetcher, OrderEntity order, long deadlineNanos) {
+        this.fetcher = fetcher;
+        this.order = order;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    void start(RiskDataSource<?> source) {
+        pending.computeIfAbsent(source.id(), id -> fetcher.fetch(source, order));
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T await(RiskDataSource<T> source) throws Exception {
+        CompletableFuture<T> f = (CompletableFuture<T>) pending.computeIfAbsent(source.id(), id -> fetcher.fetch(source, order));
+        try {
+            return f.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            fetcher.recordTimeout(source.id());
+            throw ex;
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof Exception cause ? cause : ex;
+        }
+    }
+
+    /**
+     * Stop lookups nobody waited for, and stragglers past the deadline
+     */
+    void finish() {
+        for (CompletableFuture<?> f : pending.values()) {
+            f.cancel(true);
+        }
+    }
+}
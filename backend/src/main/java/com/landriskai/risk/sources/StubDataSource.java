@@ -0,0 +1,51 @@
+package com.landriskai.risk.sources;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.rules.RiskDataSource;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for an external record source. Answers after risk.stubLatencyMillis plus
+ * uniform jitter, a share of calls (risk.stubSlowRate) take risk.stubSlowMillis longer, and
+ * risk.stubFailureRate of calls throw. Whether a parcel has a record is derived from the
+ * parcel key, so the same parcel always gets the same answer.
+ */
+public class StubDataSource implements RiskDataSource<StubDataSource.Answer> {
+
+    public record Answer(boolean recorded, String reference) {}
+
+    private final String id;
+    private final double hitRate;
+    private final LandRiskAiProperties.Risk cfg;
+
+    public StubDataSource(String id, double hitRate, LandRiskAiProperties.Risk cfg) {
+        this.id = id;
+        this.hitRate = hitRate;
+        this.cfg = cfg;
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public Answer fetch(OrderEntity order) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = cfg.getStubLatencyMillis() + (cfg.getStubJitterMillis() > 0 ? random.nextLong(cfg.getStubJitterMillis() + 1) : 0);
+        if (random.nextDouble() < cfg.getStubSlowRate()) {
+            delay += cfg.getStubSlowMillis();
+        }
+        Thread.sleep(delay);
+        if (random.nextDouble() < cfg.getStubFailureRate()) {
+            throw new IllegalStateException(id + " stub: injected failure");
+        }
+
+        int h = (ParcelKey.of(order).hashCode() * 31 + id.hashCode()) * 0x9E3779B9;
+        boolean recorded = (h >>> 8) / (double) (1 << 24) < hitRate;
+        return new Answer(recorded, recorded ? id + "/" + Integer.toHexString(h >>> 12) : null);
+    }
+}
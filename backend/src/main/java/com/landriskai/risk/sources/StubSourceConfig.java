@@ -0,0 +1,35 @@
+package com.landriskai.risk.sources;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.risk.FindingCatalog;
+import com.landriskai.risk.rules.RiskRule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Source-backed rules on local stubs (risk.stubSourcesEnabled), to exercise parallel lookups,
+ * the assessment deadline and hedging without the real registries.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "landriskai.risk", name = "stubSourcesEnabled", havingValue = "true")
+public class StubSourceConfig {
+
+    @Bean
+    public RiskRule encumbranceRule(LandRiskAiProperties props) {
+        return new StubSourceRule("ENCUMBRANCE", 500, 20, FindingCatalog.ENCUMBRANCE_FOUND,
+                new StubDataSource("encumbrance-registry", 0.10, props.getRisk()));
+    }
+
+    @Bean
+    public RiskRule courtCaseRule(LandRiskAiProperties props) {
+        return new StubSourceRule("COURT_CASE", 510, 30, FindingCatalog.COURT_CASE_PENDING,
+                new StubDataSource("court-cases", 0.05, props.getRisk()));
+    }
+
+    @Bean
+    public RiskRule mutationPendingRule(LandRiskAiProperties props) {
+        return new StubSourceRule("MUTATION_PENDING", 520, 10, FindingCatalog.MUTATION_PENDING,
+                new StubDataSource("mutation-register", 0.15, props.getRisk()));
+    }
+}
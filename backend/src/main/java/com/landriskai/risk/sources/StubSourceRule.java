@@ -0,0 +1,62 @@
+package com.landriskai.risk.sources;
+
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.FindingCatalog;
+import com.landriskai.risk.FindingDefinition;
+import com.landriskai.risk.rules.RiskAccumulator;
+import com.landriskai.risk.rules.RiskDataSource;
+import com.landriskai.risk.rules.SourceBackedRule;
+
+import java.util.Set;
+
+/**
+ * Adds a finding when the parcel has a record in the source
+ */
+public class StubSourceRule extends SourceBackedRule<StubDataSource.Answer> {
+
+    private final String id;
+    private final int order;
+    private final int points;
+    private final FindingDefinition finding;
+    private final StubDataSource source;
+
+    public StubSourceRule(String id, int order, int points, FindingDefinition finding, StubDataSource source) {
+        this.id = id;
+        this.order = order;
+        this.points = points;
+        this.finding = finding;
+        this.source = source;
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public int order() {
+        return order;
+    }
+
+    @Override
+    public String version() {
+        return "stub-1";
+    }
+
+    @Override
+    public RiskDataSource<StubDataSource.Answer> source() {
+        return source;
+    }
+
+    @Override
+    public Set<String> findingCodes() {
+        return Set.of(finding.code(), FindingCatalog.SOURCE_UNVERIFIED.code());
+    }
+
+    @Override
+    protected void evaluate(OrderEntity order, StubDataSource.Answer data, RiskAccumulator acc) {
+        if (data.recorded()) {
+            acc.add(points, finding.withEvidence("reference=" + data.reference()));
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.landriskai.service;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.entity.SearchCacheEntity;
+import com.landriskai.repo.SearchCacheRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind reuse statistics for lr_search_cache.
+ * A reuse only bumps in-memory adders keyed by cache row id; a scheduled flush turns the
+ * accumulated deltas into one batched relative UPDATE per row, so concurrent orders for a
+ * popular parcel never read-modify-write the same row.
+ * Recorders share a stripe's read lock; the flush takes the write lock only to drop idle
+ * entries, so no delta can land in an entry after it has been removed.
+ * Reads that need exact numbers use the merged view (database + pending deltas).
+ */
+@Slf4j
+@Component
+public class CacheReuseCounters {
+
+    private static final String FLUSH_SQL =
+            "UPDATE lr_search_cache SET " +
+            "reusage_count = COALESCE(reusage_count, 0) + ?, " +
+            "total_revenue_from_reusage_paise = COALESCE(total_revenue_from_reusage_paise, 0) + ?, " +
+            "last_reuse_at = CASE WHEN last_reuse_at IS NULL OR last_reuse_at < ? THEN ? ELSE last_reuse_at END " +
+            "WHERE id = ?";
+
+    private final SearchCacheRepository searchCacheRepository;
+    private final SearchCacheService searchCacheService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock[] stripes;
+
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong rowsFlushed = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+
+    public CacheReuseCounters(SearchCacheRepository searchCacheRepository,
+                              SearchCacheService searchCacheService,
+                              JdbcTemplate jdbcTemplate,
+                              LandRiskAiProperties props) {
+        this.searchCacheRepository = searchCacheRepository;
+        this.searchCacheService = searchCacheService;
+        this.jdbcTemplate = jdbcTemplate;
+        int n = Integer.highestOneBit(Math.max(1, props.getCache().getReuseCounterStripes()));
+        this.stripes = new ReentrantReadWriteLock[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Count one reuse; inside a transaction it is counted only once the transaction commits
+     */
+    public void recordReuse(Long cacheId, long revenuePaise, Instant at) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(cacheId, 1, revenuePaise, at.toEpochMilli());
+                }
+            });
+        } else {
+            add(cacheId, 1, revenuePaise, at.toEpochMilli());
+        }
+    }
+
+    private void add(Long cacheId, long count, long revenuePaise, long atMillis) {
+        ReentrantReadWriteLock.ReadLock lock = stripe(cacheId).readLock();
+        lock.lock();
+        try {
+            Pending p = pending.computeIfAbsent(cacheId, id -> new Pending());
+            p.count.add(count);
+            p.revenue.add(revenuePaise);
+            p.lastReuseMillis.accumulate(atMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop unflushed deltas, e.g. when the row's counters are reset
+     */
+    public void discard(Long cacheId) {
+        ReentrantReadWriteLock.WriteLock lock = stripe(cacheId).writeLock();
+        lock.lock();
+        try {
+            pending.remove(cacheId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${landriskai.cache.reuseFlushIntervalSeconds:10}",
+            fixedDelayString = "${landriskai.cache.reuseFlushIntervalSeconds:10}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    @PreDestroy
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        List<Long> idle = new ArrayList<>();
+        for (Map.Entry<Long, Pending> e : pending.entrySet()) {
+            Pending p = e.getValue();
+            // Each adder is drained cell by cell with getAndSet: concurrent increments land in this or the next flush
+            long count = p.count.sumThenReset();
+            long revenue = p.revenue.sumThenReset();
+            long last = p.lastReuseMillis.getThenReset();
+            if (count == 0 && revenue == 0) {
+                idle.add(e.getKey());
+                continue;
+            }
+            Timestamp lastAt = new Timestamp(last == 0 ? System.currentTimeMillis() : last);
+            batch.add(new Object[]{count, revenue, lastAt, lastAt, e.getKey()});
+        }
+
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                flushes.incrementAndGet();
+                rowsFlushed.addAndGet(batch.size());
+                Set<Long> ids = new HashSet<>();
+                for (Object[] row : batch) {
+                    ids.add((Long) row[4]);
+                }
+                searchCacheService.evictFromL1(ids);
+            } catch (RuntimeException ex) {
+                flushFailures.incrementAndGet();
+                log.error("[SEARCH_CACHE] Reuse counter flush failed for {} rows, retrying next run", batch.size(), ex);
+                for (Object[] row : batch) {
+                    add((Long) row[4], (Long) row[0], (Long) row[1], ((Timestamp) row[2]).getTime());
+                }
+            }
+        }
+
+        for (Long id : idle) {
+            ReentrantReadWriteLock.WriteLock lock = stripe(id).writeLock();
+            lock.lock();
+            try {
+                Pending p = pending.get(id);
+                if (p != null && p.count.sum() == 0 && p.revenue.sum() == 0) {
+                    pending.remove(id);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reuse count including deltas not yet flushed
+     */
+    public int mergedReuseCount(SearchCacheEntity cache) {
+        Pending p = pending.get(cache.getId());
+        int stored = cache.getReusageCount() == null ? 0 : cache.getReusageCount();
+        return p == null ? stored : stored + (int) p.count.sum();
+    }
+
+    /**
+     * Total reuse revenue including deltas not yet flushed
+     */
+    public long totalRevenuePaise() {
+        Long stored = searchCacheRepository.calculateTotalCacheRevenue();
+        long unflushed = 0;
+        for (Pending p : pending.values()) {
+            unflushed += p.revenue.sum();
+        }
+        return (stored == null ? 0 : stored) + unflushed;
+    }
+
+    /**
+     * Snapshot of unflushed reuse counts by cache row id
+     */
+    public Map<Long, Long> pendingCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        pending.forEach((id, p) -> {
+            long n = p.count.sum();
+            if (n > 0) {
+                counts.put(id, n);
+            }
+        });
+        return counts;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("pendingRows", pending.size());
+        m.put("flushes", flushes.get());
+        m.put("rowsFlushed", rowsFlushed.get());
+        m.put("flushFailures", flushFailures.get());
+        return m;
+    }
+
+    private ReentrantReadWriteLock stripe(Long id) {
+        return stripes[Long.hashCode(id) & (stripes.length - 1)];
+    }
+
+    private static class Pending {
+        final LongAdder count = new LongAdder();
+        final LongAdder revenue = new LongAdder();
+        final LongAccumulator lastReuseMillis = new LongAccumulator(Math::max, 0);
+    }
+}
@@ -0,0 +1,248 @@
+package com.landriskai.service;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.repo.ReportRepository;
+import com.landriskai.repo.SearchCacheRepository;
+import com.landriskai.storage.ReportStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Reclaims space from expired data in small steps:
+ * - lr_search_cache rows past expiresAt (+ grace), releasing their base documents
+ * - report PDFs whose link expired more than storage.retentionDays ago; the report row keeps
+ *   pdfPath = PENDING and is re-rendered if it is ever downloaded again
+ * - {@link ReportStore} blobs nothing references any more (released above, or renders that were
+ *   never attached), once idle for storage.unreferencedGraceMinutes
+ * Each chunk is one bulk statement in its own short transaction, followed by a pause;
+ * a run stops after maxChunksPerRun and the next run picks up the remainder.
+ */
+@Slf4j
+@Component
+public class ExpirySweeper {
+
+    private final SearchCacheRepository searchCacheRepository;
+    private final ReportRepository reportRepository;
+    private final ReportStore reportStore;
+    private final LandRiskAiProperties props;
+    private final TransactionTemplate tx;
+
+    private final AtomicLong totalCacheRows = new AtomicLong();
+    private final AtomicLong totalReportPdfs = new AtomicLong();
+    private final AtomicLong totalFiles = new AtomicLong();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private volatile Map<String, Object> lastRun;
+
+    public ExpirySweeper(SearchCacheRepository searchCacheRepository,
+                         ReportRepository reportRepository,
+                         ReportStore reportStore,
+                         LandRiskAiProperties props,
+                         PlatformTransactionManager transactionManager) {
+        this.searchCacheRepository = searchCacheRepository;
+        this.reportRepository = reportRepository;
+        this.reportStore = reportStore;
+        this.props = props;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(
+            initialDelayString = "${landriskai.sweeper.intervalMinutes:30}",
+            fixedDelayString = "${landriskai.sweeper.intervalMinutes:30}",
+            timeUnit = TimeUnit.MINUTES
+    )
+    public void scheduledSweep() {
+        if (props.getSweeper().isEnabled()) {
+            sweep();
+        }
+    }
+
+    public synchronized Map<String, Object> sweep() {
+        LandRiskAiProperties.Sweeper cfg = props.getSweeper();
+        long started = System.currentTimeMillis();
+        Instant now = Instant.now();
+        RunTotals run = new RunTotals();
+
+        try {
+            Instant cacheCutoff = now.minus(Duration.ofMinutes(cfg.getCacheGraceMinutes()));
+            sweepChunks(run, cfg,
+                    page -> searchCacheRepository.findExpiredBefore(cacheCutoff, page),
+                    rows -> deleteExpiredCacheRows(rows, cacheCutoff),
+                    run::addCacheRows);
+
+            Instant pdfCutoff = now.minus(Duration.ofDays(retentionDays()));
+            sweepChunks(run, cfg,
+                    page -> reportRepository.findPdfsExpiredBefore(pdfCutoff, page),
+                    rows -> releaseReportPdfs(rows, now),
+                    run::addReportPdfs);
+
+            sweepUnreferencedBlobs(run, cfg, now.minus(Duration.ofMinutes(props.getStorage().getUnreferencedGraceMinutes())));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            log.error("[SWEEPER] Sweep aborted", ex);
+        }
+
+        totalCacheRows.addAndGet(run.cacheRows);
+        totalReportPdfs.addAndGet(run.reportPdfs);
+        totalFiles.addAndGet(run.files);
+        totalBytes.addAndGet(run.bytes);
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("startedAt", Instant.ofEpochMilli(started).toString());
+        m.put("durationMs", System.currentTimeMillis() - started);
+        m.put("chunks", run.chunks);
+        m.put("truncated", run.truncated);
+        m.put("cacheRowsDeleted", run.cacheRows);
+        m.put("reportPdfsReleased", run.reportPdfs);
+        m.put("filesDeleted", run.files);
+        m.put("bytesReclaimed", run.bytes);
+        lastRun = m;
+
+        if (run.cacheRows + run.reportPdfs + run.files > 0) {
+            log.info("[SWEEPER] {} cache rows, {} report PDFs, {} files ({} KiB) reclaimed in {} chunks{}",
+                    run.cacheRows, run.reportPdfs, run.files, run.bytes / 1024, run.chunks,
+                    run.truncated ? " (chunk limit reached)" : "");
+        }
+        return m;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", props.getSweeper().isEnabled());
+        m.put("cacheRowsDeleted", totalCacheRows.get());
+        m.put("reportPdfsReleased", totalReportPdfs.get());
+        m.put("filesDeleted", totalFiles.get());
+        m.put("bytesReclaimed", totalBytes.get());
+        m.put("lastRun", lastRun);
+        return m;
+    }
+
+    /**
+     * Select [id, pdfPath] rows a chunk at a time, apply the change in one transaction, then release
+     * the PDFs of exactly the rows it changed (a row revived or restamped since the select keeps its
+     * reference). Rows are only selected past the cutoff, so each chunk removes them from the next selection.
+     * @param apply changes the selected rows still eligible; returns the pdfPath of each row it changed
+     */
+    private void sweepChunks(RunTotals run,
+                             LandRiskAiProperties.Sweeper cfg,
+                             Function<PageRequest, List<Object[]>> select,
+                             Function<List<Object[]>, List<String>> apply,
+                             IntConsumer count) throws InterruptedException {
+        PageRequest page = PageRequest.of(0, Math.max(1, cfg.getChunkSize()));
+        while (true) {
+            if (run.chunks >= cfg.getMaxChunksPerRun()) {
+                run.truncated = true;
+                return;
+            }
+            List<Object[]> rows = select.apply(page);
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            List<String> released = tx.execute(status -> apply.apply(rows));
+            count.accept(released == null ? 0 : released.size());
+            // References go after the commit: no row ever points at a reclaimable blob
+            if (released != null) {
+                for (String path : released) {
+                    reportStore.release(path);
+                }
+            }
+            run.chunks++;
+
+            if (rows.size() < page.getPageSize()) {
+                return;
+            }
+            Thread.sleep(cfg.getPauseMillis());
+        }
+    }
+
+    /**
+     * Bulk delete, re-checking expiry; the ids gone afterwards are the rows this transaction deleted
+     * (expired rows only change by being revived, which un-expires them, so their pdfPath is as selected)
+     */
+    private List<String> deleteExpiredCacheRows(List<Object[]> rows, Instant cutoff) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+        }
+        searchCacheRepository.deleteExpired(ids, cutoff);
+        Set<Long> kept = new HashSet<>(searchCacheRepository.findExistingIds(ids));
+        List<String> released = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (!kept.contains((Long) row[0])) {
+                released.add((String) row[1]);
+            }
+        }
+        return released;
+    }
+
+    /**
+     * One conditional update per row: only a report still holding the selected key is detached
+     */
+    private List<String> releaseReportPdfs(List<Object[]> rows, Instant now) {
+        List<String> released = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String path = (String) row[1];
+            if (reportRepository.releasePdf((Long) row[0], path, now) > 0) {
+                released.add(path);
+            }
+        }
+        return released;
+    }
+
+    private void sweepUnreferencedBlobs(RunTotals run, LandRiskAiProperties.Sweeper cfg, Instant idleBefore)
+            throws InterruptedException {
+        while (run.chunks < cfg.getMaxChunksPerRun()) {
+            ReportStore.Reclaimed chunk = reportStore.reclaim(idleBefore, cfg.getChunkSize());
+            run.files += chunk.blobs();
+            run.bytes += chunk.bytes();
+            if (chunk.selected() == 0) {
+                return;
+            }
+            run.chunks++;
+            if (chunk.selected() < Math.max(1, cfg.getChunkSize())) {
+                return;
+            }
+            Thread.sleep(cfg.getPauseMillis());
+        }
+        run.truncated = true;
+    }
+
+    private int retentionDays() {
+        try {
+            return Integer.parseInt(props.getStorage().getRetentionDays().trim());
+        } catch (RuntimeException ex) {
+            log.warn("[SWEEPER] Invalid storage.retentionDays '{}', using 90", props.getStorage().getRetentionDays());
+            return 90;
+        }
+    }
+
+    private static class RunTotals {
+        int chunks;
+        boolean truncated;
+        long cacheRows;
+        long reportPdfs;
+        long files;
+        long bytes;
+
+        void addCacheRows(int n) { cacheRows += n; }
+        void addReportPdfs(int n) { reportPdfs += n; }
+    }
+}
@@ -45,6 +45,12 @@ public class OrderService {
         return value == null ? "" : value.trim();
     }
 
+    @Transactional(readOnly = true)
+    public OrderEntity getOrder(Long orderId) {
+        return orderRepo.findById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+    }
+
     @Transactional
     public OrderEntity markPaid(Long orderId, String paymentRef) {
         OrderEntity order = orderRepo.findById(orderId)
@@ -0,0 +1,122 @@
+package com.landriskai.service;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.entity.ReportEntity;
+import com.landriskai.repo.ReportRepository;
+import com.landriskai.storage.ReportStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists report PDFs that were streamed to a client (storage.streamDownloads + writeThrough).
+ * One background thread puts each document into the {@link ReportStore} and attaches its key to the
+ * report if it is still PENDING, so the next download is served from the store; when concurrent
+ * downloads of one report each stream it, the first to land wins and the others hold no reference.
+ * Best effort: when storage.writeBehindQueueCapacity documents are already waiting, or a write
+ * fails, the report stays PENDING and its next download stamps it again.
+ */
+@Slf4j
+@Component
+public class PdfWriteBehind {
+
+    private final ReportStore reportStore;
+    private final ReportRepository reportRepo;
+    private final TransactionTemplate tx;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public PdfWriteBehind(ReportStore reportStore,
+                          ReportRepository reportRepo,
+                          LandRiskAiProperties props,
+                          PlatformTransactionManager transactionManager) {
+        this.reportStore = reportStore;
+        this.reportRepo = reportRepo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.executor = new ThreadPoolExecutor(
+                1, 1,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, props.getStorage().getWriteBehindQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "pdf-write-behind");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Queue a streamed report's bytes for persistence; never blocks the caller
+     */
+    public void submit(Long reportId, byte[] pdf) {
+        try {
+            executor.execute(() -> write(reportId, pdf));
+            queued.incrementAndGet();
+        } catch (RejectedExecutionException ex) {
+            dropped.incrementAndGet();
+            log.warn("[PDF_WRITE_BEHIND] Queue full, not persisting report {}", reportId);
+        }
+    }
+
+    private void write(Long reportId, byte[] pdf) {
+        try {
+            String key = reportStore.put(pdf);
+            Boolean attached = tx.execute(status -> {
+                reportStore.retain(key);
+                Instant now = Instant.now();
+                if (reportRepo.attachPendingPdf(reportId, key, now, now.plusSeconds(ReportEntity.PDF_RETENTION_SECONDS)) == 0) {
+                    // Another streamed download of this report was persisted first
+                    reportStore.release(key);
+                    return false;
+                }
+                return true;
+            });
+            if (Boolean.TRUE.equals(attached)) {
+                written.incrementAndGet();
+                writtenBytes.addAndGet(pdf.length);
+            } else {
+                superseded.incrementAndGet();
+            }
+        } catch (Exception ex) {
+            failed.incrementAndGet();
+            log.error("[PDF_WRITE_BEHIND] Could not persist report {}", reportId, ex);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("queueDepth", executor.getQueue().size());
+        m.put("queued", queued.get());
+        m.put("written", written.get());
+        m.put("writtenBytes", writtenBytes.get());
+        m.put("superseded", superseded.get()); // report no longer PENDING when the write landed
+        m.put("dropped", dropped.get());
+        m.put("failed", failed.get());
+        return m;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("[PDF_WRITE_BEHIND] {} streamed reports not persisted at shutdown", executor.shutdownNow().size());
+        }
+    }
+}
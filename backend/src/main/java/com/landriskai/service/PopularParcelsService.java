@@ -0,0 +1,114 @@
+package com.landriskai.service;
+
+import com.landriskai.api.dto.TopParcelResponse;
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.repo.SearchCacheRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Most reused cached parcels. Memory is bounded by one keyset page, a K-sized heap and the
+ * unflushed reuse set, whatever the table size:
+ * - offer rows with unflushed reuses first, by merged count (stored + pending)
+ * - walk the other valid rows in stored reusageCount order until one can no longer enter the top K
+ * - keep the K best in a min-heap
+ */
+@Service
+public class PopularParcelsService {
+
+    public static final int MAX_K = 100;
+    private static final int PAGE_SIZE = 200;
+
+    // Heap order: weakest first, so the root is what a better candidate replaces
+    private static final Comparator<TopParcelResponse> WEAKEST_FIRST =
+            Comparator.comparing(TopParcelResponse::getReusageCount).thenComparing(TopParcelResponse::getCacheId);
+
+    private final SearchCacheRepository searchCacheRepository;
+    private final CacheReuseCounters cacheReuseCounters;
+
+    public PopularParcelsService(SearchCacheRepository searchCacheRepository, CacheReuseCounters cacheReuseCounters) {
+        this.searchCacheRepository = searchCacheRepository;
+        this.cacheReuseCounters = cacheReuseCounters;
+    }
+
+    /**
+     * @param district   optional, matched on the canonical district name
+     * @param sinceHours optional, only parcels reused within the last N hours
+     */
+    public List<TopParcelResponse> topParcels(int k, String district, Integer sinceHours) {
+        String districtKey = district == null || district.isBlank() ? null : ParcelKey.of("", "", district).district();
+        Instant since = sinceHours == null ? null : Instant.now().minus(Duration.ofHours(sinceHours));
+        Map<Long, Long> pendingCounts = cacheReuseCounters.pendingCounts();
+
+        PriorityQueue<TopParcelResponse> heap = new PriorityQueue<>(k + 1, WEAKEST_FIRST);
+
+        // Rows with unflushed reuses first: their merged count can put them anywhere in the order
+        List<Long> pending = new ArrayList<>(pendingCounts.keySet());
+        for (int from = 0; from < pending.size(); from += PAGE_SIZE) {
+            List<Long> ids = pending.subList(from, Math.min(from + PAGE_SIZE, pending.size()));
+            for (TopParcelResponse row : searchCacheRepository.findValidReuseRows(ids)) {
+                if (matches(row, districtKey, since, pendingCounts)) {
+                    offer(heap, merge(row, pendingCounts), k);
+                }
+            }
+        }
+
+        // Then everything else in stored count order. These rows have no pending delta, so once one
+        // cannot beat the weakest of a full heap, no later row can either.
+        int lastCount = Integer.MAX_VALUE;
+        long lastId = Long.MAX_VALUE;
+        walk:
+        while (true) {
+            List<TopParcelResponse> page = searchCacheRepository.findTopReusedAfter(lastCount, lastId, PageRequest.of(0, PAGE_SIZE));
+            for (TopParcelResponse row : page) {
+                lastCount = row.getReusageCount();
+                lastId = row.getCacheId();
+                if (pendingCounts.containsKey(row.getCacheId())) {
+                    continue; // already offered, merged
+                }
+                if (heap.size() == k && WEAKEST_FIRST.compare(row, heap.peek()) <= 0) {
+                    break walk;
+                }
+                if (matches(row, districtKey, since, pendingCounts)) {
+                    offer(heap, row, k);
+                }
+            }
+            if (page.size() < PAGE_SIZE) break;
+        }
+
+        List<TopParcelResponse> top = new ArrayList<>(heap);
+        top.sort(WEAKEST_FIRST.reversed());
+        return top;
+    }
+
+    private boolean matches(TopParcelResponse row, String districtKey, Instant since, Map<Long, Long> pendingCounts) {
+        if (districtKey != null && !districtKey.equals(ParcelKey.of("", "", row.getDistrict()).district())) {
+            return false;
+        }
+        // Unflushed reuses happened within the last flush interval, inside any window
+        return since == null
+                || pendingCounts.containsKey(row.getCacheId())
+                || (row.getLastReuseAt() != null && !row.getLastReuseAt().isBefore(since));
+    }
+
+    private TopParcelResponse merge(TopParcelResponse row, Map<Long, Long> pendingCounts) {
+        int stored = row.getReusageCount() == null ? 0 : row.getReusageCount();
+        row.setReusageCount(stored + pendingCounts.getOrDefault(row.getCacheId(), 0L).intValue());
+        return row;
+    }
+
+    private void offer(PriorityQueue<TopParcelResponse> heap, TopParcelResponse row, int k) {
+        heap.offer(row);
+        if (heap.size() > k) {
+            heap.poll();
+        }
+    }
+}
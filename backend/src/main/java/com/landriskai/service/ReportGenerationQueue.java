@@ -0,0 +1,142 @@
+package com.landriskai.service;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.domain.OrderStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded worker pool for asynchronous report generation.
+ * mock-pay enqueues the order here and returns immediately; clients poll the order status
+ * (GENERATING -> DELIVERED/FAILED) instead of holding a request thread for the whole render.
+ */
+@Slf4j
+@Service
+public class ReportGenerationQueue {
+
+    private final ReportService reportService;
+    private final OrderService orderService;
+    private final LandRiskAiProperties props;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public ReportGenerationQueue(ReportService reportService, OrderService orderService, LandRiskAiProperties props) {
+        this.reportService = reportService;
+        this.orderService = orderService;
+        this.props = props;
+
+        LandRiskAiProperties.Generation cfg = props.getGeneration();
+        int workers = Math.max(1, cfg.getWorkers());
+        this.executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, cfg.getQueueCapacity())),
+                new WorkerThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public boolean isAsyncEnabled() {
+        return props.getGeneration().isAsyncEnabled();
+    }
+
+    /**
+     * Mark the order GENERATING and hand it to a worker.
+     *
+     * @return true if the job was queued, false if the queue is full and the caller
+     *         should generate inline (CALLER_RUNS policy)
+     * @throws RejectedExecutionException if the queue is full and the policy is REJECT
+     */
+    public boolean submit(Long orderId) {
+        orderService.updateStatus(orderId, OrderStatus.GENERATING);
+        try {
+            executor.execute(() -> run(orderId));
+            submitted.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException ex) {
+            rejected.incrementAndGet();
+            // Not queued: put the order back so a retry or inline generation starts from PAID
+            orderService.updateStatus(orderId, OrderStatus.PAID);
+            if ("CALLER_RUNS".equalsIgnoreCase(props.getGeneration().getRejectionPolicy())) {
+                log.warn("[REPORT_QUEUE] Queue full, generating order {} on the caller thread", orderId);
+                return false;
+            }
+            log.warn("[REPORT_QUEUE] Queue full, rejecting order {}", orderId);
+            throw ex;
+        }
+    }
+
+    /**
+     * Queue an order that is already GENERATING (recovery). Its updateTime is touched so later
+     * recovery passes leave it alone while it waits; when the queue is full it stays GENERATING
+     * and a later pass tries again.
+     * @return false if the queue is full
+     */
+    public boolean resubmit(Long orderId) {
+        orderService.updateStatus(orderId, OrderStatus.GENERATING);
+        try {
+            executor.execute(() -> run(orderId));
+            submitted.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException ex) {
+            rejected.incrementAndGet();
+            return false;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("workers", executor.getMaximumPoolSize());
+        m.put("activeWorkers", executor.getActiveCount());
+        m.put("queueDepth", executor.getQueue().size());
+        m.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        m.put("submitted", submitted.get());
+        m.put("completed", executor.getCompletedTaskCount());
+        m.put("rejected", rejected.get());
+        m.put("failed", failed.get());
+        return m;
+    }
+
+    private void run(Long orderId) {
+        try {
+            // ReportService owns the status transitions, including FAILED on error
+            reportService.generateAndDeliver(orderId);
+        } catch (Exception ex) {
+            failed.incrementAndGet();
+            log.error("[REPORT_QUEUE] Report generation failed for order {}", orderId, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("[REPORT_QUEUE] {} queued report jobs dropped at shutdown", executor.shutdownNow().size());
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger seq = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "report-worker-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.landriskai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off drop of the unique constraint on lr_report.order_id. Reports used to map their order
+ * one-to-one, so schemas created before regenerated reports existed carry a single-column unique
+ * constraint there, and ddl-auto=update never removes it: the first regeneration of an order would
+ * fail on it. Runs at startup, idempotent: once dropped there is nothing left to find.
+ * Only a constraint on order_id alone is dropped; the regular idx_report_order index stays.
+ */
+@Slf4j
+@Component
+public class ReportOrderUniqueMigration implements ApplicationRunner {
+
+    private static final String FIND_SQL =
+            "SELECT tc.constraint_name FROM information_schema.table_constraints tc " +
+            "JOIN information_schema.key_column_usage k ON k.constraint_schema = tc.constraint_schema " +
+            "AND k.constraint_name = tc.constraint_name AND k.table_name = tc.table_name " +
+            "WHERE LOWER(tc.table_name) = 'lr_report' AND tc.constraint_type = 'UNIQUE' " +
+            "GROUP BY tc.constraint_name HAVING COUNT(*) = 1 AND MAX(LOWER(k.column_name)) = 'order_id'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReportOrderUniqueMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> constraints = jdbcTemplate.queryForList(FIND_SQL, String.class);
+        for (String name : constraints) {
+            jdbcTemplate.execute("ALTER TABLE lr_report DROP CONSTRAINT \"" + name.replace("\"", "\"\"") + "\"");
+            log.info("[REPORT] Dropped unique constraint {} on lr_report.order_id (reports of an order may now be regenerated)", name);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.landriskai.service;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.domain.OrderStatus;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.repo.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-drives orders left in GENERATING by a crashed worker or node.
+ * Report generation commits in several short transactions, so a crash can leave the
+ * order half-way; generateAndDeliver is idempotent per order and resumes from whatever
+ * was committed (report row, PDF, delivery).
+ * The re-drives run on the {@link ReportGenerationQueue} workers, not on the scheduler thread
+ * the other scheduled jobs share.
+ */
+@Slf4j
+@Component
+public class ReportRecoveryJob {
+
+    private final OrderRepository orderRepo;
+    private final ReportGenerationQueue generationQueue;
+    private final LandRiskAiProperties props;
+
+    public ReportRecoveryJob(OrderRepository orderRepo, ReportGenerationQueue generationQueue, LandRiskAiProperties props) {
+        this.orderRepo = orderRepo;
+        this.generationQueue = generationQueue;
+        this.props = props;
+    }
+
+    @Scheduled(
+            initialDelayString = "${landriskai.generation.recoveryIntervalSeconds:60}",
+            fixedDelayString = "${landriskai.generation.recoveryIntervalSeconds:60}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void recoverStuckOrders() {
+        Instant cutoff = Instant.now().minusSeconds(props.getGeneration().getStuckAfterMinutes() * 60L);
+        List<OrderEntity> stuck = orderRepo.findTop50ByStatusAndUpdateTimeBeforeOrderByUpdateTimeAsc(OrderStatus.GENERATING, cutoff);
+        if (stuck.isEmpty()) {
+            return;
+        }
+
+        log.warn("[REPORT_RECOVERY] Re-driving {} orders stuck in GENERATING since before {}", stuck.size(), cutoff);
+        int queued = 0;
+        for (OrderEntity order : stuck) {
+            if (!generationQueue.resubmit(order.getId())) {
+                // The rest stay GENERATING for the next pass
+                break;
+            }
+            queued++;
+        }
+        if (queued < stuck.size()) {
+            log.warn("[REPORT_RECOVERY] Generation queue full: {} of {} orders queued", queued, stuck.size());
+        }
+    }
+}
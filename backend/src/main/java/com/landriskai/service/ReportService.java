@@ -3,20 +3,32 @@ package com.landriskai.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.landriskai.config.LandRiskAiProperties;
 import com.landriskai.domain.OrderStatus;
+import com.landriskai.domain.ParcelKey;
 import com.landriskai.entity.OrderEntity;
 import com.landriskai.entity.ReportEntity;
 import com.landriskai.entity.SearchCacheEntity;
 import com.landriskai.notify.WhatsAppService;
 import com.landriskai.pdf.PdfReportService;
 import com.landriskai.repo.ReportRepository;
-import com.landriskai.repo.SearchCacheRepository;
 import com.landriskai.risk.RiskEngine;
+import com.landriskai.risk.RiskFinding;
+import com.landriskai.risk.RiskInputKey;
 import com.landriskai.risk.RiskResult;
+import com.landriskai.risk.rules.RuleSet;
+import com.landriskai.storage.ReportStore;
+import com.landriskai.util.SingleFlight;
+import com.landriskai.util.TeeOutputStream;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -25,7 +37,13 @@ import java.time.format.DateTimeFormatter;
 import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+@Slf4j
 @Service
 public class ReportService {
 
@@ -33,53 +51,189 @@ public class ReportService {
     private final OrderService orderService;
     private final RiskEngine riskEngine;
     private final PdfReportService pdfReportService;
+    private final ReportStore reportStore;
     private final LandRiskAiProperties props;
     private final WhatsAppService whatsAppService;
-    private final SearchCacheRepository searchCacheRepository;
+    private final SearchCacheService searchCacheService;
+    private final CacheReuseCounters cacheReuseCounters;
+    private final PdfWriteBehind pdfWriteBehind;
+    private final TransactionTemplate transactionTemplate;
     private final ObjectMapper mapper = new ObjectMapper();
     private final SecureRandom random = new SecureRandom();
+    private final SingleFlight<Long, ReportEntity> orderFlights = new SingleFlight<>();
+    // Keyed by report id: work on one report of an order must never hand back another
+    private final SingleFlight<Long, ReportEntity> reportFlights = new SingleFlight<>();
+    private final SingleFlight<Long, ReportEntity> regenerateFlights = new SingleFlight<>();
+    private final SingleFlight<RiskInputKey, ParcelArtifacts> parcelFlights = new SingleFlight<>();
+    private final AtomicLong cacheServed = new AtomicLong();
+    private final AtomicLong cacheServedNanos = new AtomicLong();
+    private final AtomicLong freshlyComputed = new AtomicLong();
+    private final AtomicLong freshlyComputedNanos = new AtomicLong();
+    private final AtomicLong servedFromFile = new AtomicLong();
+    private final AtomicLong streamed = new AtomicLong();
+    private final AtomicLong streamedNanos = new AtomicLong();
+    private final AtomicLong streamedBytes = new AtomicLong();
+    private final AtomicLong clientAborts = new AtomicLong();
+    private final ReentrantLock[] parcelLocks = new ReentrantLock[64];
 
     public ReportService(
             ReportRepository reportRepo,
             OrderService orderService,
             RiskEngine riskEngine,
             PdfReportService pdfReportService,
+            ReportStore reportStore,
             LandRiskAiProperties props,
             WhatsAppService whatsAppService,
-            SearchCacheRepository searchCacheRepository
+            SearchCacheService searchCacheService,
+            CacheReuseCounters cacheReuseCounters,
+            PdfWriteBehind pdfWriteBehind,
+            PlatformTransactionManager transactionManager
     ) {
         this.reportRepo = reportRepo;
         this.orderService = orderService;
         this.riskEngine = riskEngine;
         this.pdfReportService = pdfReportService;
+        this.reportStore = reportStore;
         this.props = props;
         this.whatsAppService = whatsAppService;
-        this.searchCacheRepository = searchCacheRepository;
+        this.searchCacheService = searchCacheService;
+        this.cacheReuseCounters = cacheReuseCounters;
+        this.pdfWriteBehind = pdfWriteBehind;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < parcelLocks.length; i++) {
+            parcelLocks[i] = new ReentrantLock();
+        }
     }
 
-    @Transactional
+    /**
+     * Generate (or re-serve) the report for a paid order.
+     * Not transactional on purpose: each persistence step below runs in its own short
+     * transaction so no pooled connection is held across risk assessment, PDF rendering
+     * or the WhatsApp send. A failure marks the order FAILED; a crash mid-way leaves it
+     * GENERATING, which {@link ReportRecoveryJob} picks up.
+     * Concurrent calls for the same order (client retries, recovery) share one execution.
+     */
     public ReportEntity generateAndDeliver(Long orderId) throws Exception {
-        ReportEntity existing = reportRepo.findByOrder_Id(orderId).orElse(null);
-        if (existing != null) {
-            return ensureReferenceAndArtifacts(existing);
-        }
-        return generateAndDeliverInternal(orderId);
+        return orderFlights.execute(orderId, () -> generateAndDeliverOnce(orderId));
     }
 
-    @Transactional
+    /**
+     * Concurrent calls for the same report (downloads, redelivery) share one execution
+     */
     public ReportEntity ensureReferenceAndArtifactsByReportId(Long reportId) throws Exception {
-        ReportEntity report = reportRepo.findById(reportId)
-                .orElseThrow(() -> new IllegalArgumentException("Report not found: " + reportId));
-        return ensureReferenceAndArtifacts(report);
+        return reportFlights.execute(reportId, () -> ensureReferenceAndArtifacts(reportRepo.findById(reportId)
+                .orElseThrow(() -> new IllegalArgumentException("Report not found: " + reportId))));
+    }
+
+    /**
+     * What a download of the report needs: its stored PDF, or (storage.streamDownloads) the base
+     * document to stamp into the response. The report's reference and summary are brought up to date first.
+     */
+    public PdfDownload prepareDownload(Long reportId) throws Exception {
+        ReportEntity report = ensureReferenceAndArtifactsByReportId(reportId);
+        if (!needsPdfRefresh(report)) {
+            servedFromFile.incrementAndGet();
+            return new PdfDownload(report, report.getPdfPath(), reportStore.localFile(report.getPdfPath()).toFile(), null);
+        }
+        // Only reachable in streaming mode: otherwise the PDF was just stamped to disk
+        return new PdfDownload(report, null, null, recordedBase(report).baseKey());
+    }
+
+    /**
+     * Stamp a download without a stored PDF straight into {@code out}. With storage.writeThrough
+     * the bytes are also persisted in the background, even if the client went away mid-transfer.
+     */
+    public void writePdf(PdfDownload download, OutputStream out) throws IOException {
+        ReportEntity report = download.report();
+        long started = System.nanoTime();
+        boolean writeThrough = props.getStorage().isWriteThrough();
+        TeeOutputStream tee = writeThrough ? new TeeOutputStream(out, 32 * 1024) : null;
+        pdfReportService.stamp(reportStore.localFile(download.baseKey()), report.getOrder(), report.getId(),
+                report.getVerificationCode(), report.getReferenceNo(), report.getGeneratedAt(), writeThrough ? tee : out);
+        if (writeThrough) {
+            tee.flush();
+            byte[] pdf = tee.copy();
+            pdfWriteBehind.submit(report.getId(), pdf);
+            streamedBytes.addAndGet(pdf.length);
+            if (tee.primaryFailure() != null) {
+                clientAborts.incrementAndGet();
+                throw tee.primaryFailure();
+            }
+        } else {
+            out.flush();
+        }
+        streamed.incrementAndGet();
+        streamedNanos.addAndGet(System.nanoTime() - started);
+    }
+
+    /**
+     * Downloads served from a stored PDF vs. stamped into the response, with mean stamp-and-send time
+     */
+    public Map<String, Object> downloadStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("servedFromFile", servedFromFile.get());
+        m.put("streamed", streamed.get());
+        m.put("streamedAvgMs", avgMillis(streamedNanos.get(), streamed.get()));
+        m.put("streamedBytes", streamedBytes.get());
+        m.put("clientAbortsPersisted", clientAborts.get()); // clients gone mid-transfer whose PDF was still kept
+        return m;
+    }
+
+    /**
+     * Single-flight counters: "order" coalesces whole generations per order id, "report" the
+     * reference/PDF refresh of one report, "regenerate" regenerations of one parent report,
+     * "parcel" risk scoring + base rendering per exact risk inputs across orders.
+     */
+    public Map<String, Object> flightStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("order", orderFlights.stats());
+        m.put("report", reportFlights.stats());
+        m.put("regenerate", regenerateFlights.stats());
+        m.put("parcel", parcelFlights.stats());
+        return m;
+    }
+
+    /**
+     * Reports stamped onto a cached base vs. freshly assessed and rendered, with mean render latency.
+     */
+    public Map<String, Object> sourceStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("cacheServed", cacheServed.get());
+        m.put("cacheServedAvgMs", avgMillis(cacheServedNanos.get(), cacheServed.get()));
+        m.put("freshlyComputed", freshlyComputed.get());
+        m.put("freshlyComputedAvgMs", avgMillis(freshlyComputedNanos.get(), freshlyComputed.get()));
+        return m;
+    }
+
+    private ReportEntity generateAndDeliverOnce(Long orderId) throws Exception {
+        try {
+            ReportEntity existing = reportRepo.findFirstByOrder_IdOrderByIdDesc(orderId).orElse(null);
+            if (existing != null) {
+                return redeliverExisting(existing);
+            }
+            return generateAndDeliverInternal(orderId);
+        } catch (Exception ex) {
+            markFailed(orderId);
+            throw ex;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ReportEntity> findByOrderId(Long orderId) {
+        return reportRepo.findFirstByOrder_IdOrderByIdDesc(orderId);
     }
 
     private ReportEntity generateAndDeliverInternal(Long orderId) throws Exception {
+        // tx 1: status transition
         OrderEntity order = orderService.updateStatus(orderId, OrderStatus.GENERATING);
 
-        RiskResult result = riskEngine.assess(order);
+        // Cache hit: reuse the parcel's assessment and base document. Miss: assess + render base.
+        long started = System.nanoTime();
+        ParcelArtifacts artifacts = prepareArtifacts(order);
+        RiskResult result = artifacts.result();
         String verificationCode = newVerificationCode();
 
-        // Save report first to get reportId
+        // tx 2: save report first to get reportId (each retry is its own insert)
         ReportEntity report = ReportEntity.builder()
                 .order(order)
                 .riskBand(result.getBand())
@@ -90,21 +244,53 @@ public class ReportService {
                 .generatedAt(Instant.now())
                 .summaryJson("{}")
                 .build();
+        stampRuleSet(report, artifacts);
 
         report = saveWithReferenceNoRetry(report);
 
-        String pdfPath = pdfReportService.generatePdf(order, result, report.getId(), verificationCode, report.getReferenceNo());
+        // File I/O: only the per-order parts are laid out here
+        report.setPdfPath(stampOrDefer(artifacts.baseKey(), order, report));
+        recordSource(artifacts.fromCache(), System.nanoTime() - started);
 
-        report.setPdfPath(pdfPath);
         report.setSummaryJson(buildSummaryJson(report, order, result));
-        report = reportRepo.save(report);
 
+        // tx 3: attach artifacts and refresh the search cache together
         // Cache the report for 7 days (with user identification for discount eligibility)
         // CRITICAL: Store email + whatsapp to track WHO created this cache
         // Only same user (same email + whatsapp) gets 80% discount on repeat searches
         // Different users pay full price (but can use cached PDF for faster delivery)
-        saveToCache(order, report, result);
+        // Same-parcel orders upsert one cache row; serialize them here instead of racing the unique searchHash
+        ReportEntity toSave = report;
+        ReentrantLock parcelLock = parcelLock(ParcelKey.of(order));
+        parcelLock.lock();
+        try {
+            report = transactionTemplate.execute(status -> {
+                reportStore.retain(toSave.getPdfPath());
+                ReportEntity saved = reportRepo.save(toSave);
+                saveToCache(order, artifacts);
+                return saved;
+            });
+        } finally {
+            parcelLock.unlock();
+        }
 
+        // Network I/O + tx 4
+        return deliver(report, order);
+    }
+
+    private ReportEntity redeliverExisting(ReportEntity existing) throws Exception {
+        ReportEntity report = reportFlights.execute(existing.getId(), () -> ensureReferenceAndArtifacts(existing));
+        if (report.getDeliveryStatus() != ReportEntity.ReportDeliveryStatus.DELIVERED) {
+            // Previous attempt stopped before the WhatsApp send completed
+            return deliver(report, report.getOrder());
+        }
+        if (report.getOrder().getStatus() != OrderStatus.DELIVERED) {
+            report.setOrder(orderService.updateStatus(report.getOrder().getId(), OrderStatus.DELIVERED));
+        }
+        return report;
+    }
+
+    private ReportEntity deliver(ReportEntity report, OrderEntity order) {
         // Construct links
         String base = props.getLinks().getBaseUrl();
         String downloadUrl = base + "/api/reports/" + report.getId() + "/download";
@@ -119,8 +305,21 @@ public class ReportService {
                 ". Khata/Khesra: " + khata + " / " + khesra +
                 ". Download: " + downloadUrl + " | Verify: " + verifyUrl);
 
-        orderService.updateStatus(orderId, OrderStatus.DELIVERED);
-        return report;
+        report.setDeliveryStatus(ReportEntity.ReportDeliveryStatus.DELIVERED);
+        ReportEntity toSave = report;
+        return transactionTemplate.execute(status -> {
+            ReportEntity saved = reportRepo.save(toSave);
+            saved.setOrder(orderService.updateStatus(order.getId(), OrderStatus.DELIVERED));
+            return saved;
+        });
+    }
+
+    private void markFailed(Long orderId) {
+        try {
+            orderService.updateStatus(orderId, OrderStatus.FAILED);
+        } catch (Exception ex) {
+            log.error("Could not mark order {} as FAILED", orderId, ex);
+        }
     }
 
     private ReportEntity ensureReferenceAndArtifacts(ReportEntity report) throws Exception {
@@ -129,29 +328,185 @@ public class ReportService {
             report = saveWithReferenceNoRetry(report);
         }
 
-        if (referenceWasMissing || needsPdfRefresh(report)) {
+        // Streamed downloads stamp on demand: a missing PDF alone is no reason to assess again
+        boolean pdfMissing = needsPdfRefresh(report)
+                && (!props.getStorage().isStreamDownloads() || needsSummary(report));
+        // Reports from before results were recorded get theirs once
+        boolean resultMissing = report.getRiskAnalysisJson() == null;
+        if (referenceWasMissing || pdfMissing || resultMissing) {
             OrderEntity order = report.getOrder();
-            RiskResult result = riskEngine.assess(order);
+            RecordedBase base = recordedBase(report);
             String verificationCode = report.getVerificationCode();
             if (verificationCode == null || verificationCode.isBlank()) {
                 verificationCode = newVerificationCode();
                 report.setVerificationCode(verificationCode);
             }
 
-            String pdfPath = pdfReportService.generatePdf(
-                    order,
-                    result,
-                    report.getId(),
-                    verificationCode,
-                    report.getReferenceNo()
-            );
+            String previousKey = report.getPdfPath();
+            if (referenceWasMissing || pdfMissing || base.rescored()) {
+                report.setPdfPath(stampOrDefer(base.baseKey(), order, report));
+            }
+            report.setSummaryJson(buildSummaryJson(report, order, base.result()));
+            report = saveWithPdf(report, previousKey);
+        }
+
+        return report;
+    }
 
-            report.setPdfPath(pdfPath);
+    /**
+     * New report superseding {@code parentReportId} with the active rule set's result, e.g. after
+     * a rule change altered the parent's score. Becomes the order's current report; the customer
+     * is not re-notified and the search cache is left to refresh on the next order.
+     * Returns the order's current report unchanged if the parent was already superseded.
+     * Concurrent calls for the same parent share one execution.
+     */
+    public ReportEntity regenerate(Long parentReportId) throws Exception {
+        ReportEntity parent = reportRepo.findById(parentReportId)
+                .orElseThrow(() -> new IllegalArgumentException("Report not found: " + parentReportId));
+        Long orderId = parent.getOrder().getId();
+        return regenerateFlights.execute(parentReportId, () -> {
+            ReportEntity latest = reportRepo.findFirstByOrder_IdOrderByIdDesc(orderId).orElse(parent);
+            if (!latest.getId().equals(parentReportId)) {
+                return latest;
+            }
+            OrderEntity order = parent.getOrder();
+            ParcelArtifacts artifacts = prepareArtifacts(order);
+            RiskResult result = artifacts.result();
+            String verificationCode = newVerificationCode();
+
+            ReportEntity report = ReportEntity.builder()
+                    .order(order)
+                    .riskBand(result.getBand())
+                    .riskScore(result.getScore())
+                    .verificationCode(verificationCode)
+                    .referenceNo("PENDING")
+                    .pdfPath("PENDING")
+                    .deliveryStatus(parent.getDeliveryStatus())
+                    .isRegenerated(true)
+                    .parentReportId(parent.getId())
+                    .generatedAt(Instant.now())
+                    .summaryJson("{}")
+                    .build();
+            stampRuleSet(report, artifacts);
+            report = saveWithReferenceNoRetry(report);
+
+            report.setPdfPath(stampOrDefer(artifacts.baseKey(), order, report));
             report.setSummaryJson(buildSummaryJson(report, order, result));
-            report = reportRepo.save(report);
+            return saveWithPdf(report, "PENDING");
+        });
+    }
+
+    /**
+     * Risk result + base document for the order's risk inputs. Served from a valid search-cache
+     * row when its inputs match exactly; otherwise assessed and rendered. Buyers submitting the same
+     * inputs at the same moment share one execution.
+     */
+    private ParcelArtifacts prepareArtifacts(OrderEntity order) throws Exception {
+        RiskInputKey key = RiskInputKey.of(order);
+        return parcelFlights.execute(key, () -> {
+            RuleSet ruleSet = riskEngine.ruleSet();
+            ParcelArtifacts cached = fromCache(order, key, ruleSet);
+            if (cached != null) {
+                return cached;
+            }
+            RiskResult result = riskEngine.assess(ruleSet, order);
+            String baseKey = reportStore.write(out -> pdfReportService.renderBase(order, result, out));
+            return new ParcelArtifacts(result, baseKey, false, ruleSet);
+        });
+    }
+
+    private ParcelArtifacts fromCache(OrderEntity order, RiskInputKey key, RuleSet ruleSet) {
+        SearchCacheEntity cache = searchCacheService.findValid(
+                order.getKhata(), order.getKhesra(), order.getDistrict());
+        // The cached assessment is only valid for the exact inputs and rule set it was computed with
+        if (cache == null || cache.getRiskAnalysisJson() == null || !key.equals(RiskInputKey.of(cache))
+                || !ruleSet.version().equals(cache.getRuleSetVersion())) {
+            return null;
         }
+        String baseKey = cache.getPdfPath();
+        if (!reportStore.exists(baseKey)) {
+            return null;
+        }
+        try {
+            RiskResult result = mapper.readValue(cache.getRiskAnalysisJson(), RiskResult.class);
+            // A data source missed its deadline last time: assess again rather than reuse unchecked findings
+            if (result.isPartial()) {
+                return null;
+            }
+            return new ParcelArtifacts(result, baseKey, true, ruleSet);
+        } catch (Exception ex) {
+            log.warn("Ignoring unreadable cached risk analysis for cache {}", cache.getId(), ex);
+            return null;
+        }
+    }
 
-        return report;
+    /**
+     * Base document for the result the report recorded, so a re-stamped PDF agrees with the
+     * report's band, score, summary and rule-set fields after any rule change. Taken from the
+     * search cache when its row holds that very result, rendered again otherwise (bases are
+     * deterministic, so this usually lands on the blob already stored).
+     * A report from before results were recorded is assessed under the active rule set and takes
+     * that result, band and score included; the caller saves the row together with its new PDF.
+     */
+    private RecordedBase recordedBase(ReportEntity report) throws Exception {
+        OrderEntity order = report.getOrder();
+        if (report.getRiskAnalysisJson() == null) {
+            ParcelArtifacts artifacts = prepareArtifacts(order);
+            RiskResult result = artifacts.result();
+            boolean rescored = result.getScore() != report.getRiskScore() || result.getBand() != report.getRiskBand()
+                    || (report.getFindingCodes() != null && !findingCodes(result).equals(report.getFindingCodes()));
+            report.setRiskBand(result.getBand());
+            report.setRiskScore(result.getScore());
+            stampRuleSet(report, artifacts);
+            return new RecordedBase(result, artifacts.baseKey(), rescored);
+        }
+        RiskResult recorded = mapper.readValue(report.getRiskAnalysisJson(), RiskResult.class);
+        SearchCacheEntity cache = searchCacheService.findValid(order.getKhata(), order.getKhesra(), order.getDistrict());
+        if (cache != null && report.getRiskAnalysisJson().equals(cache.getRiskAnalysisJson())
+                && RiskInputKey.of(order).equals(RiskInputKey.of(cache)) && reportStore.exists(cache.getPdfPath())) {
+            return new RecordedBase(recorded, cache.getPdfPath(), false);
+        }
+        String baseKey = reportStore.write(out -> pdfReportService.renderBase(order, recorded, out));
+        return new RecordedBase(recorded, baseKey, false);
+    }
+
+    /**
+     * Record the result on the report together with the rule set that produced it
+     */
+    private void stampRuleSet(ReportEntity report, ParcelArtifacts artifacts) {
+        report.setRuleSetVersion(artifacts.ruleSet().version());
+        report.setRuleVersions(String.join(",", artifacts.ruleSet().ruleVersions()));
+        report.setFindingCodes(findingCodes(artifacts.result()));
+        report.setRiskAnalysisJson(safeJson(artifacts.result()));
+    }
+
+    /**
+     * Comma separated finding codes, as recorded on {@link ReportEntity#getFindingCodes()}
+     */
+    public static String findingCodes(RiskResult result) {
+        StringJoiner codes = new StringJoiner(",");
+        for (RiskFinding finding : result.getFindings()) {
+            codes.add(finding.getCode());
+        }
+        return codes.toString();
+    }
+
+    private void recordSource(boolean fromCache, long nanos) {
+        if (fromCache) {
+            cacheServed.incrementAndGet();
+            cacheServedNanos.addAndGet(nanos);
+        } else {
+            freshlyComputed.incrementAndGet();
+            freshlyComputedNanos.addAndGet(nanos);
+        }
+    }
+
+    private double avgMillis(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1_000_000.0 / count;
+    }
+
+    private ReentrantLock parcelLock(ParcelKey key) {
+        return parcelLocks[Math.floorMod(key.hashCode(), parcelLocks.length)];
     }
 
     private String buildSummaryJson(ReportEntity report, OrderEntity order, RiskResult result) throws Exception {
@@ -175,13 +530,54 @@ public class ReportService {
         return mapper.writeValueAsString(summary);
     }
 
-    private boolean needsPdfRefresh(ReportEntity report) {
-        String pdfPath = report.getPdfPath();
-        if (pdfPath == null || pdfPath.isBlank() || "PENDING".equalsIgnoreCase(pdfPath)) {
-            return true;
+    /**
+     * Stamp the report's PDF into the store, or leave it PENDING for the first download to stamp
+     * (storage.streamDownloads)
+     * @return the report's pdfPath: a store key or PENDING
+     */
+    private String stampOrDefer(String baseKey, OrderEntity order, ReportEntity report) throws Exception {
+        if (props.getStorage().isStreamDownloads()) {
+            return "PENDING";
         }
-        File file = new File(pdfPath);
-        return !file.exists() || file.length() == 0;
+        Path base = reportStore.localFile(baseKey);
+        return reportStore.write(out -> pdfReportService.stamp(
+                base, order, report.getId(), report.getVerificationCode(), report.getReferenceNo(),
+                report.getGeneratedAt(), out));
+    }
+
+    /**
+     * Save the report with its current pdfPath: a new key is referenced in the same transaction
+     * as the row, the replaced key released once the row no longer points at it. A newly attached
+     * PDF gets a full retention period, or the sweeper would detach it again right away.
+     */
+    private ReportEntity saveWithPdf(ReportEntity report, String previousKey) {
+        String key = report.getPdfPath();
+        boolean changed = !Objects.equals(key, previousKey);
+        if (changed && !"PENDING".equals(key)) {
+            report.setPdfExpiresAt(Instant.now().plusSeconds(ReportEntity.PDF_RETENTION_SECONDS));
+        }
+        ReportEntity saved = transactionTemplate.execute(status -> {
+            if (changed) {
+                reportStore.retain(key);
+            }
+            return reportRepo.save(report);
+        });
+        if (changed) {
+            reportStore.release(previousKey);
+        }
+        return saved;
+    }
+
+    private boolean needsSummary(ReportEntity report) {
+        String summary = report.getSummaryJson();
+        return summary == null || summary.isBlank() || "{}".equals(summary);
+    }
+
+    /**
+     * PENDING, or the stored PDF is gone
+     */
+    private boolean needsPdfRefresh(ReportEntity report) {
+        return !reportStore.exists(report.getPdfPath());
     }
 
     /**
@@ -191,48 +587,66 @@ public class ReportService {
      * - Same user (email + whatsapp match): 80% discount (Rs 25 -> Rs 5)
      * - Different user: Full price (Rs 25) but can use cached PDF
      */
-    private void saveToCache(OrderEntity order, ReportEntity report, RiskResult result) {
-        SearchCacheEntity existingCache = searchCacheRepository.findValidByLandIdentifiers(
-                order.getKhata(), order.getKhesra(), order.getDistrict());
+    private void saveToCache(OrderEntity order, ParcelArtifacts artifacts) {
+        ParcelKey parcel = ParcelKey.of(order);
+        SearchCacheEntity cache = searchCacheService.findForUpdate(parcel);
 
-        SearchCacheEntity cache;
-        if (existingCache != null) {
+        if (cache != null && cache.isValid()) {
             // Update existing cache with new user info
-            cache = existingCache;
             cache.setLastUserEmail(order.getEmailAddress() != null ? order.getEmailAddress() : "unknown");
             cache.setLastUserWhatsapp(order.getWhatsappNumber());
-            cache.setOwnerName(order.getOwnerName());
-            cache.setPlotArea(order.getPlotArea());
-            cache.setLastReuseAt(Instant.now());
-            cache.setReusageCount(cache.getReusageCount() + 1);
+            // Counters are write-behind: no read-modify-write of this row per reuse
+            cacheReuseCounters.recordReuse(cache.getId(),
+                    order.getAmountPaise() == null ? 0 : order.getAmountPaise(), Instant.now());
+            if (!artifacts.fromCache()) {
+                // Different inputs were assessed: the cached analysis now describes this order's inputs
+                applyAssessment(cache, order, artifacts);
+            }
         } else {
-            // Create new cache entry with this user's info
-            cache = SearchCacheEntity.builder()
-                    .khata(order.getKhata())
-                    .khesra(order.getKhesra())
-                    .district(order.getDistrict())
-                    .circle(order.getCircle())
-                    .village(order.getVillage())
-                    .searchHash(generateSearchHash(order))
-                    .lastUserEmail(order.getEmailAddress() != null ? order.getEmailAddress() : "unknown")
-                    .lastUserWhatsapp(order.getWhatsappNumber())
-                    .ownerName(order.getOwnerName())
-                    .plotArea(order.getPlotArea())
-                    .riskAnalysisJson(safeJson(result))  // Serialize entire RiskResult
-                    .findingsJson(safeJson(result.getFindings()))
-                    .riskBand(result.getBand().name())
-                    .riskScore(result.getScore())
-                    .pdfPath(report.getPdfPath())
-                    .build();
-            // expiresAt is set automatically in @PrePersist to now() + 7 days
+            if (cache == null) {
+                // Create new cache entry; expiresAt is set automatically in @PrePersist to now() + 7 days
+                cache = SearchCacheEntity.builder()
+                        .searchHash(parcel.searchHash())
+                        .build();
+            } else {
+                // Expired row for the same parcel: searchHash is unique, so start it over in place
+                cache.setExpiresAt(Instant.now().plusSeconds(7 * 24 * 60 * 60));
+                cache.setReusageCount(0);
+                cache.setLastReuseAt(null);
+                cache.setTotalRevenueFromReusagePaise(0L);
+                cacheReuseCounters.discard(cache.getId());
+            }
+            cache.setLastUserEmail(order.getEmailAddress() != null ? order.getEmailAddress() : "unknown");
+            cache.setLastUserWhatsapp(order.getWhatsappNumber());
+            applyAssessment(cache, order, artifacts);
         }
 
-        searchCacheRepository.save(cache);
+        searchCacheService.save(cache);
     }
 
-    private String generateSearchHash(OrderEntity order) {
-        String key = order.getKhata() + "|" + order.getKhesra() + "|" + order.getDistrict();
-        return Integer.toHexString(key.hashCode());
+    private void applyAssessment(SearchCacheEntity cache, OrderEntity order, ParcelArtifacts artifacts) {
+        RiskResult result = artifacts.result();
+        // The exact inputs the analysis was computed from (the row's parcel may have been typed differently)
+        cache.setKhata(order.getKhata());
+        cache.setKhesra(order.getKhesra());
+        cache.setDistrict(order.getDistrict());
+        cache.setCircle(order.getCircle());
+        cache.setVillage(order.getVillage());
+        cache.setOwnerName(order.getOwnerName());
+        cache.setPlotArea(order.getPlotArea());
+        cache.setRiskAnalysisJson(safeJson(result));  // Serialize entire RiskResult
+        cache.setFindingsJson(safeJson(result.getFindings()));
+        cache.setRiskBand(result.getBand().name());
+        cache.setRiskScore(result.getScore());
+        cache.setRuleSetVersion(artifacts.ruleSet().version());
+        // Base document, stamped per order; the row holds one reference to it
+        String previousBase = cache.getPdfPath();
+        if (!Objects.equals(previousBase, artifacts.baseKey())) {
+            reportStore.retain(artifacts.baseKey());
+            reportStore.release(previousBase);
+        }
+        cache.setPdfPath(artifacts.baseKey());
+        cache.setPdfGeneratedAt(Instant.now());
     }
 
     private String safeJson(Object obj) {
@@ -284,5 +698,25 @@ public class ReportService {
     private String displayIdentifier(String value) {
         return value == null || value.isBlank() ? "Not provided" : value;
     }
-}
 
+    /**
+     * Parcel-level inputs to a report: shared by every order for the same parcel inputs.
+     */
+    private record ParcelArtifacts(RiskResult result, String baseKey, boolean fromCache, RuleSet ruleSet) {}
+
+    /**
+     * Base document for a report's recorded result
+     * @param rescored the report had no recorded result and its band, score or findings changed on assessment
+     */
+    private record RecordedBase(RiskResult result, String baseKey, boolean rescored) {}
+
+    /**
+     * A report's stored PDF, or the base document to stamp it from when none is stored
+     * @param pdfKey store key (SHA-256) of the stored PDF, null when it is to be stamped into the response
+     */
+    public record PdfDownload(ReportEntity report, String pdfKey, File file, String baseKey) {
+        public boolean isStored() {
+            return file != null;
+        }
+    }
+}
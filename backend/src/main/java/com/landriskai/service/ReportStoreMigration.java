@@ -0,0 +1,128 @@
+package com.landriskai.service;
+
+import com.landriskai.repo.ReportRepository;
+import com.landriskai.repo.SearchCacheRepository;
+import com.landriskai.storage.ReportStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One-off move of PDFs from the flat storage.reportDir layout (LandRiskAI_Report_<id>.pdf,
+ * LandRiskAI_Base_<uuid>.pdf) into the {@link ReportStore}. Runs at startup, idempotent: rows
+ * already holding a store key are never selected.
+ * - reports and search-cache rows get the key of their file and one reference to it; a row whose
+ *   file is gone gets PENDING (report, re-rendered on download) or no base (cache row, re-rendered
+ *   on the next order)
+ * - flat files no row points at are imported unreferenced, so the sweeper removes them after
+ *   storage.unreferencedGraceMinutes
+ */
+@Slf4j
+@Component
+public class ReportStoreMigration implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final ReportRepository reportRepository;
+    private final SearchCacheRepository searchCacheRepository;
+    private final ReportStore reportStore;
+    private final TransactionTemplate tx;
+
+    public ReportStoreMigration(ReportRepository reportRepository,
+                                SearchCacheRepository searchCacheRepository,
+                                ReportStore reportStore,
+                                PlatformTransactionManager transactionManager) {
+        this.reportRepository = reportRepository;
+        this.searchCacheRepository = searchCacheRepository;
+        this.reportStore = reportStore;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int reports = 0;
+        int missing = 0;
+        long lastId = 0;
+        List<Object[]> page;
+        do {
+            page = reportRepository.findLegacyPdfPathsAfter(lastId, PageRequest.of(0, PAGE_SIZE));
+            for (Object[] row : page) {
+                Long id = (Long) row[0];
+                lastId = id;
+                String key = importFile((String) row[1]);
+                // One short transaction per row so a bad row can't roll back the rest
+                tx.executeWithoutResult(status -> {
+                    reportStore.retain(key);
+                    reportRepository.attachPdf(id, key == null ? "PENDING" : key, Instant.now());
+                });
+                if (key == null) missing++; else reports++;
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        int bases = 0;
+        lastId = 0;
+        do {
+            page = searchCacheRepository.findLegacyPdfPathsAfter(lastId, PageRequest.of(0, PAGE_SIZE));
+            for (Object[] row : page) {
+                Long id = (Long) row[0];
+                lastId = id;
+                String key = importFile((String) row[1]);
+                tx.executeWithoutResult(status -> {
+                    reportStore.retain(key);
+                    searchCacheRepository.setPdfPath(id, key);
+                });
+                if (key == null) missing++; else bases++;
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        int unreferenced = importLeftovers();
+        if (reports + bases + missing + unreferenced > 0) {
+            log.info("[REPORT_STORE] Migrated {} report PDFs and {} base documents into {} ({} files missing, {} unreferenced)",
+                    reports, bases, reportStore.root(), missing, unreferenced);
+        }
+    }
+
+    /**
+     * @return the file's store key, null if there is no such file
+     */
+    private String importFile(String legacyPath) {
+        if (legacyPath == null || legacyPath.isBlank()) {
+            return null;
+        }
+        try {
+            Path file = Path.of(legacyPath);
+            return Files.isRegularFile(file) ? reportStore.importFile(file) : null;
+        } catch (Exception ex) {
+            log.warn("[REPORT_STORE] Could not migrate {}: {}", legacyPath, ex.getMessage());
+            return null;
+        }
+    }
+
+    private int importLeftovers() {
+        int imported = 0;
+        if (!Files.isDirectory(reportStore.root())) {
+            return 0;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(reportStore.root(), "LandRiskAI_*.pdf")) {
+            for (Path file : files) {
+                if (importFile(file.toString()) != null) {
+                    imported++;
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("[REPORT_STORE] Could not list {}: {}", reportStore.root(), ex.getMessage());
+        }
+        return imported;
+    }
+}
@@ -0,0 +1,320 @@
+package com.landriskai.service;
+
+import com.landriskai.api.dto.RescoreJobResponse;
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.entity.RescoreJobEntity;
+import com.landriskai.entity.ReportEntity;
+import com.landriskai.repo.RescoreJobRepository;
+import com.landriskai.repo.ReportRepository;
+import com.landriskai.risk.RiskEngine;
+import com.landriskai.risk.RiskInputKey;
+import com.landriskai.risk.RiskResult;
+import com.landriskai.risk.rules.RiskRule;
+import com.landriskai.risk.rules.RuleSet;
+import com.landriskai.risk.rules.SourceBackedRule;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brings stored reports up to the active rule set after a rule change, doing only the work the
+ * change requires. Each report records its rule-set version, the "id@version" of its rules and
+ * its finding codes; for every current report (latest per order) on another version:
+ * - no rule changed since it was scored, or no changed/removed rule produced one of its findings
+ *   and no changed rule fires for its inputs now -> untouched, only the version is updated
+ * - otherwise it is re-assessed; same score, band and findings -> unchanged, version updated
+ * - a different result -> a regenerated report (isRegenerated, parentReportId) supersedes it
+ * Jobs run one at a time on a single worker, in chunks of risk.rescoreChunkSize reports. The
+ * version updates and the job's counters and checkpoint are saved in one transaction per chunk;
+ * a job left RUNNING by a shutdown resumes from its checkpoint at startup.
+ */
+@Slf4j
+@Service
+public class RescoreService {
+
+    private final RescoreJobRepository jobRepo;
+    private final ReportRepository reportRepo;
+    private final ReportService reportService;
+    private final RiskEngine riskEngine;
+    private final LandRiskAiProperties props;
+    private final TransactionTemplate tx;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "rescore");
+        t.setDaemon(true);
+        return t;
+    });
+    private long nextProbeNanos; // source probe pacing, worker thread only
+
+    public RescoreService(RescoreJobRepository jobRepo,
+                          ReportRepository reportRepo,
+                          ReportService reportService,
+                          RiskEngine riskEngine,
+                          LandRiskAiProperties props,
+                          PlatformTransactionManager transactionManager) {
+        this.jobRepo = jobRepo;
+        this.reportRepo = reportRepo;
+        this.reportService = reportService;
+        this.riskEngine = riskEngine;
+        this.props = props;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Start a job for the active rule set, or return the one already running for it
+     */
+    public synchronized RescoreJobResponse start() {
+        String version = riskEngine.ruleSet().version();
+        for (RescoreJobEntity running : jobRepo.findByStatus(RescoreJobEntity.Status.RUNNING)) {
+            if (version.equals(running.getTargetRuleSetVersion())) {
+                return toResponse(running);
+            }
+        }
+        // A job for an older version notices the change at its next chunk and stops
+        Instant now = Instant.now();
+        RescoreJobEntity job = jobRepo.save(RescoreJobEntity.builder()
+                .targetRuleSetVersion(version)
+                .status(RescoreJobEntity.Status.RUNNING)
+                .totalCandidates(reportRepo.countStaleAfter(0, version))
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("[RESCORE] Job {} started: {} reports not on rule set {}", job.getId(), job.getTotalCandidates(), version);
+        Long jobId = job.getId();
+        worker.execute(() -> run(jobId));
+        return toResponse(job);
+    }
+
+    public RescoreJobResponse get(Long jobId) {
+        return jobRepo.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new IllegalArgumentException("Rescore job not found: " + jobId));
+    }
+
+    public List<RescoreJobResponse> recent() {
+        return jobRepo.findTop20ByOrderByIdDesc().stream().map(this::toResponse).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningJobs() {
+        for (RescoreJobEntity job : jobRepo.findByStatus(RescoreJobEntity.Status.RUNNING)) {
+            log.info("[RESCORE] Resuming job {} after report {}", job.getId(), job.getLastReportId());
+            Long jobId = job.getId();
+            worker.execute(() -> run(jobId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // An interrupted chunk is not checkpointed; the job redoes it on resume
+        worker.shutdownNow();
+    }
+
+    private void run(Long jobId) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                RescoreJobEntity job = jobRepo.findById(jobId).orElse(null);
+                if (job == null || job.getStatus() != RescoreJobEntity.Status.RUNNING) {
+                    return;
+                }
+                RuleSet ruleSet = riskEngine.ruleSet();
+                if (!ruleSet.version().equals(job.getTargetRuleSetVersion())) {
+                    finish(job, RescoreJobEntity.Status.SUPERSEDED);
+                    return;
+                }
+                List<ReportEntity> chunk = reportRepo.findStaleAfter(job.getLastReportId(), ruleSet.version(),
+                        PageRequest.of(0, Math.max(1, props.getRisk().getRescoreChunkSize())));
+                if (chunk.isEmpty()) {
+                    finish(job, RescoreJobEntity.Status.COMPLETED);
+                    return;
+                }
+                if (!processChunk(job, ruleSet, chunk)) {
+                    return;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("[RESCORE] Job {} failed", jobId, ex);
+            jobRepo.findById(jobId).ifPresent(job -> finish(job, RescoreJobEntity.Status.FAILED));
+        }
+    }
+
+    /**
+     * @return false when interrupted before the chunk's checkpoint was saved
+     */
+    private boolean processChunk(RescoreJobEntity job, RuleSet ruleSet, List<ReportEntity> chunk) {
+        long started = System.currentTimeMillis();
+        // Version-only updates, grouped by the finding codes to record
+        Map<String, List<Long>> restamp = new HashMap<>();
+        Map<SourceProbe, Boolean> probes = new HashMap<>();
+        long regenerated = 0, unchanged = 0, untouched = 0, failed = 0;
+        for (ReportEntity report : chunk) {
+            try {
+                OrderEntity order = report.getOrder();
+                if (!touchedByChange(report, order, ruleSet, probes)) {
+                    untouched++;
+                    restamp.computeIfAbsent(report.getFindingCodes(), c -> new ArrayList<>()).add(report.getId());
+                    continue;
+                }
+                RiskResult result = riskEngine.assess(ruleSet, order);
+                String codes = ReportService.findingCodes(result);
+                if (result.getScore() == report.getRiskScore() && result.getBand() == report.getRiskBand()
+                        && (report.getFindingCodes() == null || codes.equals(report.getFindingCodes()))) {
+                    unchanged++;
+                    restamp.computeIfAbsent(codes, c -> new ArrayList<>()).add(report.getId());
+                } else {
+                    reportService.regenerate(report.getId());
+                    regenerated++;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception ex) {
+                // Left on its old version: the next job tries it again
+                failed++;
+                log.warn("[RESCORE] Job {} could not rescore report {}: {}", job.getId(), report.getId(), ex.getMessage());
+            }
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+
+        String ruleVersions = String.join(",", ruleSet.ruleVersions());
+        Instant now = Instant.now();
+        job.setLastReportId(chunk.get(chunk.size() - 1).getId());
+        job.setProcessed(job.getProcessed() + chunk.size());
+        job.setRegenerated(job.getRegenerated() + regenerated);
+        job.setUnchanged(job.getUnchanged() + unchanged);
+        job.setUntouched(job.getUntouched() + untouched);
+        job.setFailed(job.getFailed() + failed);
+        job.setActiveMillis(job.getActiveMillis() + System.currentTimeMillis() - started);
+        job.setUpdatedAt(now);
+        tx.executeWithoutResult(status -> {
+            restamp.forEach((codes, ids) -> reportRepo.restampRuleSet(ids, ruleSet.version(), ruleVersions, codes, now));
+            jobRepo.save(job);
+        });
+        return true;
+    }
+
+    /**
+     * Whether a rule changed since the report was scored could affect its result. Reports without
+     * recorded rules or findings (scored before versioning) always count as touched.
+     * Rules that only read order inputs are tried before rules backed by a data source; source
+     * probes are shared by the reports of one parcel within a chunk and paced to
+     * risk.rescoreSourceProbesPerSecond, so a large job does not flood the sources.
+     */
+    private boolean touchedByChange(ReportEntity report, OrderEntity order, RuleSet ruleSet,
+                                    Map<SourceProbe, Boolean> probes) throws InterruptedException {
+        Map<String, RiskRule> changed = ruleSet.changedSince(split(report.getRuleVersions()));
+        if (changed.isEmpty()) {
+            return false;
+        }
+        List<String> recordedCodes = split(report.getFindingCodes());
+        if (recordedCodes == null) {
+            return true;
+        }
+        List<RiskRule> sourced = new ArrayList<>();
+        for (Map.Entry<String, RiskRule> e : changed.entrySet()) {
+            RiskRule rule = e.getValue();
+            Set<String> codes = rule == null ? Set.of(e.getKey()) : rule.findingCodes();
+            for (String code : recordedCodes) {
+                if (codes.contains(code)) {
+                    return true;
+                }
+            }
+            if (rule instanceof SourceBackedRule<?>) {
+                sourced.add(rule);
+            } else if (rule != null && ruleSet.fires(rule, order)) {
+                return true;
+            }
+        }
+        for (RiskRule rule : sourced) {
+            SourceProbe probe = new SourceProbe(rule.id(), RiskInputKey.of(order));
+            Boolean fires = probes.get(probe);
+            if (fires == null) {
+                paceSourceProbe();
+                fires = ruleSet.fires(rule, order);
+                probes.put(probe, fires);
+            }
+            if (fires) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Worker thread only: sleeps until the next source probe is due
+     */
+    private void paceSourceProbe() throws InterruptedException {
+        int perSecond = props.getRisk().getRescoreSourceProbesPerSecond();
+        if (perSecond <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (nextProbeNanos - now > 0) {
+            TimeUnit.NANOSECONDS.sleep(nextProbeNanos - now);
+        }
+        nextProbeNanos = Math.max(now, nextProbeNanos) + TimeUnit.SECONDS.toNanos(1) / perSecond;
+    }
+
+    private record SourceProbe(String ruleId, RiskInputKey inputs) {}
+
+    private static List<String> split(String joined) {
+        if (joined == null) {
+            return null;
+        }
+        return joined.isEmpty() ? List.of() : Arrays.asList(joined.split(","));
+    }
+
+    private void finish(RescoreJobEntity job, RescoreJobEntity.Status status) {
+        Instant now = Instant.now();
+        job.setStatus(status);
+        job.setUpdatedAt(now);
+        job.setFinishedAt(now);
+        jobRepo.save(job);
+        log.info("[RESCORE] Job {} {}: {} processed ({} regenerated, {} unchanged, {} untouched, {} failed) in {} ms",
+                job.getId(), status, job.getProcessed(), job.getRegenerated(), job.getUnchanged(),
+                job.getUntouched(), job.getFailed(), job.getActiveMillis());
+    }
+
+    private RescoreJobResponse toResponse(RescoreJobEntity job) {
+        long total = job.getTotalCandidates();
+        long processed = job.getProcessed();
+        long active = job.getActiveMillis();
+        return RescoreJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .targetRuleSetVersion(job.getTargetRuleSetVersion())
+                .totalCandidates(total)
+                .processed(processed)
+                .regenerated(job.getRegenerated())
+                .unchanged(job.getUnchanged())
+                .untouched(job.getUntouched())
+                .failed(job.getFailed())
+                // Reports turning stale after the start can push processed past the initial count
+                .percentComplete(job.getStatus() == RescoreJobEntity.Status.COMPLETED || total == 0
+                        ? 100.0 : Math.min(100.0, processed * 100.0 / total))
+                .reportsPerSecond(active == 0 ? 0 : processed * 1000.0 / active)
+                .lastReportId(job.getLastReportId())
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package com.landriskai.service;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.entity.SearchCacheEntity;
+import com.landriskai.repo.SearchCacheRepository;
+import com.landriskai.util.BloomFilter;
+import com.landriskai.util.TtlLruCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read path for lr_search_cache with an in-process L1 in front of the database.
+ * L1 entries expire exactly at the row's expiresAt and are replaced on every write
+ * through this service, so cache checks while the user types parcel details don't hit the DB.
+ * A Bloom filter over all cached parcel keys answers never-searched parcels without a query;
+ * it is rebuilt at startup and periodically (expired keys can't be removed from it).
+ *
+ * Entities returned by {@link #findValid} are shared with other readers: treat them as read-only
+ * and use {@link #findForUpdate} when the row is going to be modified.
+ */
+@Slf4j
+@Service
+public class SearchCacheService {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final SearchCacheRepository searchCacheRepository;
+    private final LandRiskAiProperties props;
+    private final TtlLruCache<ParcelKey, SearchCacheEntity> l1;
+
+    // null until the first rebuild completes; lookups fall through to the DB meanwhile
+    private volatile BloomFilter knownParcels;
+    // non-null while a rebuild scans the table, so concurrent saves land in both filters
+    private volatile BloomFilter rebuilding;
+    private final AtomicLong filterNegatives = new AtomicLong();
+    private final AtomicLong filterPositives = new AtomicLong();
+    private final AtomicLong filterFalsePositives = new AtomicLong();
+    private volatile long lastRebuildMillis;
+
+    public SearchCacheService(SearchCacheRepository searchCacheRepository, LandRiskAiProperties props) {
+        this.searchCacheRepository = searchCacheRepository;
+        this.props = props;
+        this.l1 = new TtlLruCache<>(props.getCache().getL1MaxEntries());
+    }
+
+    public SearchCacheEntity findValid(String khata, String khesra, String district) {
+        ParcelKey key = ParcelKey.of(khata, khesra, district);
+        SearchCacheEntity cached = l1.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        BloomFilter filter = knownParcels;
+        if (filter != null) {
+            if (!filter.mightContain(key.toString())) {
+                filterNegatives.incrementAndGet();
+                return null;
+            }
+            filterPositives.incrementAndGet();
+        }
+
+        SearchCacheEntity row = searchCacheRepository.findValidBySearchHash(key.searchHash());
+        if (row != null) {
+            l1.put(key, row, row.getExpiresAt().toEpochMilli());
+        } else if (filter != null) {
+            filterFalsePositives.incrementAndGet();
+        }
+        return row;
+    }
+
+    /**
+     * Bypasses L1: the caller gets its own instance to modify and save.
+     * May return an expired row; searchHash is unique, so the caller must revive it rather than insert.
+     */
+    public SearchCacheEntity findForUpdate(ParcelKey key) {
+        return searchCacheRepository.findBySearchHash(key.searchHash()).orElse(null);
+    }
+
+    /**
+     * Save and refresh L1. Inside a transaction the new value becomes visible to L1 readers only
+     * after commit; until then the key is simply absent and reads fall through to the DB.
+     */
+    public SearchCacheEntity save(SearchCacheEntity cache) {
+        SearchCacheEntity saved = searchCacheRepository.save(cache);
+        ParcelKey key = ParcelKey.of(saved.getKhata(), saved.getKhesra(), saved.getDistrict());
+        remember(key);
+        l1.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // A rebuild scanning before the commit could not see the row
+                    remember(key);
+                    l1.put(key, saved, saved.getExpiresAt().toEpochMilli());
+                }
+            });
+        } else {
+            l1.put(key, saved, saved.getExpiresAt().toEpochMilli());
+        }
+        return saved;
+    }
+
+    /**
+     * Drop L1 copies of rows changed behind the entity's back (bulk/JDBC updates)
+     */
+    public void evictFromL1(Set<Long> ids) {
+        if (!ids.isEmpty()) {
+            l1.invalidateIf(row -> ids.contains(row.getId()));
+        }
+    }
+
+    public Map<String, Object> l1Stats() {
+        return l1.stats();
+    }
+
+    /**
+     * Re-scan valid rows into a fresh filter sized for the current table, then swap it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${landriskai.cache.bloomRebuildIntervalMinutes:360}",
+            fixedDelayString = "${landriskai.cache.bloomRebuildIntervalMinutes:360}",
+            timeUnit = TimeUnit.MINUTES
+    )
+    public void rebuildFilter() {
+        long started = System.currentTimeMillis();
+        LandRiskAiProperties.Cache cfg = props.getCache();
+        long expected = Math.max(cfg.getBloomExpectedInsertions(), searchCacheRepository.countValid() * 2);
+        BloomFilter next = new BloomFilter(expected, cfg.getBloomFalsePositiveRate());
+        rebuilding = next;
+        try {
+            long lastId = 0;
+            long keys = 0;
+            List<Object[]> page;
+            do {
+                page = searchCacheRepository.findValidLandIdentifiersAfter(lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (Object[] row : page) {
+                    lastId = (Long) row[0];
+                    next.put(ParcelKey.of((String) row[1], (String) row[2], (String) row[3]).toString());
+                    keys++;
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+
+            knownParcels = next;
+            lastRebuildMillis = System.currentTimeMillis();
+            log.info("[SEARCH_CACHE] Parcel filter rebuilt: {} keys, {} KiB, {} ms",
+                    keys, next.memoryBytes() / 1024, lastRebuildMillis - started);
+        } catch (Exception ex) {
+            // Keep serving with the previous filter (or none): stale filters only ever over-report
+            log.error("[SEARCH_CACHE] Parcel filter rebuild failed", ex);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    public Map<String, Object> filterStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        BloomFilter filter = knownParcels;
+        m.put("ready", filter != null);
+        if (filter != null) {
+            m.put("keys", filter.insertions());
+            m.put("bits", filter.bitCount());
+            m.put("hashFunctions", filter.hashCount());
+            m.put("memoryBytes", filter.memoryBytes());
+            m.put("expectedFalsePositiveRate", filter.expectedFalsePositiveRate());
+        }
+        long positives = filterPositives.get();
+        long falsePositives = filterFalsePositives.get();
+        m.put("definiteMisses", filterNegatives.get());
+        m.put("maybeHits", positives);
+        m.put("falsePositives", falsePositives);
+        m.put("observedFalsePositiveRate", positives == 0 ? 0.0 : (double) falsePositives / positives);
+        m.put("lastRebuildAt", lastRebuildMillis == 0 ? null : Instant.ofEpochMilli(lastRebuildMillis).toString());
+        return m;
+    }
+
+    /**
+     * Add the key to the live filter and to the one being rebuilt. rebuilding is read first: if it
+     * is null no scan had started yet, so the filter read next is either the current one or
+     * replaced later by a scan that sees the committed row; if it is set, the key lands in the
+     * filter that is about to be swapped in.
+     */
+    private void remember(ParcelKey key) {
+        String k = key.toString();
+        BloomFilter next = rebuilding;
+        BloomFilter filter = knownParcels;
+        if (next != null) {
+            next.put(k);
+        }
+        if (filter != null) {
+            filter.put(k);
+        }
+    }
+}
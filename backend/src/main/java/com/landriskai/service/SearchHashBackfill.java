@@ -0,0 +1,94 @@
+package com.landriskai.service;
+
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.entity.SearchCacheEntity;
+import com.landriskai.repo.SearchCacheRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off migration of lr_search_cache.searchHash from the old 32-bit String.hashCode() form
+ * to {@link ParcelKey#searchHash()}. Runs at startup, idempotent: rows already holding a
+ * 64-char hash are never selected.
+ * Rows that canonicalize to the same parcel are merged: the one expiring last survives and
+ * inherits the other's reuse counters.
+ */
+@Slf4j
+@Component
+public class SearchHashBackfill implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final SearchCacheRepository searchCacheRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate tx;
+
+    public SearchHashBackfill(SearchCacheRepository searchCacheRepository,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager) {
+        this.searchCacheRepository = searchCacheRepository;
+        this.entityManager = entityManager;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long lastId = 0;
+        int rehashed = 0;
+        int merged = 0;
+        List<SearchCacheEntity> page;
+        do {
+            page = searchCacheRepository.findLegacySearchHashesAfter(lastId, PageRequest.of(0, PAGE_SIZE));
+            for (SearchCacheEntity row : page) {
+                lastId = row.getId();
+                Long id = row.getId();
+                // One short transaction per row so a bad row can't roll back the rest
+                boolean wasMerged = Boolean.TRUE.equals(tx.execute(status -> migrate(id)));
+                if (wasMerged) merged++; else rehashed++;
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        if (rehashed + merged > 0) {
+            log.info("[SEARCH_CACHE] searchHash backfill: {} rows rehashed, {} duplicate parcels merged", rehashed, merged);
+        }
+    }
+
+    /**
+     * @return true when the row was merged with another row for the same parcel
+     */
+    private boolean migrate(Long id) {
+        SearchCacheEntity row = searchCacheRepository.findById(id).orElse(null);
+        if (row == null) {
+            return false;
+        }
+        String hash = ParcelKey.of(row.getKhata(), row.getKhesra(), row.getDistrict()).searchHash();
+        SearchCacheEntity other = searchCacheRepository.findBySearchHash(hash).orElse(null);
+        if (other == null) {
+            row.setSearchHash(hash);
+            return false;
+        }
+
+        SearchCacheEntity survivor = other.getExpiresAt().isBefore(row.getExpiresAt()) ? row : other;
+        SearchCacheEntity loser = survivor == row ? other : row;
+        survivor.setReusageCount(survivor.getReusageCount() + loser.getReusageCount());
+        survivor.setTotalRevenueFromReusagePaise(
+                survivor.getTotalRevenueFromReusagePaise() + loser.getTotalRevenueFromReusagePaise());
+        if (loser.getLastReuseAt() != null
+                && (survivor.getLastReuseAt() == null || loser.getLastReuseAt().isAfter(survivor.getLastReuseAt()))) {
+            survivor.setLastReuseAt(loser.getLastReuseAt());
+        }
+        // The delete must reach the database before the survivor takes over the unique hash
+        searchCacheRepository.delete(loser);
+        entityManager.flush();
+        survivor.setSearchHash(hash);
+        return true;
+    }
+}
@@ -0,0 +1,194 @@
+package com.landriskai.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Read-through copies of remote blobs on this node's disk (storage.cacheDir), for the readers that
+ * need a file (stamping a base document, serving a stored PDF). Blobs never change, so a copy never
+ * goes stale; least recently used copies are deleted once the cache outgrows its byte budget.
+ * The LRU index lives in memory and is rebuilt from the directory at startup (oldest first).
+ * Copies are written to a temp file and moved into place, so a half-written copy is never visible.
+ */
+@Slf4j
+final class BlobCache {
+
+    private final Path root;
+    private final Path tmpDir;
+    private final long maxBytes;
+    // key -> size, access-ordered: the first entry is the least recently used
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    BlobCache(Path root, long maxBytes) throws IOException {
+        this.root = root;
+        this.tmpDir = root.resolve("tmp");
+        this.maxBytes = maxBytes;
+        Files.createDirectories(tmpDir);
+        load();
+    }
+
+    /**
+     * Where temp files that may be {@link #adopt adopted} should be written (same file system)
+     */
+    Path tmpDir() {
+        return tmpDir;
+    }
+
+    /**
+     * The cached copy, or null
+     */
+    Path get(String key) {
+        Path file = root.resolve(BlobStore.shardedName(key));
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                return null;
+            }
+            if (!Files.isRegularFile(file)) {
+                // Deleted behind our back
+                bytes -= entries.remove(key);
+                return null;
+            }
+        }
+        hits.incrementAndGet();
+        return file;
+    }
+
+    /**
+     * The cached copy, downloaded from {@code backend} first on a miss
+     * @throws java.nio.file.NoSuchFileException when the backend has no such blob
+     */
+    Path fetch(String key, BlobStore backend) throws IOException {
+        Path cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        misses.incrementAndGet();
+        Path tmp = Files.createTempFile(tmpDir, "fetch", ".tmp");
+        try {
+            try (InputStream in = backend.open(key, 0, -1)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return adopt(key, tmp);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Move a complete local copy of the blob into the cache (e.g. the file just uploaded)
+     */
+    Path adopt(String key, Path file) throws IOException {
+        Path target = root.resolve(BlobStore.shardedName(key));
+        Files.createDirectories(target.getParent());
+        long size = Files.size(file);
+        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            Long previous = entries.put(key, size);
+            bytes += size - (previous == null ? 0 : previous);
+            evictOverflow(key);
+        }
+        return target;
+    }
+
+    /**
+     * Drop the copy (the blob was deleted)
+     */
+    void evict(String key) throws IOException {
+        synchronized (this) {
+            Long size = entries.remove(key);
+            if (size != null) {
+                bytes -= size;
+            }
+        }
+        Files.deleteIfExists(root.resolve(BlobStore.shardedName(key)));
+    }
+
+    Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        synchronized (this) {
+            m.put("entries", entries.size());
+            m.put("bytes", bytes);
+        }
+        m.put("maxBytes", maxBytes);
+        m.put("hits", hits.get());
+        m.put("misses", misses.get());
+        m.put("evictions", evictions.get());
+        return m;
+    }
+
+    /**
+     * Least recently used copies out until the cache fits, never the one just added.
+     * Readers holding an evicted file open keep reading it (the file is only unlinked).
+     */
+    private void evictOverflow(String keep) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> e = it.next();
+            if (e.getKey().equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(root.resolve(BlobStore.shardedName(e.getKey())));
+            } catch (IOException ex) {
+                log.warn("[BLOB_CACHE] Could not evict {}: {}", e.getKey(), ex.getMessage());
+                continue;
+            }
+            bytes -= e.getValue();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Index the copies left by the previous run, least recently modified first; drop temp files
+     */
+    private void load() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tmpDir, "*.tmp")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        record Copy(String key, long size, long modified) {}
+        List<Copy> copies = new ArrayList<>();
+        try (Stream<Path> files = Files.find(root, 3, (path, attrs) -> attrs.isRegularFile()
+                && path.getFileName().toString().endsWith(".pdf") && !path.startsWith(tmpDir))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                String key = name.substring(0, name.length() - ".pdf".length());
+                if (ReportStore.isKey(key) && file.equals(root.resolve(BlobStore.shardedName(key)))) {
+                    BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                    copies.add(new Copy(key, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                }
+            }
+        }
+        copies.sort(Comparator.comparingLong(Copy::modified));
+        synchronized (this) {
+            for (Copy copy : copies) {
+                entries.put(copy.key(), copy.size());
+                bytes += copy.size();
+            }
+            evictOverflow(null);
+        }
+        log.info("[BLOB_CACHE] {} cached blobs ({} bytes) in {}", entries.size(), bytes, root);
+    }
+}
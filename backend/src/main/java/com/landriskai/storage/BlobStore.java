@@ -0,0 +1,63 @@
+package com.landriskai.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Where {@link ReportStore} keeps artifact bytes. Keys are content hashes, so a blob is written
+ * once and never changes: implementations need no locking or versioning, and any copy of a blob
+ * is as good as the original.
+ */
+public interface BlobStore {
+
+    /**
+     * local, s3, ...
+     */
+    String name();
+
+    /**
+     * Store a complete local file under the key. The file may be moved into place (it is then gone)
+     * or copied; callers must not rely on it afterwards other than to delete what is left.
+     */
+    void put(String key, Path file) throws IOException;
+
+    /**
+     * Size in bytes, -1 when there is no such blob
+     */
+    long size(String key) throws IOException;
+
+    /**
+     * Bytes [offset, offset + length) of the blob, or from offset to the end when length < 0
+     * @throws java.nio.file.NoSuchFileException when there is no such blob
+     */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    /**
+     * Remove the blob; no-op when there is none
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * True when blobs are not files on this node (ReportStore then keeps a local read-through cache)
+     */
+    default boolean isRemote() {
+        return true;
+    }
+
+    /**
+     * Where the blob is on this node's disk, for stores that keep blobs as local files;
+     * null for remote stores (ReportStore then reads them through its local cache)
+     */
+    default Path localPath(String key) {
+        return null;
+    }
+
+    /**
+     * Blob path relative to a store root: {@code <k[0..2)>/<k[2..4)>/<key>.pdf}. Two levels of
+     * 256 shards keep every directory (or listing prefix) small.
+     */
+    static String shardedName(String key) {
+        return key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + key + ".pdf";
+    }
+}
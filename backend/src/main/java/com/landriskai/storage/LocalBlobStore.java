@@ -0,0 +1,72 @@
+package com.landriskai.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Blobs as files in a sharded tree under storage.reportDir. Single-node (or shared-volume) setups.
+ */
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+
+    public LocalBlobStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public void put(String key, Path file) throws IOException {
+        Path target = localPath(key);
+        Files.createDirectories(target.getParent());
+        // Readers see either no blob or all of it
+        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        Path file = localPath(key);
+        return Files.isRegularFile(file) ? Files.size(file) : -1;
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        return openRange(localPath(key), offset, length);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(localPath(key));
+    }
+
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return root.resolve(BlobStore.shardedName(key));
+    }
+
+    /**
+     * Bytes [offset, offset + length) of a file, to the end when length < 0
+     */
+    static InputStream openRange(Path file, long offset, long length) throws IOException {
+        // NoSuchFileException when there is no such file
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        ch.position(offset);
+        InputStream in = Channels.newInputStream(ch);
+        return length < 0 ? in : new BoundedInputStream(in, length);
+    }
+}
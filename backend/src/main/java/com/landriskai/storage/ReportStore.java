@@ -0,0 +1,402 @@
+package com.landriskai.storage;
+
+import com.landriskai.config.LandRiskAiProperties;
+import com.landriskai.entity.ReportBlobEntity;
+import com.landriskai.repo.ReportBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.NoSuchFileException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Content-addressed store for report artifacts (base documents and stamped report PDFs). An
+ * artifact's key is the SHA-256 of its bytes (64 hex chars) and its bytes live in the configured
+ * {@link BlobStore} (storage.backend) at {@code <k[0..2)>/<k[2..4)>/<key>.pdf}, so no directory or
+ * listing prefix holds more than a sliver of them, and writing bytes that are already stored keeps
+ * the one existing copy. With a remote backend, readers that need a file get a read-through local
+ * copy (storage.cacheDir); ranged reads ({@link #open}) use the copy when there is one and go to
+ * the backend otherwise.
+ *
+ * Rows holding a key (lr_report.pdfPath, lr_search_cache.pdfPath) are counted in lr_report_blob:
+ * {@link #retain} before a row starts pointing at a key, {@link #release} once it no longer does.
+ * A crash in between leaves a count too high (the blob lingers), never too low. Blobs at zero
+ * references are deleted by {@link #reclaim} once idle for storage.unreferencedGraceMinutes, which
+ * also covers artifacts written but never attached.
+ * Writes and reclaims of one key are serialized in-process; a key whose blob is gone anyway reads
+ * as missing ({@link #exists}), and callers render it again.
+ */
+@Slf4j
+@Component
+public class ReportStore {
+
+    public static final int KEY_LENGTH = 64;
+
+    private final ReportBlobRepository blobRepo;
+    private final TransactionTemplate tx;
+    private final BlobStore backend;
+    private final BlobCache cache; // null when the backend keeps blobs on this node's disk
+    private final Path root;
+    private final Path tmpDir;
+    private final ReentrantLock[] keyLocks = new ReentrantLock[64];
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong deduplicatedBytes = new AtomicLong();
+    private final AtomicLong reclaimed = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+
+    public ReportStore(ReportBlobRepository blobRepo,
+                       BlobStore backend,
+                       LandRiskAiProperties props,
+                       PlatformTransactionManager transactionManager) throws IOException {
+        this.blobRepo = blobRepo;
+        this.backend = backend;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.root = Path.of(props.getStorage().getReportDir()).toAbsolutePath().normalize();
+        if (backend.isRemote()) {
+            this.cache = new BlobCache(Path.of(props.getStorage().getCacheDir()).toAbsolutePath().normalize(),
+                    Math.max(1, props.getStorage().getCacheMaxMegabytes()) * 1024 * 1024);
+            // Uploaded temp files are adopted as cache copies: keep them on the cache's file system
+            this.tmpDir = cache.tmpDir();
+        } else {
+            this.cache = null;
+            this.tmpDir = root.resolve("tmp");
+        }
+        Files.createDirectories(tmpDir);
+        for (int i = 0; i < keyLocks.length; i++) {
+            keyLocks[i] = new ReentrantLock();
+        }
+        removeStaleTempFiles();
+    }
+
+    /**
+     * Bytes produced by one render, streamed into the store
+     */
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(OutputStream out) throws Exception;
+    }
+
+    /**
+     * True for a store key; false for PENDING, null and pre-store file paths
+     */
+    public static boolean isKey(String value) {
+        if (value == null || value.length() != KEY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stream a new artifact into the store (through a temp file, hashed on the way).
+     * The artifact starts unreferenced.
+     * @return its key
+     */
+    public String write(Content content) throws Exception {
+        Path tmp = Files.createTempFile(tmpDir, "blob", ".tmp");
+        try {
+            MessageDigest sha = sha256();
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)), sha)) {
+                content.writeTo(out);
+            }
+            String key = HexFormat.of().formatHex(sha.digest());
+            commit(key, tmp, Files.size(tmp), true);
+            return key;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Store bytes already in memory; starts unreferenced
+     * @return its key
+     */
+    public String put(byte[] bytes) throws IOException {
+        String key = HexFormat.of().formatHex(sha256().digest(bytes));
+        Path tmp = Files.createTempFile(tmpDir, "blob", ".tmp");
+        try {
+            Files.write(tmp, bytes);
+            commit(key, tmp, bytes.length, true);
+            return key;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Move an existing file into the store (the source is gone afterwards); starts unreferenced
+     * @return its key
+     */
+    public String importFile(Path file) throws IOException {
+        MessageDigest sha = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buf = new byte[64 * 1024];
+            for (int n; (n = in.read(buf)) > 0; ) {
+                sha.update(buf, 0, n);
+            }
+        }
+        String key = HexFormat.of().formatHex(sha.digest());
+        commit(key, file, Files.size(file), false);
+        Files.deleteIfExists(file);
+        return key;
+    }
+
+    /**
+     * The artifact as a file on this node: the blob itself for a local backend, else the cached
+     * copy (fetched on a miss)
+     * @throws NoSuchFileException when there is no such blob
+     */
+    public Path localFile(String key) throws IOException {
+        checkKey(key);
+        Path local = backend.localPath(key);
+        if (local != null) {
+            if (!Files.isRegularFile(local)) {
+                throw new NoSuchFileException(local.toString());
+            }
+            return local;
+        }
+        return cache.fetch(key, backend);
+    }
+
+    /**
+     * Bytes [offset, offset + length) of the artifact (to the end when length < 0), from the local
+     * copy when there is one
+     * @throws NoSuchFileException when there is no such blob
+     */
+    public InputStream open(String key, long offset, long length) throws IOException {
+        checkKey(key);
+        Path cached = cache == null ? null : cache.get(key);
+        if (cached != null) {
+            try {
+                return LocalBlobStore.openRange(cached, offset, length);
+            } catch (NoSuchFileException evicted) {
+                // Evicted since the lookup: read the backend
+            }
+        }
+        return backend.open(key, offset, length);
+    }
+
+    /**
+     * Size recorded for the blob, -1 when it is not registered (no backend round trip)
+     */
+    public long recordedSize(String key) {
+        return isKey(key) ? blobRepo.findById(key).map(ReportBlobEntity::getSizeBytes).orElse(-1L) : -1;
+    }
+
+    public boolean exists(String key) {
+        if (!isKey(key)) {
+            return false;
+        }
+        if (cache != null && cache.get(key) != null) {
+            return true;
+        }
+        try {
+            return backend.size(key) >= 0;
+        } catch (IOException ex) {
+            log.warn("[REPORT_STORE] Could not check blob {} in {}: {}", key, backend.name(), ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * A row now points at the key (joins the caller's transaction, if any)
+     */
+    public void retain(String key) {
+        adjust(key, 1);
+    }
+
+    /**
+     * A row no longer points at the key; no-op for PENDING, null and non-keys
+     */
+    public void release(String key) {
+        adjust(key, -1);
+    }
+
+    /**
+     * Delete up to {@code limit} blobs unreferenced and idle since before {@code cutoff}
+     */
+    public Reclaimed reclaim(Instant cutoff, int limit) {
+        List<Object[]> rows = blobRepo.findUnreferencedBefore(cutoff, PageRequest.of(0, Math.max(1, limit)));
+        int blobs = 0;
+        long bytes = 0;
+        for (Object[] row : rows) {
+            String key = (String) row[0];
+            ReentrantLock lock = lock(key);
+            lock.lock();
+            try {
+                Integer deleted = tx.execute(status -> blobRepo.deleteIfUnreferenced(key, cutoff));
+                if (deleted != null && deleted > 0) {
+                    backend.delete(key);
+                    if (cache != null) {
+                        cache.evict(key);
+                    }
+                    blobs++;
+                    bytes += (Long) row[1];
+                }
+            } catch (IOException ex) {
+                log.warn("[REPORT_STORE] Could not delete blob {}: {}", key, ex.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+        reclaimed.addAndGet(blobs);
+        reclaimedBytes.addAndGet(bytes);
+        return new Reclaimed(rows.size(), blobs, bytes);
+    }
+
+    /**
+     * @param selected blobs the reclaim looked at; fewer than the limit means nothing is left
+     */
+    public record Reclaimed(int selected, int blobs, long bytes) {}
+
+    /**
+     * storage.reportDir (the blobs themselves for the local backend)
+     */
+    public Path root() {
+        return root;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("backend", backend.name());
+        Object[] totals = blobRepo.totals().get(0);
+        m.put("blobs", totals[0]);
+        m.put("storedBytes", totals[1]);
+        m.put("references", totals[2]);
+        m.put("written", written.get());
+        m.put("writtenBytes", writtenBytes.get());
+        m.put("deduplicated", deduplicated.get());
+        m.put("deduplicatedBytes", deduplicatedBytes.get());
+        m.put("reclaimed", reclaimed.get());
+        m.put("reclaimedBytes", reclaimedBytes.get());
+        if (cache != null) {
+            m.put("cache", cache.stats());
+        }
+        return m;
+    }
+
+    /**
+     * Store {@code source} under its key unless an identical artifact is already stored, and
+     * register the blob. What is left of the source is for the caller to remove.
+     * @param cacheCopy with a remote backend, keep the source as the local copy (it must be in tmpDir)
+     */
+    private void commit(String key, Path source, long size, boolean cacheCopy) throws IOException {
+        ReentrantLock lock = lock(key);
+        lock.lock();
+        try {
+            if (backend.size(key) >= 0) {
+                deduplicated.incrementAndGet();
+                deduplicatedBytes.addAndGet(size);
+            } else {
+                backend.put(key, source);
+                written.incrementAndGet();
+                writtenBytes.addAndGet(size);
+                // Just rendered, about to be read (stamped or served)
+                if (cache != null && cacheCopy && Files.exists(source)) {
+                    cache.adopt(key, source);
+                }
+            }
+            // Touch (or create) the row: a blob just written is not reclaimable until it has idled
+            Instant now = Instant.now();
+            tx.executeWithoutResult(status -> {
+                if (blobRepo.adjustRefs(key, 0, now) == 0) {
+                    blobRepo.save(ReportBlobEntity.builder()
+                            .hash(key).sizeBytes(size).refCount(0).createdAt(now).updatedAt(now).build());
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(String key, int delta) {
+        if (!isKey(key)) {
+            return;
+        }
+        ReentrantLock lock = lock(key);
+        lock.lock();
+        try {
+            Instant now = Instant.now();
+            tx.executeWithoutResult(status -> {
+                if (blobRepo.adjustRefs(key, delta, now) == 0 && delta > 0) {
+                    // Blob row lost (reclaimed under a racing reference): re-register whatever is stored
+                    long size = Math.max(0, sizeOrMissing(key));
+                    blobRepo.save(ReportBlobEntity.builder()
+                            .hash(key).sizeBytes(size).refCount(delta).createdAt(now).updatedAt(now).build());
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long sizeOrMissing(String key) {
+        try {
+            return backend.size(key);
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    private static void checkKey(String key) {
+        if (!isKey(key)) {
+            throw new IllegalArgumentException("Not a report store key: " + key);
+        }
+    }
+
+    private ReentrantLock lock(String key) {
+        return keyLocks[Math.floorMod(key.hashCode(), keyLocks.length)];
+    }
+
+    /**
+     * Temp files of writes interrupted by a crash; newer ones may belong to a running write
+     */
+    private void removeStaleTempFiles() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(1));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tmpDir, "*.tmp")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("[REPORT_STORE] Could not clean {}: {}", tmpDir, ex.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.landriskai.storage;
+
+import com.landriskai.config.LandRiskAiProperties;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Blobs as objects in an S3-compatible bucket (AWS S3, MinIO, Ceph RGW, ...), so every backend node
+ * sees every artifact. Speaks the REST API directly with Signature V4; only the calls the store
+ * needs: PUT, ranged GET, HEAD, DELETE and multipart upload.
+ * Files larger than storage.s3.partSizeMegabytes are uploaded in parts read one at a time from
+ * disk, so memory stays at one part whatever the artifact size; a failed upload is aborted.
+ */
+public class S3BlobStore implements BlobStore {
+
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final byte[] EMPTY = new byte[0];
+
+    private final LandRiskAiProperties.S3 cfg;
+    private final String scheme;
+    private final String host; // as sent in the Host header
+    private final String basePath; // "/bucket" for path-style requests, "" otherwise
+    private final int partSize;
+    private final Duration timeout;
+    private final HttpClient http;
+
+    public S3BlobStore(LandRiskAiProperties.S3 cfg) {
+        this(cfg, Math.max(5, cfg.getPartSizeMegabytes()) * 1024 * 1024);
+    }
+
+    /**
+     * @param partSizeBytes multipart threshold and part size; AWS requires at least 5 MiB for all
+     *                      but the last part, some S3-compatible stores (and test stand-ins) accept less
+     */
+    public S3BlobStore(LandRiskAiProperties.S3 cfg, int partSizeBytes) {
+        this.cfg = cfg;
+        URI endpoint = URI.create(cfg.getEndpoint());
+        this.scheme = endpoint.getScheme();
+        int defaultPort = "https".equalsIgnoreCase(scheme) ? 443 : 80;
+        String authority = endpoint.getPort() == -1 || endpoint.getPort() == defaultPort
+                ? endpoint.getHost() : endpoint.getHost() + ":" + endpoint.getPort();
+        this.host = cfg.isPathStyle() ? authority : cfg.getBucket() + "." + authority;
+        this.basePath = cfg.isPathStyle() ? "/" + uriEncode(cfg.getBucket(), true) : "";
+        this.partSize = Math.max(1, partSizeBytes);
+        this.timeout = Duration.ofSeconds(Math.max(1, cfg.getTimeoutSeconds()));
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "s3";
+    }
+
+    @Override
+    public void put(String key, Path file) throws IOException {
+        long size = Files.size(file);
+        String object = objectName(key);
+        if (size <= partSize) {
+            byte[] body = Files.readAllBytes(file);
+            expectOk(send("PUT", object, "", body, body.length, null), "PUT", object);
+            return;
+        }
+
+        String uploadId = startUpload(object);
+        try (InputStream in = Files.newInputStream(file)) {
+            List<String> etags = new ArrayList<>();
+            byte[] part = new byte[partSize];
+            for (int n; (n = in.readNBytes(part, 0, partSize)) > 0; ) {
+                String query = "partNumber=" + (etags.size() + 1) + "&uploadId=" + uriEncode(uploadId, true);
+                HttpResponse<byte[]> r = expectOk(send("PUT", object, query, part, n, null), "UploadPart", object);
+                etags.add(r.headers().firstValue("ETag")
+                        .orElseThrow(() -> new IOException("UploadPart without ETag for " + object)));
+            }
+            completeUpload(object, uploadId, etags);
+        } catch (IOException | RuntimeException ex) {
+            try {
+                send("DELETE", object, "uploadId=" + uriEncode(uploadId, true), EMPTY, 0, null);
+            } catch (IOException abortFailed) {
+                ex.addSuppressed(abortFailed);
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        String object = objectName(key);
+        HttpResponse<byte[]> r = send("HEAD", object, "", EMPTY, 0, null);
+        if (r.statusCode() == 404) {
+            return -1;
+        }
+        expectOk(r, "HEAD", object);
+        return r.headers().firstValueAsLong("Content-Length").orElse(-1);
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        if (length == 0) {
+            return new ByteArrayInputStream(EMPTY);
+        }
+        String object = objectName(key);
+        String range = offset == 0 && length < 0 ? null
+                : "bytes=" + offset + "-" + (length < 0 ? "" : Long.toString(offset + length - 1));
+        HttpRequest request = signed("GET", object, "", EMPTY, 0, range)
+                .GET()
+                .build();
+        HttpResponse<InputStream> r = call(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (r.statusCode() == 206 || (r.statusCode() == 200 && range == null)) {
+            return r.body();
+        }
+        if (r.statusCode() == 200) {
+            // The store ignored the Range header and sent the whole object: cut the slice out of it
+            InputStream in = r.body();
+            try {
+                in.skipNBytes(offset);
+            } catch (IOException ex) {
+                in.close();
+                throw ex;
+            }
+            return length < 0 ? in : new BoundedInputStream(in, length);
+        }
+        byte[] error = r.body().readAllBytes();
+        r.body().close();
+        if (r.statusCode() == 404) {
+            throw new NoSuchFileException(object);
+        }
+        throw failure("GET", object, r.statusCode(), error);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        String object = objectName(key);
+        HttpResponse<byte[]> r = send("DELETE", object, "", EMPTY, 0, null);
+        if (r.statusCode() != 404) {
+            expectOk(r, "DELETE", object);
+        }
+    }
+
+    private String objectName(String key) {
+        return cfg.getPrefix() + BlobStore.shardedName(key);
+    }
+
+    private String startUpload(String object) throws IOException {
+        HttpResponse<byte[]> r = expectOk(send("POST", object, "uploads=", EMPTY, 0, null), "CreateMultipartUpload", object);
+        Matcher m = UPLOAD_ID.matcher(new String(r.body(), StandardCharsets.UTF_8));
+        if (!m.find()) {
+            throw new IOException("CreateMultipartUpload without UploadId for " + object);
+        }
+        return m.group(1);
+    }
+
+    private void completeUpload(String object, String uploadId, List<String> etags) throws IOException {
+        StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < etags.size(); i++) {
+            xml.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                    .append(etags.get(i).replace("\"", "&quot;")).append("</ETag></Part>");
+        }
+        byte[] body = xml.append("</CompleteMultipartUpload>").toString().getBytes(StandardCharsets.UTF_8);
+        HttpResponse<byte[]> r = expectOk(send("POST", object, "uploadId=" + uriEncode(uploadId, true), body, body.length, null),
+                "CompleteMultipartUpload", object);
+        // S3 reports some completion failures in a 200 response
+        if (new String(r.body(), StandardCharsets.UTF_8).contains("<Error>")) {
+            throw failure("CompleteMultipartUpload", object, r.statusCode(), r.body());
+        }
+    }
+
+    private HttpResponse<byte[]> send(String method, String object, String query, byte[] body, int length, String range)
+            throws IOException {
+        HttpRequest.BodyPublisher publisher = length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body, 0, length);
+        HttpRequest request = signed(method, object, query, body, length, range)
+                .method(method, publisher)
+                .build();
+        return call(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private <T> HttpResponse<T> call(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return http.send(request, handler);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted: " + request.method() + " " + request.uri());
+        }
+    }
+
+    /**
+     * Request with a Signature V4 Authorization header (host, x-amz-content-sha256, x-amz-date signed).
+     * {@code query} must already be in canonical form: encoded and sorted by name.
+     */
+    private HttpRequest.Builder signed(String method, String object, String query, byte[] body, int length, String range) {
+        String path = basePath + "/" + uriEncode(object, false);
+        String amzDate = AMZ_DATE.format(Instant.now());
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + cfg.getRegion() + "/s3/aws4_request";
+        String payloadHash = hex(sha256(body, length));
+
+        String canonicalRequest = method + "\n" + path + "\n" + query + "\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + amzDate + "\n"
+                + "\nhost;x-amz-content-sha256;x-amz-date\n"
+                + payloadHash;
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n"
+                + hex(sha256(canonicalRequest.getBytes(StandardCharsets.UTF_8), -1));
+
+        byte[] signingKey = hmac(("AWS4" + cfg.getSecretKey()).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = hmac(signingKey, cfg.getRegion());
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = hex(hmac(signingKey, stringToSign));
+
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(scheme + "://" + host + path + (query.isEmpty() ? "" : "?" + query)))
+                .timeout(timeout)
+                .header("x-amz-date", amzDate)
+                .header("x-amz-content-sha256", payloadHash)
+                .header("Authorization", "AWS4-HMAC-SHA256 Credential=" + cfg.getAccessKey() + "/" + scope
+                        + ", SignedHeaders=host;x-amz-content-sha256;x-amz-date, Signature=" + signature);
+        if (range != null) {
+            b.header("Range", range);
+        }
+        return b;
+    }
+
+    private static HttpResponse<byte[]> expectOk(HttpResponse<byte[]> r, String operation, String object) throws IOException {
+        if (r.statusCode() / 100 != 2) {
+            throw failure(operation, object, r.statusCode(), r.body());
+        }
+        return r;
+    }
+
+    private static IOException failure(String operation, String object, int status, byte[] body) {
+        String detail = body == null ? "" : new String(body, 0, Math.min(body.length, 512), StandardCharsets.UTF_8);
+        return new IOException("S3 " + operation + " " + object + " failed: HTTP " + status + " " + detail);
+    }
+
+    /**
+     * RFC 3986 percent-encoding as Signature V4 expects; '/' kept unless encodeSlash
+     */
+    static String uriEncode(String s, boolean encodeSlash) {
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                sb.append(c);
+            } else {
+                sb.append('%').append(Character.toUpperCase(Character.forDigit((c >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static byte[] sha256(byte[] data, int length) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(data, 0, length < 0 ? data.length : length);
+            return md.digest();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
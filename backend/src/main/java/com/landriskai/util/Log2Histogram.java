@@ -0,0 +1,99 @@
+package com.landriskai.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of non-negative longs (e.g. nanoseconds) in power-of-two buckets.
+ * Recording is a leading-zero count and an array increment, with no allocation; quantiles are
+ * bucket upper bounds, so they are exact to within a factor of two.
+ */
+public class Log2Histogram {
+
+    private static final int BUCKETS = 64;
+
+    // Bucket b holds values in [2^(b-1), 2^b); bucket 0 holds 0
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(v)));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sum() {
+        return sum.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Upper bound of the bucket holding the q-th quantile (0 < q <= 1), capped at the maximum seen
+     */
+    public long quantile(double q) {
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            snapshot[b] = buckets.get(b);
+            n += snapshot[b];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += snapshot[b];
+            if (seen >= rank) {
+                return Math.min(upperBound(b), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Non-empty buckets as "<= upper bound" -> count
+     */
+    public Map<String, Long> buckets() {
+        Map<String, Long> m = new LinkedHashMap<>();
+        for (int b = 0; b < BUCKETS; b++) {
+            long c = buckets.get(b);
+            if (c > 0) {
+                m.put("<=" + upperBound(b), c);
+            }
+        }
+        return m;
+    }
+
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++) {
+            buckets.set(b, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == 0 ? 0 : bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.landriskai.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process single-flight: concurrent callers with the same key share one execution.
+ * The first caller runs the work; callers arriving while it is in flight wait for and
+ * receive the same result (or exception). Nothing is cached after completion.
+ *
+ * Not re-entrant: work must not call execute() again with its own key.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public V execute(K key, Callable<V> work) throws Exception {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+
+        executions.incrementAndGet();
+        try {
+            V value = work.call();
+            mine.complete(value);
+            return value;
+        } catch (Exception | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("executions", executions.get());
+        m.put("coalesced", coalesced.get());
+        m.put("inFlight", inFlight.size());
+        return m;
+    }
+
+    private V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException | CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception e) throw e;
+            if (cause instanceof Error e) throw e;
+            throw ex;
+        }
+    }
+}
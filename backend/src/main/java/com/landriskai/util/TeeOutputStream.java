@@ -0,0 +1,80 @@
+package com.landriskai.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes to a primary stream (e.g. an HTTP response) and keeps a copy of every byte.
+ * If the primary fails (client gone) the copy keeps growing, so the producer can finish and the
+ * bytes can still be persisted; the failure is reported by {@link #primaryFailure()}.
+ * Meant for small documents: the copy is held in memory. Not thread-safe.
+ */
+public class TeeOutputStream extends OutputStream {
+
+    private final OutputStream primary;
+    private final ByteArrayOutputStream copy;
+    private IOException primaryFailure;
+
+    public TeeOutputStream(OutputStream primary, int expectedBytes) {
+        this.primary = primary;
+        this.copy = new ByteArrayOutputStream(expectedBytes);
+    }
+
+    @Override
+    public void write(int b) {
+        copy.write(b);
+        if (primaryFailure == null) {
+            try {
+                primary.write(b);
+            } catch (IOException ex) {
+                primaryFailure = ex;
+            }
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        copy.write(b, off, len);
+        if (primaryFailure == null) {
+            try {
+                primary.write(b, off, len);
+            } catch (IOException ex) {
+                primaryFailure = ex;
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (primaryFailure == null) {
+            try {
+                primary.flush();
+            } catch (IOException ex) {
+                primaryFailure = ex;
+            }
+        }
+    }
+
+    /**
+     * Flushes the primary; neither stream is closed
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Everything written so far
+     */
+    public byte[] copy() {
+        return copy.toByteArray();
+    }
+
+    /**
+     * First write/flush failure of the primary, null if all writes reached it
+     */
+    public IOException primaryFailure() {
+        return primaryFailure;
+    }
+}
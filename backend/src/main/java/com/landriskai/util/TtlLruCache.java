@@ -0,0 +1,108 @@
+package com.landriskai.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Small bounded LRU map where every entry carries its own absolute expiry.
+ * Expired entries are dropped on access; the least recently used entry is evicted on overflow.
+ * A single lock is fine at this size: every operation is a hash lookup plus a link update.
+ */
+public class TtlLruCache<K, V> {
+
+    private final int maxEntries;
+    private final LinkedHashMap<K, Entry<V>> map;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public TtlLruCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.map = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public V get(K key) {
+        long now = System.currentTimeMillis();
+        synchronized (map) {
+            Entry<V> e = map.get(key);
+            if (e == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (e.expiresAtMillis <= now) {
+                map.remove(key);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return e.value;
+        }
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            invalidate(key);
+            return;
+        }
+        synchronized (map) {
+            map.put(key, new Entry<>(value, expiresAtMillis));
+            if (map.size() > maxEntries) {
+                Iterator<K> eldest = map.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (map) {
+            map.remove(key);
+        }
+    }
+
+    public int invalidateIf(Predicate<V> predicate) {
+        int removed = 0;
+        synchronized (map) {
+            Iterator<Entry<V>> it = map.values().iterator();
+            while (it.hasNext()) {
+                if (predicate.test(it.next().value)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (map) {
+            size = map.size();
+        }
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("size", size);
+        s.put("maxEntries", maxEntries);
+        s.put("hits", h);
+        s.put("misses", m);
+        s.put("hitRatio", h + m == 0 ? 0.0 : (double) h / (h + m));
+        s.put("evictions", evictions.get());
+        s.put("expirations", expirations.get());
+        return s;
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {}
+}
@@ -0,0 +1,186 @@
+package com.landriskai.api;
+
+import com.landriskai.config.LandRiskAiProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfResponderTest {
+
+    private static final int SIZE = 1000;
+    private static final String KEY = "0f1e2d3c";
+    private static final Instant LAST_MODIFIED = Instant.parse("2026-03-01T10:15:30Z");
+
+    @TempDir
+    Path dir;
+
+    private PdfResponder responder;
+    private byte[] content;
+    private File file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LandRiskAiProperties props = new LandRiskAiProperties();
+        props.getStorage().setMaxRanges(4);
+        responder = new PdfResponder(props);
+        content = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        file = Files.write(dir.resolve("report.pdf"), content).toFile();
+    }
+
+    @Test
+    void suffixRangeIsTheLastBytes() throws Exception {
+        MockHttpServletResponse response = get("bytes=-100", null);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 900-999/1000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(900, 999));
+        assertThat(response.getContentLengthLong()).isEqualTo(100);
+    }
+
+    @Test
+    void suffixLongerThanTheFileIsTheWholeFile() throws Exception {
+        MockHttpServletResponse response = get("bytes=-5000", null);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-999/1000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void openEndedRangeRunsToTheEnd() throws Exception {
+        MockHttpServletResponse response = get("bytes=990-", null);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 990-999/1000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(990, 999));
+    }
+
+    @Test
+    void lastBeyondTheEndIsClamped() throws Exception {
+        MockHttpServletResponse response = get("bytes=950-5000", null);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 950-999/1000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(950, 999));
+    }
+
+    @Test
+    void overlappingAndAdjacentRangesAreMergedIntoOnePart() throws Exception {
+        MockHttpServletResponse response = get("bytes=200-299, 0-99, 100-149, 250-399", null);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges");
+        String body = new String(response.getContentAsByteArray(), StandardCharsets.ISO_8859_1);
+        assertThat(body).contains("Content-Range: bytes 0-149/1000", "Content-Range: bytes 200-399/1000");
+        assertThat(body.split("Content-Range:", -1)).hasSize(3);
+    }
+
+    @Test
+    void rangesMergingIntoOneAreServedAsSinglePart() throws Exception {
+        MockHttpServletResponse response = get("bytes=0-99,100-199,50-150", null);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-199/1000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(0, 199));
+    }
+
+    @Test
+    void multipartContentLengthMatchesTheBody() throws Exception {
+        MockHttpServletResponse response = get("bytes=0-9,500-509,-10", null);
+
+        byte[] body = response.getContentAsByteArray();
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentLengthLong()).isEqualTo(body.length);
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        assertThat(text).contains("Content-Range: bytes 0-9/1000", "Content-Range: bytes 500-509/1000",
+                "Content-Range: bytes 990-999/1000");
+        assertThat(text).endsWith("--\r\n");
+        int part = text.indexOf("\r\n\r\n", text.indexOf("bytes 500-509/1000")) + 4;
+        assertThat(Arrays.copyOfRange(body, part, part + 10)).isEqualTo(slice(500, 509));
+    }
+
+    @Test
+    void unsatisfiableRangesGet416() throws Exception {
+        MockHttpServletResponse response = get("bytes=1000-1100,2000-", null);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */1000");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(get("bytes=-0", null).getStatus()).isEqualTo(416);
+    }
+
+    @Test
+    void moreThanMaxRangesGetTheWholeFile() throws Exception {
+        assertFullFile(get("bytes=0-1,10-11,20-21,30-31,40-41", null));
+    }
+
+    @Test
+    void invalidRangesGetTheWholeFile() throws Exception {
+        assertFullFile(get("bytes=abc-def", null));
+        assertFullFile(get("bytes=500-100", null));
+        assertFullFile(get("bytes=100", null));
+        assertFullFile(get("items=0-99", null));
+    }
+
+    @Test
+    void ifRangeWithAnotherEtagGetsTheWholeFile() throws Exception {
+        assertFullFile(get("bytes=0-99", "\"someotherkey\""));
+        assertFullFile(get("bytes=0-99", "W/" + PdfResponder.etag(KEY)));
+        assertFullFile(get("bytes=0-99", "Sat, 28 Feb 2026 10:15:30 GMT"));
+    }
+
+    @Test
+    void ifRangeNamingThisArtifactKeepsTheRange() throws Exception {
+        assertThat(get("bytes=0-99", PdfResponder.etag(KEY)).getStatus()).isEqualTo(206);
+        assertThat(get("bytes=0-99", "Sun, 01 Mar 2026 10:15:30 GMT").getStatus()).isEqualTo(206);
+    }
+
+    @Test
+    void matchingIfNoneMatchGets304() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/report.pdf");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, PdfResponder.etag(KEY));
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-99");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responder.serve(request, response, KEY, file, LAST_MODIFIED, "report.pdf");
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(PdfResponder.etag(KEY));
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private MockHttpServletResponse get(String range, String ifRange) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/report.pdf");
+        request.addHeader(HttpHeaders.RANGE, range);
+        if (ifRange != null) {
+            request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responder.serve(request, response, KEY, file, LAST_MODIFIED, "report.pdf");
+        return response;
+    }
+
+    private void assertFullFile(MockHttpServletResponse response) {
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentLengthLong()).isEqualTo(SIZE);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    private byte[] slice(int first, int last) {
+        return Arrays.copyOfRange(content, first, last + 1);
+    }
+}
@@ -0,0 +1,150 @@
+package com.landriskai.landrecords;
+
+import com.landriskai.domain.ParcelKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LandRecordIndexTest {
+
+    private static final int PARCELS = 3000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyRecordedParcelIsFoundWithAllItsRowsAndOthersAreNot() throws IOException {
+        List<String> csv = new ArrayList<>(List.of("district,circle,village,khata,khesra,owner,area"));
+        for (int i = 0; i < PARCELS; i++) {
+            // One to three owners per parcel, rows of one parcel not adjacent in the input
+            for (int owner = 0; owner <= i % 3; owner++) {
+                csv.add("Patna,Danapur,Kothwan," + i + "," + (i * 7) + "/2,Owner " + owner + " of " + i + "," + (i + owner) + ".5 acre");
+            }
+        }
+        Collections.shuffle(csv.subList(1, csv.size()), new Random(7));
+        Path out = dir.resolve("records.idx");
+        LandRecordIndexBuilder.Result r = LandRecordIndexBuilder.build(List.of(write("records.csv", csv)), out);
+
+        assertThat(r.rows()).isEqualTo(csv.size() - 1);
+        assertThat(r.skipped()).isZero();
+        LandRecordIndex index = LandRecordIndex.open(out);
+        assertThat(index.size()).isEqualTo(r.rows());
+        assertThat(index.fingerprint()).isEqualTo(r.fingerprint());
+        assertThat(index.fileBytes()).isEqualTo(Files.size(out));
+        for (int i = 0; i < PARCELS; i++) {
+            ParcelKey key = ParcelKey.of(Integer.toString(i), (i * 7) + "/2", "Patna");
+            List<LandRecord> rows = index.find(key);
+            assertThat(rows).as("parcel %d", i).hasSize(i % 3 + 1);
+            for (LandRecord row : rows) {
+                assertThat(row.parcelKey()).isEqualTo(key.toString());
+                assertThat(row.circle()).isEqualTo("Danapur");
+                assertThat(row.village()).isEqualTo("Kothwan");
+                int owner = Integer.parseInt(row.owner().substring("Owner ".length(), row.owner().indexOf(' ', "Owner ".length())));
+                assertThat(row.owner()).isEqualTo("Owner " + owner + " of " + i);
+                assertThat(row.area()).isEqualTo(i + owner + 0.5);
+            }
+            assertThat(index.find(ParcelKey.of(Integer.toString(i), (i * 7) + "/3", "Patna"))).isEmpty();
+            assertThat(index.find(ParcelKey.of(Integer.toString(i), (i * 7) + "/2", "Gaya"))).isEmpty();
+        }
+    }
+
+    @Test
+    void lookupsUseTheCanonicalParcelKey() throws IOException {
+        Path out = dir.resolve("records.idx");
+        LandRecordIndexBuilder.build(List.of(write("records.ndjson", List.of(
+                "{\"district\":\"Purba-Champaran\",\"circle\":\" Motihari \",\"village\":\"Bara Gaon\",\"khata\":\"12\",\"khesra\":\"3 - 4\",\"ownerName\":\"Sita Devi\",\"plotArea\":\"0.25\"}"))), out);
+
+        List<LandRecord> rows = LandRecordIndex.open(out).find(ParcelKey.of("12", "3/4", "purba champaran"));
+        assertThat(rows).containsExactly(new LandRecord("purba champaran|12|3/4", "Motihari", "Bara Gaon", "Sita Devi", 0.25));
+    }
+
+    @Test
+    void duplicateRowsAreKeptAsRecorded() throws IOException {
+        Path csv = write("a.csv", List.of(
+                "district,circle,village,khata,khesra,owner,area",
+                "Patna,Danapur,Kothwan,12,345,Ram Kumar,1.0",
+                "Patna,Danapur,Kothwan,12,345,Ram Kumar,1.0"));
+        Path ndjson = write("b.jsonl", List.of(
+                "{\"district\":\"patna\",\"khata\":\"12\",\"khesra\":\"345\",\"owner\":\"Ram Kumar\",\"area\":\"1.0\"}"));
+        Path out = dir.resolve("records.idx");
+        LandRecordIndexBuilder.Result r = LandRecordIndexBuilder.build(List.of(csv, ndjson), out);
+
+        assertThat(r.rows()).isEqualTo(3);
+        List<LandRecord> rows = LandRecordIndex.open(out).find(ParcelKey.of("12", "345", "Patna"));
+        assertThat(rows).hasSize(3).allSatisfy(row -> assertThat(row.owner()).isEqualTo("Ram Kumar"));
+    }
+
+    @Test
+    void rowsWithoutParcelIdentityAndUnreadableLinesAreSkipped() throws IOException {
+        Path csv = write("a.csv", List.of(
+                "\uFEFFDistrict,Circle,Village,Khata,Khesra,Owner_Name,Plot_Area",
+                "Patna,Danapur,Kothwan,,345,Ram,1",
+                ",Danapur,Kothwan,12,345,Ram,1",
+                "Patna,Danapur,Kothwan,12",
+                "",
+                "Patna,\"Danapur, East\",Kothwan,12,345,\"Kumar, \"\"Ram\"\"\",unknown",
+                "Patna,Danapur,Kothwan,13,1," + "x".repeat(0x10000) + ",1"));
+        Path ndjson = write("b.ndjson", List.of(
+                "{not json",
+                "{\"district\":\"Patna\",\"khesra\":\"345\"}"));
+        Path out = dir.resolve("records.idx");
+        LandRecordIndexBuilder.Result r = LandRecordIndexBuilder.build(List.of(csv, ndjson), out);
+
+        assertThat(r.rows()).isEqualTo(1);
+        assertThat(r.skipped()).isEqualTo(6);
+        LandRecordIndex index = LandRecordIndex.open(out);
+        List<LandRecord> rows = index.find(ParcelKey.of("12", "345", "Patna"));
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).circle()).isEqualTo("Danapur, East");
+        assertThat(rows.get(0).owner()).isEqualTo("Kumar, \"Ram\"");
+        assertThat(rows.get(0).hasArea()).isFalse();
+        assertThat(index.find(ParcelKey.of("13", "1", "Patna"))).isEmpty();
+    }
+
+    @Test
+    void emptyExtractFindsNothing() throws IOException {
+        Path out = dir.resolve("records.idx");
+        LandRecordIndexBuilder.Result r = LandRecordIndexBuilder.build(List.of(write("a.csv", List.of("district,khata,khesra"))), out);
+
+        assertThat(r.rows()).isZero();
+        LandRecordIndex index = LandRecordIndex.open(out);
+        assertThat(index.size()).isZero();
+        assertThat(index.find(ParcelKey.of("12", "345", "Patna"))).isEmpty();
+    }
+
+    @Test
+    void rejectsUnsupportedInputsAndDamagedFiles() throws IOException {
+        assertThatThrownBy(() -> LandRecordIndexBuilder.build(List.of(write("a.txt", List.of("x"))), dir.resolve("x.idx")))
+                .isInstanceOf(IOException.class).hasMessageContaining("Unsupported");
+
+        Path out = dir.resolve("records.idx");
+        LandRecordIndexBuilder.build(List.of(write("a.csv", List.of("district,khata,khesra", "Patna,12,345"))), out);
+        byte[] bytes = Files.readAllBytes(out);
+
+        Path truncated = Files.write(dir.resolve("truncated.idx"), Arrays.copyOf(bytes, LandRecordIndex.HEADER_BYTES + 8));
+        assertThatThrownBy(() -> LandRecordIndex.open(truncated)).isInstanceOf(IOException.class).hasMessageContaining("Corrupt");
+
+        byte[] otherVersion = bytes.clone();
+        otherVersion[4] = 9;
+        Path future = Files.write(dir.resolve("future.idx"), otherVersion);
+        assertThatThrownBy(() -> LandRecordIndex.open(future)).isInstanceOf(IOException.class).hasMessageContaining("version");
+
+        Path notAnIndex = Files.write(dir.resolve("other.idx"), new byte[128]);
+        assertThatThrownBy(() -> LandRecordIndex.open(notAnIndex)).isInstanceOf(IOException.class).hasMessageContaining("Not a land-records index");
+    }
+
+    private Path write(String name, List<String> lines) throws IOException {
+        return Files.write(dir.resolve(name), lines);
+    }
+}
@@ -0,0 +1,144 @@
+package com.landriskai.landrecords;
+
+import com.landriskai.domain.ParcelKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParcelBlacklistTest {
+
+    private static final int LISTED = 2000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyListedParcelIsFoundWithItsTypeAndUnlistedOnesAreRejected() throws IOException {
+        List<String> csv = new ArrayList<>(List.of("district,circle,village,khata,khesra,type"));
+        for (int i = 0; i < LISTED; i++) {
+            csv.add("Patna,Danapur,Village " + (i % 7) + "," + i + "," + (i * 3) + "/1," + (i % 2 == 0 ? "encumbrance" : "court case"));
+        }
+        Path out = dir.resolve("list.mph");
+        ParcelBlacklistBuilder.Result r = ParcelBlacklistBuilder.build(List.of(write("list.csv", csv)), out);
+
+        assertThat(r.parcels()).isEqualTo(LISTED);
+        assertThat(r.skipped()).isZero();
+        ParcelBlacklist list = ParcelBlacklist.open(out);
+        assertThat(list.size()).isEqualTo(LISTED);
+        assertThat(list.fingerprint()).isEqualTo(r.fingerprint());
+        assertThat(list.fileBytes()).isEqualTo(Files.size(out));
+        for (int i = 0; i < LISTED; i++) {
+            int expected = i % 2 == 0 ? ParcelBlacklist.ENCUMBRANCE : ParcelBlacklist.DISPUTE;
+            assertThat(list.flags(ParcelKey.of(Integer.toString(i), (i * 3) + "/1", "Patna"), "Danapur", "Village " + (i % 7)))
+                    .as("parcel %d", i).isEqualTo(expected);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            // Unlisted khesra, district, circle or village: the slot fingerprint must reject them all
+            int k = i % LISTED;
+            assertThat(list.flags(ParcelKey.of(Integer.toString(k), (k * 3) + "/2", "Patna"), "Danapur", "Village " + (k % 7))).isZero();
+            assertThat(list.flags(ParcelKey.of(Integer.toString(k), (k * 3) + "/1", "Gaya"), "Danapur", "Village " + (k % 7))).isZero();
+            assertThat(list.flags(ParcelKey.of(Integer.toString(k), (k * 3) + "/1", "Patna"), "Phulwari", "Village " + (k % 7))).isZero();
+            assertThat(list.flags(ParcelKey.of(Integer.toString(k), (k * 3) + "/1", "Patna"), "Danapur", "Village " + (k % 7 + 1))).isZero();
+        }
+    }
+
+    @Test
+    void lookupsMatchTheCanonicalTuple() throws IOException {
+        Path out = dir.resolve("list.mph");
+        ParcelBlacklistBuilder.build(List.of(write("list.csv", List.of(
+                "district,circle,village,khata,khesra,type",
+                "Purba-Champaran,Motihari,Bara  Gaon,12,3 - 4,mortgage"))), out);
+
+        ParcelBlacklist list = ParcelBlacklist.open(out);
+        assertThat(list.flags(ParcelKey.of("12", "3/4", "purba champaran"), " MOTIHARI ", "bara gaon"))
+                .isEqualTo(ParcelBlacklist.ENCUMBRANCE);
+        assertThat(list.flags(ParcelKey.of("12", "3/4", "purba champaran"), null, "bara gaon")).isZero();
+    }
+
+    @Test
+    void duplicateRowsMergeTheirTypesAcrossInputs() throws IOException {
+        Path csv = write("a.csv", List.of(
+                "district,circle,village,khata,khesra,type",
+                "Patna,Danapur,Kothwan,12,345,lien",
+                "patna,danapur,kothwan,12,345,lien",
+                "Patna,Danapur,Kothwan,7,8,dispute"));
+        Path ndjson = write("b.ndjson", List.of(
+                "{\"district\":\"PATNA\",\"circle\":\"Danapur\",\"village\":\"Kothwan\",\"khata\":\"12\",\"khesra\":\"345\",\"reason\":\"title suit\"}"));
+        Path out = dir.resolve("list.mph");
+        ParcelBlacklistBuilder.Result r = ParcelBlacklistBuilder.build(List.of(csv, ndjson), out);
+
+        assertThat(r.parcels()).isEqualTo(2);
+        ParcelBlacklist list = ParcelBlacklist.open(out);
+        assertThat(list.flags(ParcelKey.of("12", "345", "Patna"), "Danapur", "Kothwan"))
+                .isEqualTo(ParcelBlacklist.ENCUMBRANCE | ParcelBlacklist.DISPUTE);
+        assertThat(list.flags(ParcelKey.of("7", "8", "Patna"), "Danapur", "Kothwan")).isEqualTo(ParcelBlacklist.DISPUTE);
+    }
+
+    @Test
+    void rowsWithoutParcelIdentityAndUnreadableLinesAreSkipped() throws IOException {
+        Path csv = write("a.csv", List.of(
+                "\uFEFFDistrict,Circle,Village,Khata,Khesra,Type",
+                "Patna,Danapur,Kothwan,,345,dispute",
+                ",Danapur,Kothwan,12,345,dispute",
+                "Patna,Danapur,Kothwan,12",
+                "",
+                "\"Patna\",\"Danapur, East\",Kothwan,12,345,encumbrance"));
+        Path ndjson = write("b.jsonl", List.of(
+                "{not json",
+                "{\"district\":\"Patna\",\"khata\":\"12\"}",
+                "{\"district\":\"Gaya\",\"khata\":\"1\",\"khesra\":\"2\",\"type\":null}"));
+        Path out = dir.resolve("list.mph");
+        ParcelBlacklistBuilder.Result r = ParcelBlacklistBuilder.build(List.of(csv, ndjson), out);
+
+        assertThat(r.parcels()).isEqualTo(2);
+        assertThat(r.skipped()).isEqualTo(5);
+        ParcelBlacklist list = ParcelBlacklist.open(out);
+        assertThat(list.flags(ParcelKey.of("12", "345", "Patna"), "Danapur, East", "Kothwan")).isEqualTo(ParcelBlacklist.ENCUMBRANCE);
+        assertThat(list.flags(ParcelKey.of("1", "2", "Gaya"), null, null)).isEqualTo(ParcelBlacklist.DISPUTE);
+    }
+
+    @Test
+    void emptyListMatchesNothing() throws IOException {
+        Path out = dir.resolve("list.mph");
+        ParcelBlacklistBuilder.Result r = ParcelBlacklistBuilder.build(List.of(write("a.csv", List.of("district,khata,khesra"))), out);
+
+        assertThat(r.parcels()).isZero();
+        ParcelBlacklist list = ParcelBlacklist.open(out);
+        assertThat(list.size()).isZero();
+        assertThat(list.flags(ParcelKey.of("12", "345", "Patna"), "Danapur", "Kothwan")).isZero();
+    }
+
+    @Test
+    void rejectsUnsupportedInputsAndDamagedFiles() throws IOException {
+        assertThatThrownBy(() -> ParcelBlacklistBuilder.build(List.of(write("a.txt", List.of("x"))), dir.resolve("x.mph")))
+                .isInstanceOf(IOException.class).hasMessageContaining("Unsupported");
+
+        Path out = dir.resolve("list.mph");
+        ParcelBlacklistBuilder.build(List.of(write("a.csv", List.of("district,khata,khesra", "Patna,12,345"))), out);
+        byte[] bytes = Files.readAllBytes(out);
+
+        Path truncated = Files.write(dir.resolve("truncated.mph"), Arrays.copyOf(bytes, bytes.length - 1));
+        assertThatThrownBy(() -> ParcelBlacklist.open(truncated)).isInstanceOf(IOException.class).hasMessageContaining("Corrupt");
+
+        byte[] otherVersion = bytes.clone();
+        otherVersion[4] = 9;
+        Path future = Files.write(dir.resolve("future.mph"), otherVersion);
+        assertThatThrownBy(() -> ParcelBlacklist.open(future)).isInstanceOf(IOException.class).hasMessageContaining("version");
+
+        Path notAList = Files.write(dir.resolve("other.mph"), new byte[128]);
+        assertThatThrownBy(() -> ParcelBlacklist.open(notAList)).isInstanceOf(IOException.class).hasMessageContaining("Not a parcel blacklist");
+    }
+
+    private Path write(String name, List<String> lines) throws IOException {
+        return Files.write(dir.resolve(name), lines);
+    }
+}
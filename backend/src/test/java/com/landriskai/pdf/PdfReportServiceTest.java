@@ -0,0 +1,49 @@
+package com.landriskai.pdf;
+
+import com.landriskai.domain.RiskBand;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.risk.RiskResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfReportServiceTest {
+
+    private static final Instant GENERATED_AT = Instant.parse("2026-03-01T10:15:30Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void stampingOneReportAgainGivesTheSameBytes() throws Exception {
+        PdfReportService pdf = new PdfReportService();
+        OrderEntity order = OrderEntity.builder()
+                .district("Patna").circle("Danapur").village("Kothwan")
+                .khata("12").khesra("345").ownerName("Ram Kumar").plotArea("Purchased")
+                .whatsappNumber("9876543210").emailAddress("buyer@example.com")
+                .build();
+        RiskResult result = RiskResult.builder().score(10).band(RiskBand.GREEN).findings(List.of()).build();
+        ByteArrayOutputStream base = new ByteArrayOutputStream();
+        pdf.renderBase(order, result, base);
+        Path basePdf = Files.write(dir.resolve("base.pdf"), base.toByteArray());
+
+        byte[] first = stamp(pdf, basePdf, order);
+        Thread.sleep(1100); // PDF dates have second precision
+        byte[] second = stamp(pdf, basePdf, order);
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    private static byte[] stamp(PdfReportService pdf, Path basePdf, OrderEntity order) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pdf.stamp(basePdf, order, 7L, "abc123", "LR-BR-20260301-XYZ234", GENERATED_AT, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,44 @@
+package com.landriskai.risk;
+
+import com.landriskai.domain.ParcelKey;
+import com.landriskai.entity.OrderEntity;
+import com.landriskai.entity.SearchCacheEntity;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RiskInputKeyTest {
+
+    @Test
+    void ordersDifferingOnlyBySeparatorShareTheParcelButNotTheAssessment() {
+        OrderEntity dotted = order("12.3");
+        OrderEntity slashed = order("12/3");
+
+        // Same search-cache row and parcel...
+        assertThat(ParcelKey.of(dotted)).isEqualTo(ParcelKey.of(slashed));
+        assertThat(ParcelKey.of(dotted).searchHash()).isEqualTo(ParcelKey.of(slashed).searchHash());
+        // ...but ID_FORMAT scores the raw identifier, so neither may reuse the other's result
+        assertThat(RiskInputKey.of(dotted)).isNotEqualTo(RiskInputKey.of(slashed));
+    }
+
+    @Test
+    void cacheRowMatchesOnlyTheExactInputsItWasAssessedFrom() {
+        OrderEntity dotted = order("12.3");
+        SearchCacheEntity row = SearchCacheEntity.builder()
+                .district(dotted.getDistrict()).circle(dotted.getCircle()).village(dotted.getVillage())
+                .khata(dotted.getKhata()).khesra(dotted.getKhesra())
+                .ownerName(dotted.getOwnerName()).plotArea(dotted.getPlotArea())
+                .build();
+
+        assertThat(RiskInputKey.of(row)).isEqualTo(RiskInputKey.of(order("12.3")));
+        assertThat(RiskInputKey.of(row)).isNotEqualTo(RiskInputKey.of(order("12/3")));
+    }
+
+    private static OrderEntity order(String khesra) {
+        return OrderEntity.builder()
+                .district("Patna").circle("Danapur").village("Kothwan")
+                .khata("45").khesra(khesra)
+                .ownerName("Ram Kumar").plotArea("Purchased")
+                .build();
+    }
+}